@@ -23,6 +23,7 @@ flagSpec=$(hasFlag     "--spec"     "$@")
 flagSnapshot=$(hasFlag "--snapshot" "$@")
 flagRelease=$(hasFlag  "--release"  "$@")
 flagSize=$(hasFlag     "--size"     "$@")
+flagBench=$(hasFlag    "--bench"    "$@")
 
 first=("jdbc-parent" "jdbc-annotation" "jdbc-core" "jdbc-processor")
 firstStage=$(IFS=,;  printf 'io.kaumei.jdbc:%s,' "${first[@]}")
@@ -30,16 +31,21 @@ firstStage=$(IFS=,;  printf 'io.kaumei.jdbc:%s,' "${first[@]}")
 spec=("jdbc-processor-spec" "jdbc-processor-spec2" "jdbc-processor-spec3")
 specStage=$(IFS=,; printf 'io.kaumei.jdbc:%s,' "${spec[@]}")
 
+benchmark=("jdbc-benchmarks")
+benchmarkStage=$(IFS=,; printf 'io.kaumei.jdbc:%s,' "${benchmark[@]}")
+
 integration=("jdbc-integration-spring")
 integrationStage=$(IFS=,; printf 'io.kaumei.jdbc:%s,' "${integration[@]}")
 
 echo "firstStage......: ${firstStage}"
 echo "specStage.......: ${specStage}"
+echo "benchmarkStage..: ${benchmarkStage}"
 echo "integrationStage: ${integrationStage}"
 
 function mvn_clean_install() {
     mvn clean install --projects ${firstStage}
     mvn clean install --projects ${specStage}
+    mvn clean install --projects ${benchmarkStage}
     mvn clean install --projects ${integrationStage}
 }
 
@@ -62,6 +68,11 @@ elif [[ -n "${flagSpec}" ]]; then
     mvn clean install -DskipTests  --projects ${firstStage}
     mvn clean install              --projects ${specStage}
 
+elif [[ -n "${flagBench}" ]]; then
+    mvn clean install -DskipTests  --projects ${firstStage}
+    mvn clean install              --projects ${benchmarkStage}
+    mvn exec:exec                  --projects ${benchmarkStage} -Djmh.args="${JMH_ARGS:-}"
+
 elif [[ -n "${flagSnapshot}" ]]; then
     check_credentials
     clean_repository
@@ -101,6 +112,7 @@ else
     echo "nothing to do, use one of"
     echo " --build ......... build the whole project"
     echo " --spec .......... execute only the spec tests"
+    echo " --bench ......... run the JMH benchmarks, pass JMH arguments with JMH_ARGS"
     echo " --snapshot ...... publish snapshot"
     echo " --release ....... publish release"
     echo " --size .......... gather stats of project size"
@@ -0,0 +1,18 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.annotation.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.PARAMETER})
+public @interface JdbcBatchBytes {
+    // estimated size of the bound parameters in bytes
+    int value() default -1;
+}
\ No newline at end of file
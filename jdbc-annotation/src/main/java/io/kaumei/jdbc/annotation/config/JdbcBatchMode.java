@@ -0,0 +1,19 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.annotation.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface JdbcBatchMode {
+    enum Kind {UNSPECIFIED, JDBC_BATCH, MULTI_ROW_INSERT, COPY, PIPELINED}
+
+    Kind value() default Kind.UNSPECIFIED;
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory H2 database with one open connection, shared by all calls of a benchmark.
+ */
+public final class BenchmarkDatabase implements JdbcConnectionProvider, AutoCloseable {
+
+    private final static AtomicInteger COUNTER = new AtomicInteger();
+
+    private final Connection con;
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+
+    private BenchmarkDatabase(String url) throws SQLException {
+        this.dataSource.setURL(url);
+        this.dataSource.setUser("sa");
+        this.dataSource.setPassword("sa");
+        this.con = this.dataSource.getConnection();
+    }
+
+    /**
+     * Creates a new database with the table {@code customers} and the given number of rows.
+     *
+     * @param settings additional H2 settings, e.g. {@code QUERY_CACHE_SIZE=0}
+     */
+    public static BenchmarkDatabase open(int rows, String... settings) throws SQLException {
+        var url = "jdbc:h2:mem:bench" + COUNTER.incrementAndGet() + ";MODE=PostgreSQL";
+        for (var setting : settings) {
+            url += ";" + setting;
+        }
+        var db = new BenchmarkDatabase(url);
+        db.execute("""
+                CREATE TABLE customers (
+                    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    name         VARCHAR(255) NOT NULL,
+                    budge        INTEGER,
+                    pricing_plan VARCHAR(10) NOT NULL
+                )""");
+        db.execute("INSERT INTO customers (name, budge, pricing_plan) "
+                + "SELECT 'name-' || x, CASE WHEN MOD(x, 10) = 0 THEN NULL ELSE x END, 'FREE' FROM SYSTEM_RANGE(1, " + rows + ")");
+        return db;
+    }
+
+    public void execute(String sql) throws SQLException {
+        try (var stmt = this.con.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    @Override
+    public Connection getConnection() {
+        return this.con;
+    }
+
+    /**
+     * New connections to the same database, e.g. for pipelined batches.
+     */
+    @Override
+    public DataSource ownedConnections() {
+        return this.dataSource;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.con.close();
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.annotation.JdbcName;
+import org.jspecify.annotations.Nullable;
+
+public record Customer(long id,
+                       String name,
+                       @Nullable Integer budge,
+                       @JdbcName("pricing_plan") String plan) {
+}
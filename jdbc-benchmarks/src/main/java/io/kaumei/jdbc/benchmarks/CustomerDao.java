@@ -0,0 +1,50 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.JdbcIterable;
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import io.kaumei.jdbc.annotation.JdbcUpdateBatch;
+import io.kaumei.jdbc.annotation.config.JdbcBatchMode;
+import io.kaumei.jdbc.annotation.config.JdbcBatchSize;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CustomerDao {
+
+    @JdbcSelect("SELECT name FROM customers WHERE id = :id")
+    String selectName(long id);
+
+    @JdbcSelect("SELECT id, name, budge, pricing_plan FROM customers ORDER BY id LIMIT :limit")
+    List<Customer> listCustomers(int limit);
+
+    @JdbcSelect("SELECT id, name, budge, pricing_plan FROM customers ORDER BY id LIMIT :limit")
+    Stream<Customer> streamCustomers(int limit);
+
+    @JdbcSelect("SELECT id, name, budge, pricing_plan FROM customers ORDER BY id LIMIT :limit")
+    JdbcIterable<Customer> iterateCustomers(int limit);
+
+    @JdbcUpdate("UPDATE customers SET budge = :budge WHERE id = :id")
+    int updateBudge(long id, int budge);
+
+    interface InsertBatch extends JdbcBatch {
+        @JdbcUpdate("INSERT INTO customers (name, budge, pricing_plan) VALUES (:name, :budge, 'FREE')")
+        void insert(String name, int budge);
+    }
+
+    @JdbcBatchSize(100)
+    @JdbcUpdateBatch
+    InsertBatch insertBatch();
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.PIPELINED)
+    @JdbcBatchSize(100)
+    @JdbcUpdateBatch
+    InsertBatch insertBatchPipelined();
+
+}
@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The methods of {@link CustomerDao} written by hand with plain JDBC, as in the README.
+ * It is the baseline for the generated {@code CustomerDaoJdbc}.
+ * <p>
+ * There is no hand-written stream: {@link #forEachCustomer} reads the rows in a loop,
+ * which is the least work any stream or iterable can do.
+ */
+public final class HandWrittenCustomerDao {
+
+    private final static String SELECT_CUSTOMERS = "SELECT id, name, budge, pricing_plan FROM customers ORDER BY id LIMIT ?";
+
+    private final JdbcConnectionProvider supplier;
+
+    public HandWrittenCustomerDao(JdbcConnectionProvider supplier) {
+        this.supplier = requireNonNull(supplier, "supplier");
+    }
+
+    public String selectName(long id) {
+        try {
+            var con = this.supplier.getConnection();
+            try (var stmt = con.prepareStatement("SELECT name FROM customers WHERE id = ?")) {
+                stmt.setLong(1, id);
+                try (var rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new JdbcException("No rows");
+                    }
+                    var name = requireNonNull(rs.getString(1));
+                    if (rs.next()) {
+                        throw new JdbcException("Too many rows");
+                    }
+                    return name;
+                }
+            }
+        } catch (SQLException e) {
+            throw new JdbcException(e.getMessage(), e);
+        }
+    }
+
+    public List<Customer> listCustomers(int limit) {
+        try {
+            var con = this.supplier.getConnection();
+            try (var stmt = con.prepareStatement(SELECT_CUSTOMERS)) {
+                stmt.setInt(1, limit);
+                try (var rs = stmt.executeQuery()) {
+                    var list = new ArrayList<Customer>();
+                    while (rs.next()) {
+                        list.add(toCustomer(rs));
+                    }
+                    return Collections.unmodifiableList(list);
+                }
+            }
+        } catch (SQLException e) {
+            throw new JdbcException(e.getMessage(), e);
+        }
+    }
+
+    public void forEachCustomer(int limit, Consumer<Customer> action) {
+        try {
+            var con = this.supplier.getConnection();
+            try (var stmt = con.prepareStatement(SELECT_CUSTOMERS)) {
+                stmt.setInt(1, limit);
+                try (var rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(toCustomer(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new JdbcException(e.getMessage(), e);
+        }
+    }
+
+    public int updateBudge(long id, int budge) {
+        try {
+            var con = this.supplier.getConnection();
+            try (var stmt = con.prepareStatement("UPDATE customers SET budge = ? WHERE id = ?")) {
+                stmt.setInt(1, budge);
+                stmt.setLong(2, id);
+                return stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new JdbcException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inserts all rows with a batch of {@code batchSize} rows.
+     */
+    public void insert(List<String> names, int batchSize) {
+        try {
+            var con = this.supplier.getConnection();
+            try (var stmt = con.prepareStatement("INSERT INTO customers (name, budge, pricing_plan) VALUES (?, ?, 'FREE')")) {
+                var rows = 0;
+                for (int i = 0; i < names.size(); i++) {
+                    stmt.setString(1, names.get(i));
+                    stmt.setInt(2, i);
+                    stmt.addBatch();
+                    if (++rows == batchSize) {
+                        stmt.executeBatch();
+                        rows = 0;
+                    }
+                }
+                if (rows > 0) {
+                    stmt.executeBatch();
+                }
+            }
+        } catch (SQLException e) {
+            throw new JdbcException(e.getMessage(), e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private static Customer toCustomer(ResultSet rs) throws SQLException {
+        var id = rs.getLong("id");
+        if (rs.wasNull()) {
+            throw new NullPointerException("JDBC column was null on column id");
+        }
+        var name = requireNonNull(rs.getString("name"));
+        var budgeInt = rs.getInt("budge");
+        var budge = rs.wasNull() ? null : budgeInt;
+        var plan = requireNonNull(rs.getString("pricing_plan"));
+        return new Customer(id, name, budge, plan);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.benchmarks.stub.StubConnection;
+import io.kaumei.jdbc.benchmarks.stub.StubTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.kaumei.jdbc.benchmarks.stub.StubTable.Type.*;
+
+/**
+ * The generated mapping and binding code without a database: {@link StubConnection}
+ * serves pre-generated rows and discards the parameters. Run with {@code -prof gc}
+ * to see the allocation per call.
+ * <ul>
+ *     <li>{@code narrowRows}: {@code rows} records with 4 columns</li>
+ *     <li>{@code wideRows}: {@code rows} records with 16 columns, 10 of them nullable</li>
+ *     <li>{@code bind}: an update with 10 parameters</li>
+ * </ul>
+ * {@code nullRatio} is the share of null values in the nullable columns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"0.0", "0.5"})
+    public double nullRatio;
+
+    private StubDao narrow;
+    private StubDao wide;
+    private long id;
+
+    @Setup
+    public void setup() {
+        this.narrow = new StubDaoJdbc(new StubConnection(StubTable.builder(this.rows)
+                .nullRatio(this.nullRatio)
+                .column("id", LONG, false)
+                .column("name", STRING, false)
+                .column("budge", INT, true)
+                .column("pricing_plan", STRING, false)
+                .build()));
+        this.wide = new StubDaoJdbc(new StubConnection(StubTable.builder(this.rows)
+                .nullRatio(this.nullRatio)
+                .column("id", LONG, false)
+                .column("i0", INT, false)
+                .column("l0", LONG, false)
+                .column("d0", DOUBLE, false)
+                .column("b0", BOOLEAN, false)
+                .column("i1", INT, true)
+                .column("l1", LONG, true)
+                .column("d1", DOUBLE, true)
+                .column("b1", BOOLEAN, true)
+                .column("s0", STRING, false)
+                .column("s1", STRING, true)
+                .column("s2", STRING, true)
+                .column("s3", STRING, true)
+                .column("i2", INT, true)
+                .column("l2", LONG, true)
+                .column("d2", DOUBLE, true)
+                .build()));
+    }
+
+    @Benchmark
+    public List<Customer> narrowRows() {
+        return this.narrow.listCustomers();
+    }
+
+    @Benchmark
+    public List<StubDao.WideRow> wideRows() {
+        return this.wide.listWide();
+    }
+
+    @Benchmark
+    public int bind() {
+        var i = ++this.id;
+        var nullable = this.nullRatio > 0 && (i & 1) == 0;
+        return this.wide.updateWide(i, (int) i, nullable ? null : (int) i, i, nullable ? null : i,
+                i, nullable ? null : (double) i, (i & 1) == 0, "s0", nullable ? null : "s1");
+    }
+}
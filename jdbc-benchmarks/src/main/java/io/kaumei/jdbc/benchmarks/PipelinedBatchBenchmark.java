@@ -0,0 +1,124 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.impl.DelegatingPreparedStatement;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch insert of {@value #ROWS} rows with a plain and a pipelined batch.
+ * <p>
+ * An in-memory database has no network, so {@code roundTripMillis} adds the round trip
+ * of a remote database to every {@code executeBatch}. {@code rowWork} is the work of the
+ * producer per row, e.g. reading and parsing the input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelinedBatchBenchmark {
+
+    private final static int ROWS = 1_000;
+
+    @Param({"0", "2"})
+    public int roundTripMillis;
+
+    @Param({"0", "10000"})
+    public int rowWork;
+
+    private BenchmarkDatabase db;
+    private CustomerDao dao;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.db = BenchmarkDatabase.open(0);
+        this.dao = new CustomerDaoJdbc(new RoundTrip(this.db, this.roundTripMillis));
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        this.db.execute("TRUNCATE TABLE customers");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.db.close();
+    }
+
+    @Benchmark
+    public void plain() {
+        try (var batch = this.dao.insertBatch()) {
+            this.insert(batch);
+        }
+    }
+
+    @Benchmark
+    public void pipelined() {
+        try (var batch = this.dao.insertBatchPipelined()) {
+            this.insert(batch);
+        }
+    }
+
+    private void insert(CustomerDao.InsertBatch batch) {
+        for (int i = 0; i < ROWS; i++) {
+            Blackhole.consumeCPU(this.rowWork);
+            batch.insert("name-" + i, i);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Adds a fixed round trip to every {@code executeBatch}.
+     */
+    record RoundTrip(JdbcConnectionProvider provider, int millis) implements JdbcConnectionProvider {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return this.provider.getConnection();
+        }
+
+        @Override
+        public @Nullable DataSource ownedConnections() {
+            return this.provider.ownedConnections();
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+            var target = this.provider.prepareStatement(con, sql);
+            return new DelegatingPreparedStatement() {
+                @Override
+                protected PreparedStatement delegate() {
+                    return target;
+                }
+
+                @Override
+                public int[] executeBatch() throws SQLException {
+                    if (millis > 0) {
+                        try {
+                            Thread.sleep(millis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException(e);
+                        }
+                    }
+                    return target.executeBatch();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.anno.Processor;
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import org.jspecify.annotations.NullMarked;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compile time of the annotation processor for synthetic source trees of growing size.
+ * <p>
+ * Each tree has {@code interfaces} DAO interfaces with {@code methods} methods each. The methods
+ * select, list and update {@code types} value types with their own {@code @JavaToJdbc} and
+ * {@code @JdbcToJava} converters. Each tree is compiled with javac and a new {@link Processor}
+ * in this JVM, first {@code warmup} times and then {@code runs} times.
+ * <p>
+ * The median of the runs is printed as CSV, one line per tree: the wall time of javac, the
+ * bytes allocated by the compiling thread and the time of the processor split by its services.
+ * {@code perMethodMicros} is the wall time per generated method: it grows with the tree size,
+ * if the processor does not scale linearly.
+ * <pre>{@code
+ * mvn exec:java -Dexec.mainClass=io.kaumei.jdbc.benchmarks.ProcessorScaling \
+ *     -Dexec.args="interfaces=10,100,400 methods=10 types=1,16 runs=5 warmup=2"
+ * }</pre>
+ */
+public final class ProcessorScaling {
+
+    private final static String PACKAGE = "bench";
+
+    record Tree(int interfaces, int methods, int types) {
+    }
+
+    record Result(long wallNanos, long allocatedBytes, Processor.Timing timing) {
+    }
+
+    private ProcessorScaling() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] interfaces = {10, 100};
+        int[] methods = {10};
+        int[] types = {1, 8};
+        int runs = 3;
+        int warmup = 1;
+        for (var arg : args) {
+            var kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            switch (kv[0]) {
+                case "interfaces" -> interfaces = ints(kv[1]);
+                case "methods" -> methods = ints(kv[1]);
+                case "types" -> types = ints(kv[1]);
+                case "runs" -> runs = Integer.parseInt(kv[1]);
+                case "warmup" -> warmup = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        System.out.println("interfaces,methods,types,wallMillis,allocatedMB,"
+                + "configMillis,jdbc2javaMillis,java2jdbcMillis,generateMillis,processorMillis,perMethodMicros");
+        for (var i : interfaces) {
+            for (var m : methods) {
+                for (var t : types) {
+                    var tree = new Tree(i, m, t);
+                    var result = median(run(tree, warmup, runs));
+                    System.out.println(csv(tree, result));
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    static List<Result> run(Tree tree, int warmup, int runs) throws IOException {
+        var dir = Files.createTempDirectory("kaumei-scaling");
+        try {
+            var sources = generate(tree, dir.resolve("src"));
+            var results = new ArrayList<Result>(runs);
+            for (int i = 0; i < warmup + runs; i++) {
+                var result = compile(sources, dir.resolve("out" + i));
+                if (i >= warmup) {
+                    results.add(result);
+                }
+            }
+            return results;
+        } finally {
+            delete(dir);
+        }
+    }
+
+    static Result compile(List<Path> sources, Path out) throws IOException {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var classes = Files.createDirectories(out.resolve("classes"));
+        var generated = Files.createDirectories(out.resolve("generated"));
+        try (var fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            var options = List.of(
+                    "-classpath", classpath(),
+                    "-d", classes.toString(),
+                    "-s", generated.toString(),
+                    "-proc:full");
+            var task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(sources));
+            var processor = new Processor();
+            task.setProcessors(List.of(processor));
+
+            System.gc();
+            var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            var allocated = threads.getCurrentThreadAllocatedBytes();
+            var start = System.nanoTime();
+            var success = task.call();
+            var wallNanos = System.nanoTime() - start;
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+            if (!success) {
+                throw new IllegalStateException("Compilation failed: " + diagnostics.getDiagnostics().stream()
+                        .filter(d -> d.getKind() == javax.tools.Diagnostic.Kind.ERROR)
+                        .limit(5)
+                        .map(d -> d.getMessage(Locale.ROOT))
+                        .toList());
+            }
+            return new Result(wallNanos, allocated, processor.timing());
+        }
+    }
+
+    static Result median(List<Result> results) {
+        var sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingLong(Result::wallNanos));
+        return sorted.get(sorted.size() / 2);
+    }
+
+    static String csv(Tree tree, Result result) {
+        var timing = result.timing();
+        return tree.interfaces() + "," + tree.methods() + "," + tree.types()
+                + "," + millis(result.wallNanos())
+                + "," + result.allocatedBytes() / (1024 * 1024)
+                + "," + millis(timing.configNanos())
+                + "," + millis(timing.jdbc2JavaNanos())
+                + "," + millis(timing.java2JdbcNanos())
+                + "," + millis(timing.generateNanos())
+                + "," + millis(timing.totalNanos())
+                + "," + TimeUnit.NANOSECONDS.toMicros(result.wallNanos()) / ((long) tree.interfaces() * tree.methods());
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Writes the value types and the DAO interfaces of the tree.
+     */
+    static List<Path> generate(Tree tree, Path dir) throws IOException {
+        var pkg = Files.createDirectories(dir.resolve(PACKAGE));
+        var sources = new ArrayList<Path>();
+        for (int t = 0; t < tree.types(); t++) {
+            sources.add(Files.writeString(pkg.resolve("Value" + t + ".java"), """
+                    package %1$s;
+
+                    import io.kaumei.jdbc.annotation.JavaToJdbc;
+                    import io.kaumei.jdbc.annotation.JdbcToJava;
+
+                    public record Value%2$d(String value) {
+                        @JavaToJdbc
+                        String toDB() {
+                            return this.value;
+                        }
+
+                        @JdbcToJava
+                        static Value%2$d fromDB(String value) {
+                            return new Value%2$d(value);
+                        }
+                    }
+                    """.formatted(PACKAGE, t)));
+            sources.add(Files.writeString(pkg.resolve("Row" + t + ".java"), """
+                    package %1$s;
+
+                    public record Row%2$d(long id, Value%2$d value) {
+                    }
+                    """.formatted(PACKAGE, t)));
+        }
+        for (int i = 0; i < tree.interfaces(); i++) {
+            var body = new StringBuilder();
+            for (int m = 0; m < tree.methods(); m++) {
+                var t = (i * tree.methods() + m) % tree.types();
+                var method = switch (m % 3) {
+                    case 0 -> """
+                                @JdbcSelect("SELECT value FROM table%1$d WHERE id = :id")
+                                Value%1$d select%2$d(long id);
+
+                            """;
+                    case 1 -> """
+                                @JdbcSelect("SELECT id, value FROM table%1$d WHERE value = :value")
+                                List<Row%1$d> list%2$d(Value%1$d value);
+
+                            """;
+                    default -> """
+                                @JdbcUpdate("UPDATE table%1$d SET value = :value WHERE id = :id")
+                                int update%2$d(long id, Value%1$d value);
+
+                            """;
+                };
+                body.append(method.formatted(t, m));
+            }
+            sources.add(Files.writeString(pkg.resolve("Dao" + i + ".java"), """
+                    package %s;
+
+                    import io.kaumei.jdbc.annotation.JdbcSelect;
+                    import io.kaumei.jdbc.annotation.JdbcUpdate;
+
+                    import java.util.List;
+
+                    public interface Dao%d {
+
+                    %s}
+                    """.formatted(PACKAGE, i, body)));
+        }
+        return sources;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the class path of the annotations, the runtime and JSpecify for the synthetic tree
+     */
+    private static String classpath() {
+        var paths = new ArrayList<String>();
+        for (var type : List.of(JdbcSelect.class, JdbcConnectionProvider.class, NullMarked.class)) {
+            try {
+                paths.add(Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return String.join(java.io.File.pathSeparator, paths);
+    }
+
+    private static int[] ints(String value) {
+        return Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void delete(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.annotation.JdbcToJava;
+import io.kaumei.jdbc.impl.ResultSetUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collecting a result set into a list. Run with {@code -prof gc} to see the allocation per call.
+ * <ul>
+ *     <li>{@code arrayList}: growing {@link ArrayList} wrapped by {@link Collections#unmodifiableList(List)}</li>
+ *     <li>{@code compactList}: {@link ResultSetUtils#toList(ResultSet, int, JdbcToJava.Row)} without capacity hint</li>
+ *     <li>{@code compactListExpectedRows}: the same with the exact number of rows as hint</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultListBenchmark {
+
+    private final static JdbcToJava.Row<Long> ID = rs -> rs.getLong(1);
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private BenchmarkDatabase db;
+    private PreparedStatement stmt;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.db = BenchmarkDatabase.open(this.rows);
+        this.stmt = this.db.getConnection().prepareStatement("SELECT id FROM customers");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.stmt.close();
+        this.db.close();
+    }
+
+    @Benchmark
+    public List<Long> arrayList() throws SQLException {
+        try (var rs = this.stmt.executeQuery()) {
+            var list = new ArrayList<Long>();
+            while (rs.next()) {
+                list.add(ID.mapRowToJava(rs));
+            }
+            return Collections.unmodifiableList(list);
+        }
+    }
+
+    @Benchmark
+    public List<Long> compactList() throws SQLException {
+        try (var rs = this.stmt.executeQuery()) {
+            return ResultSetUtils.toList(rs, 0, ID);
+        }
+    }
+
+    @Benchmark
+    public List<Long> compactListExpectedRows() throws SQLException {
+        try (var rs = this.stmt.executeQuery()) {
+            return ResultSetUtils.toList(rs, this.rows, ID);
+        }
+    }
+}
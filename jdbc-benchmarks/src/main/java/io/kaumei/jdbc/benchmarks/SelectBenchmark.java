@@ -0,0 +1,100 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated selects compared with {@link HandWrittenCustomerDao}. Each {@code generated*}
+ * benchmark has a {@code handWritten*} counterpart, run with {@code -prof gc} to compare
+ * the allocation per call ({@code gc.alloc.rate.norm}).
+ * <ul>
+ *     <li>{@code *Value}: one column of one row</li>
+ *     <li>{@code *List}: {@code rows} records, one column is mapped with {@code @JdbcName}</li>
+ *     <li>{@code *Stream}, {@code *Iterable}: the same rows, each row is consumed</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectBenchmark {
+
+    @Param({"10", "1000"})
+    public int rows;
+
+    private BenchmarkDatabase db;
+    private CustomerDao generated;
+    private HandWrittenCustomerDao handWritten;
+    private long id;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.db = BenchmarkDatabase.open(1_000);
+        this.generated = new CustomerDaoJdbc(this.db);
+        this.handWritten = new HandWrittenCustomerDao(this.db);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.db.close();
+    }
+
+    private long nextId() {
+        this.id = this.id % 1_000 + 1;
+        return this.id;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Benchmark
+    public String generatedValue() {
+        return this.generated.selectName(this.nextId());
+    }
+
+    @Benchmark
+    public String handWrittenValue() {
+        return this.handWritten.selectName(this.nextId());
+    }
+
+    @Benchmark
+    public List<Customer> generatedList() {
+        return this.generated.listCustomers(this.rows);
+    }
+
+    @Benchmark
+    public List<Customer> handWrittenList() {
+        return this.handWritten.listCustomers(this.rows);
+    }
+
+    @Benchmark
+    public void generatedStream(Blackhole bh) {
+        try (var stream = this.generated.streamCustomers(this.rows)) {
+            stream.forEach(bh::consume);
+        }
+    }
+
+    @Benchmark
+    public void generatedIterable(Blackhole bh) {
+        try (var iterable = this.generated.iterateCustomers(this.rows)) {
+            for (var customer : iterable) {
+                bh.consume(customer);
+            }
+        }
+    }
+
+    @Benchmark
+    public void handWrittenLoop(Blackhole bh) {
+        this.handWritten.forEachCustomer(this.rows, bh::consume);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcStatementCache;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated DAO methods with and without {@link JdbcStatementCache} on one H2 connection.
+ * <p>
+ * H2 caches parsed commands per session, which hides the cost of a prepare.
+ * {@code queryCache=false} disables this cache, so each prepare parses the SQL
+ * like a database server without its own statement cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    @Param({"false", "true"})
+    public boolean queryCache;
+
+    private BenchmarkDatabase db;
+    private @Nullable JdbcStatementCache cache;
+    private CustomerDao dao;
+    private long id;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.db = this.queryCache
+                ? BenchmarkDatabase.open(1_000)
+                : BenchmarkDatabase.open(1_000, "QUERY_CACHE_SIZE=0");
+        JdbcConnectionProvider provider = this.db;
+        if (this.cached) {
+            this.cache = new JdbcStatementCache(this.db, 16);
+            provider = this.cache;
+        }
+        this.dao = new CustomerDaoJdbc(provider);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        if (this.cache != null) {
+            this.cache.close();
+        }
+        this.db.close();
+    }
+
+    private long nextId() {
+        this.id = this.id % 1_000 + 1;
+        return this.id;
+    }
+
+    @Benchmark
+    public String selectValue() {
+        return this.dao.selectName(this.nextId());
+    }
+
+    @Benchmark
+    public int update() {
+        return this.dao.updateBudge(this.nextId(), 42);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * DAO for the stub driver, the SQL is never executed.
+ */
+public interface StubDao {
+
+    record WideRow(long id, int i0, long l0, double d0, boolean b0,
+                   @Nullable Integer i1, @Nullable Long l1, @Nullable Double d1, @Nullable Boolean b1,
+                   String s0, @Nullable String s1, @Nullable String s2, @Nullable String s3,
+                   @Nullable Integer i2, @Nullable Long l2, @Nullable Double d2) {
+    }
+
+    @JdbcSelect("SELECT id, name, budge, pricing_plan FROM customers")
+    List<Customer> listCustomers();
+
+    @JdbcSelect("SELECT * FROM wide")
+    List<WideRow> listWide();
+
+    @JdbcUpdate("""
+            UPDATE wide SET i0 = :i0, i1 = :i1, l0 = :l0, l1 = :l1, d0 = :d0, d1 = :d1, b0 = :b0, s0 = :s0, s1 = :s1
+            WHERE id = :id""")
+    int updateWide(long id, int i0, @Nullable Integer i1, long l0, @Nullable Long l1,
+                   double d0, @Nullable Double d1, boolean b0, String s0, @Nullable String s1);
+}
@@ -0,0 +1,90 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated updates compared with {@link HandWrittenCustomerDao}, run with {@code -prof gc}
+ * to compare the allocation per call ({@code gc.alloc.rate.norm}).
+ * <ul>
+ *     <li>{@code *Update}: update of one row by its primary key</li>
+ *     <li>{@code *Batch}: insert of {@value #ROWS} rows with a batch size of 100</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateBenchmark {
+
+    private final static int ROWS = 1_000;
+
+    private BenchmarkDatabase db;
+    private CustomerDao generated;
+    private HandWrittenCustomerDao handWritten;
+    private List<String> names;
+    private long id;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.db = BenchmarkDatabase.open(1_000);
+        this.generated = new CustomerDaoJdbc(this.db);
+        this.handWritten = new HandWrittenCustomerDao(this.db);
+        this.names = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            this.names.add("name-" + i);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        this.db.execute("DELETE FROM customers WHERE id > 1000");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.db.close();
+    }
+
+    private long nextId() {
+        this.id = this.id % 1_000 + 1;
+        return this.id;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Benchmark
+    public int generatedUpdate() {
+        return this.generated.updateBudge(this.nextId(), 42);
+    }
+
+    @Benchmark
+    public int handWrittenUpdate() {
+        return this.handWritten.updateBudge(this.nextId(), 42);
+    }
+
+    @Benchmark
+    public void generatedBatch() {
+        try (var batch = this.generated.insertBatch()) {
+            for (int i = 0; i < ROWS; i++) {
+                batch.insert(this.names.get(i), i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void handWrittenBatch() {
+        this.handWritten.insert(this.names, 100);
+    }
+}
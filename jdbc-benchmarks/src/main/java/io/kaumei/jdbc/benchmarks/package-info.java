@@ -0,0 +1,9 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+@NullMarked
+package io.kaumei.jdbc.benchmarks;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks.stub;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory {@link Connection} of the stub driver: every query returns the rows of one
+ * {@link StubTable}, every update changes one row and bound parameters are discarded.
+ * The SQL is never parsed.
+ * <p>
+ * It is also a {@link JdbcConnectionProvider}, so it can be passed to a generated DAO as is.
+ * Methods the generated code does not call throw a {@link java.sql.SQLFeatureNotSupportedException}.
+ */
+public final class StubConnection extends UnsupportedConnection implements JdbcConnectionProvider {
+
+    private final StubTable table;
+    private boolean autoCommit = true;
+    private boolean closed;
+
+    public StubConnection(StubTable table) {
+        this.table = requireNonNull(table, "table");
+    }
+
+    public StubTable table() {
+        return this.table;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return this;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        this.checkOpen();
+        return new StubPreparedStatement(this, this.table);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return this.prepareStatement(sql);
+    }
+
+    @Override
+    public boolean getAutoCommit() {
+        return this.autoCommit;
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) {
+        this.autoCommit = autoCommit;
+    }
+
+    @Override
+    public void commit() {
+        // nothing to commit
+    }
+
+    @Override
+    public void rollback() {
+        // nothing to roll back
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Connection is closed");
+        }
+    }
+}
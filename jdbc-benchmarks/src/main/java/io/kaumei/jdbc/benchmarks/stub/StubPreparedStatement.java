@@ -0,0 +1,226 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks.stub;
+
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * Statement of the {@link StubConnection}.
+ * <p>
+ * Bound parameters are discarded: each setter only stores the value in a field, so the JIT
+ * can not remove the code which computes the value. Queries return the rows of the table,
+ * updates and each row of a batch report one changed row.
+ */
+final class StubPreparedStatement extends UnsupportedPreparedStatement {
+
+    private final StubConnection con;
+    private final StubTable table;
+    // ----- sinks of the bound parameters
+    private long boundValues;
+    private @Nullable Object boundObject;
+    // ----- state
+    private int batchRows;
+    private int fetchSize;
+    private int maxRows;
+    private int queryTimeout;
+    private boolean closed;
+
+    StubPreparedStatement(StubConnection con, StubTable table) {
+        this.con = con;
+        this.table = table;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return this.con;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        this.checkOpen();
+        return new StubResultSet(this, this.table, this.maxRows);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        this.checkOpen();
+        return 1;
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.checkOpen();
+        this.batchRows++;
+    }
+
+    @Override
+    public void clearBatch() {
+        this.batchRows = 0;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        this.checkOpen();
+        var result = new int[this.batchRows];
+        Arrays.fill(result, 1);
+        this.batchRows = 0;
+        return result;
+    }
+
+    @Override
+    public void clearParameters() {
+        this.boundObject = null;
+    }
+
+    @Override
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    @Override
+    public void setFetchSize(int rows) {
+        this.fetchSize = rows;
+    }
+
+    @Override
+    public int getMaxRows() {
+        return this.maxRows;
+    }
+
+    @Override
+    public void setMaxRows(int max) {
+        this.maxRows = max;
+    }
+
+    @Override
+    public int getQueryTimeout() {
+        return this.queryTimeout;
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) {
+        this.queryTimeout = seconds;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Statement is closed");
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) {
+        this.boundValues += parameterIndex;
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) {
+        this.boundValues += parameterIndex;
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) {
+        this.boundValues += x ? 1 : 0;
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) {
+        this.boundValues += x;
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) {
+        this.boundValues += x;
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) {
+        this.boundValues += x;
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) {
+        this.boundValues += x;
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) {
+        this.boundValues += Float.floatToRawIntBits(x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) {
+        this.boundValues += Double.doubleToRawLongBits(x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, @Nullable BigDecimal x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setString(int parameterIndex, @Nullable String x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setNString(int parameterIndex, @Nullable String value) {
+        this.boundObject = value;
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte @Nullable [] x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setDate(int parameterIndex, @Nullable Date x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setTime(int parameterIndex, @Nullable Time x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, @Nullable Timestamp x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setObject(int parameterIndex, @Nullable Object x) {
+        this.boundObject = x;
+    }
+
+    @Override
+    public void setObject(int parameterIndex, @Nullable Object x, int targetSqlType) {
+        this.boundObject = x;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks.stub;
+
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Forward-only cursor over a {@link StubTable}. Every getter is an array access,
+ * a value of a null column reads as {@code 0}, {@code false} or {@code null}.
+ */
+final class StubResultSet extends UnsupportedResultSet {
+
+    private final StubPreparedStatement stmt;
+    private final StubTable table;
+    private final int rows;
+    // ----- state
+    private int row = -1;
+    private boolean wasNull;
+    private boolean closed;
+
+    StubResultSet(StubPreparedStatement stmt, StubTable table, int maxRows) {
+        this.stmt = stmt;
+        this.table = table;
+        this.rows = maxRows > 0 ? Math.min(maxRows, table.rows()) : table.rows();
+    }
+
+    @Override
+    public Statement getStatement() {
+        return this.stmt;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean next() throws SQLException {
+        this.checkOpen();
+        if (this.row < this.rows) {
+            this.row++;
+        }
+        return this.row < this.rows;
+    }
+
+    @Override
+    public boolean isBeforeFirst() {
+        return this.row < 0 && this.rows > 0;
+    }
+
+    @Override
+    public boolean isAfterLast() {
+        return this.row >= this.rows && this.rows > 0;
+    }
+
+    @Override
+    public boolean isFirst() {
+        return this.row == 0 && this.rows > 0;
+    }
+
+    @Override
+    public boolean isLast() {
+        return this.row == this.rows - 1;
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        var index = this.table.indexOf(columnLabel);
+        if (index < 0) {
+            throw new SQLException("Column not found: " + columnLabel);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return this.wasNull;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        return this.column(columnIndex).longs()[this.row] != 0;
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        return (byte) this.column(columnIndex).longs()[this.row];
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        return (short) this.column(columnIndex).longs()[this.row];
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        return (int) this.column(columnIndex).longs()[this.row];
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        return this.column(columnIndex).longs()[this.row];
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        return (float) this.column(columnIndex).doubles()[this.row];
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        return this.column(columnIndex).doubles()[this.row];
+    }
+
+    @Override
+    public @Nullable BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        var column = this.column(columnIndex);
+        return this.wasNull ? null : BigDecimal.valueOf(column.doubles()[this.row]);
+    }
+
+    @Override
+    public @Nullable String getString(int columnIndex) throws SQLException {
+        return this.column(columnIndex).strings()[this.row];
+    }
+
+    @Override
+    public @Nullable Object getObject(int columnIndex) throws SQLException {
+        return this.column(columnIndex).objects()[this.row];
+    }
+
+    @Override
+    public <T> @Nullable T getObject(int columnIndex, Class<T> type) throws SQLException {
+        var value = this.column(columnIndex).objects()[this.row];
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        throw new SQLException("Column " + columnIndex + " is not a " + type.getName() + ": " + value.getClass().getName());
+    }
+
+    // ----- by label
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return this.getBoolean(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        return this.getByte(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        return this.getShort(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return this.getInt(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        return this.getLong(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        return this.getFloat(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        return this.getDouble(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public @Nullable BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return this.getBigDecimal(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public @Nullable String getString(String columnLabel) throws SQLException {
+        return this.getString(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public @Nullable Object getObject(String columnLabel) throws SQLException {
+        return this.getObject(this.findColumn(columnLabel));
+    }
+
+    @Override
+    public <T> @Nullable T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return this.getObject(this.findColumn(columnLabel), type);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the column of the current row and updates {@link #wasNull()}
+     */
+    private StubTable.Column column(int columnIndex) throws SQLException {
+        if (this.row < 0 || this.row >= this.rows) {
+            throw new SQLException("No current row");
+        }
+        if (columnIndex < 1 || columnIndex > this.table.width()) {
+            throw new SQLException("Invalid column index: " + columnIndex);
+        }
+        var column = this.table.column(columnIndex);
+        this.wasNull = column.nulls()[this.row];
+        return column;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("ResultSet is closed");
+        }
+    }
+}
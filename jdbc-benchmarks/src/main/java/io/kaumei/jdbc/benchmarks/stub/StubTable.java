@@ -0,0 +1,158 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.benchmarks.stub;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Pre-generated, column-oriented rows served by {@link StubResultSet}.
+ * <p>
+ * Every value is generated once: the numeric, the string and the boxed form. Reading
+ * a column from the stub is an array access, so a benchmark measures the code which
+ * maps the result set and not the driver.
+ * <pre>{@code
+ * var table = StubTable.builder(1_000)
+ *         .nullRatio(0.1)
+ *         .column("id", StubTable.Type.LONG, false)
+ *         .column("name", StubTable.Type.STRING, true)
+ *         .build();
+ * }</pre>
+ */
+public final class StubTable {
+
+    public enum Type {
+        BOOLEAN, INT, LONG, DOUBLE, STRING
+    }
+
+    /**
+     * One column, every array has one entry per row.
+     */
+    record Column(String name, Type type, boolean[] nulls, long[] longs, double[] doubles,
+                  @Nullable String[] strings, @Nullable Object[] objects) {
+    }
+
+    private final int rows;
+    private final Column[] columns;
+    private final Map<String, Integer> indexes;
+
+    private StubTable(int rows, Column[] columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.indexes = new HashMap<>();
+        for (int i = columns.length - 1; i >= 0; i--) {
+            this.indexes.put(columns[i].name().toLowerCase(Locale.ROOT), i + 1);
+        }
+    }
+
+    public static Builder builder(int rows) {
+        return new Builder(rows);
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int width() {
+        return this.columns.length;
+    }
+
+    Column column(int columnIndex) {
+        return this.columns[columnIndex - 1];
+    }
+
+    /**
+     * @return the 1-based index of the column, -1 if the table has no such column
+     */
+    int indexOf(String columnLabel) {
+        var index = this.indexes.get(columnLabel.toLowerCase(Locale.ROOT));
+        return index == null ? -1 : index;
+    }
+
+    // ------------------------------------------------------------------------
+
+    public static final class Builder {
+
+        private record Spec(String name, Type type, boolean nullable) {
+        }
+
+        private final int rows;
+        private final List<Spec> specs = new ArrayList<>();
+        private double nullRatio;
+        private long seed = 42;
+
+        private Builder(int rows) {
+            if (rows < 0) {
+                throw new IllegalArgumentException("rows must not be negative: " + rows);
+            }
+            this.rows = rows;
+        }
+
+        /**
+         * @param nullRatio the share of null values in nullable columns, between 0 and 1
+         */
+        public Builder nullRatio(double nullRatio) {
+            if (nullRatio < 0 || nullRatio > 1) {
+                throw new IllegalArgumentException("nullRatio must be between 0 and 1: " + nullRatio);
+            }
+            this.nullRatio = nullRatio;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder column(String name, Type type, boolean nullable) {
+            this.specs.add(new Spec(name, type, nullable));
+            return this;
+        }
+
+        public StubTable build() {
+            var random = new SplittableRandom(this.seed);
+            var columns = new Column[this.specs.size()];
+            for (int c = 0; c < columns.length; c++) {
+                var spec = this.specs.get(c);
+                var nulls = new boolean[this.rows];
+                var longs = new long[this.rows];
+                var doubles = new double[this.rows];
+                var strings = new String[this.rows];
+                var objects = new Object[this.rows];
+                for (int r = 0; r < this.rows; r++) {
+                    if (spec.nullable() && random.nextDouble() < this.nullRatio) {
+                        nulls[r] = true;
+                        continue;
+                    }
+                    Object value = switch (spec.type()) {
+                        case BOOLEAN -> random.nextBoolean();
+                        case INT -> random.nextInt(1_000_000);
+                        case LONG -> random.nextLong(1_000_000_000_000L);
+                        case DOUBLE -> random.nextDouble() * 1_000;
+                        case STRING -> spec.name() + "-" + random.nextInt(1_000_000);
+                    };
+                    if (value instanceof Number number) {
+                        longs[r] = number.longValue();
+                        doubles[r] = number.doubleValue();
+                    } else if (value instanceof Boolean bool) {
+                        longs[r] = bool ? 1 : 0;
+                        doubles[r] = longs[r];
+                    }
+                    strings[r] = value.toString();
+                    objects[r] = value;
+                }
+                columns[c] = new Column(spec.name(), spec.type(), nulls, longs, doubles, strings, objects);
+            }
+            return new StubTable(this.rows, columns);
+        }
+    }
+}
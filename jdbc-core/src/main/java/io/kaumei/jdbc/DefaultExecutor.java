@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the default of {@link JdbcConnectionProvider#executor()}, it starts a virtual thread
+ * per call, named kaumei-jdbc-&lt;n&gt;. The executor is created on first use.
+ */
+final class DefaultExecutor {
+
+    final static Executor INSTANCE = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("kaumei-jdbc-", 0).factory());
+
+    private DefaultExecutor() {
+    }
+}
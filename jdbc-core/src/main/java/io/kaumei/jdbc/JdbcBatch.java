@@ -5,13 +5,59 @@
 
 package io.kaumei.jdbc;
 
+import org.jspecify.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface JdbcBatch extends AutoCloseable {
 
+    /**
+     * Why the statements of a batch were sent to the database.
+     */
+    enum FlushReason {
+        /** the batch reached {@link #bachSize()} statements */
+        BATCH_SIZE,
+        /** the estimated size of the bound parameters reached {@link #batchBytes()} */
+        BATCH_BYTES,
+        /** the oldest statement of the batch waited longer than {@link #batchLingerMillis()} */
+        LINGER,
+        /** {@link #executeBatch()} was called */
+        EXECUTE,
+        /** {@link #close()} was called */
+        CLOSE
+    }
+
+    /**
+     * A statement which failed in the recovery mode, see {@link #recoverFailedRows(Consumer)}.
+     *
+     * @param parameters the bound parameters, the first parameter has the index 0
+     * @param error      the error of the statement or of the part of the batch with the statement
+     */
+    record FailedRow(List<@Nullable Object> parameters, SQLException error) {
+    }
+
     /**
      * @return the current batch size, which can not be changed
      */
     int bachSize();
 
+    /**
+     * @return the byte budget of a batch, or -1 if the batch is only flushed by count
+     */
+    int batchBytes();
+
+    /**
+     * @return the maximal time in milliseconds a statement waits in the batch, or -1 if unlimited
+     */
+    int batchLingerMillis();
+
+    /**
+     * @return the estimated size of the bound parameters of the current batch, 0 without a byte budget
+     */
+    long pendingBytes();
+
     /**
      * @return the current batch count, the number of statements not send to the database
      */
@@ -22,6 +68,30 @@ public interface JdbcBatch extends AutoCloseable {
      */
     int countAll();
 
+    /**
+     * @return the reason of the last flush, or null if nothing was sent to the database yet
+     */
+    @Nullable FlushReason lastFlushReason();
+
+    /**
+     * @return the number of flushes with the given reason
+     */
+    int countFlushes(FlushReason reason);
+
+    /**
+     * Enables the recovery mode, it must be called before the first statement is added.
+     * <p>
+     * The parameters of every statement are recorded. If a batch fails, it is split and the parts
+     * are executed again until the failed statements are found. They are passed to the dead letter
+     * handler and reported as {@link java.sql.Statement#EXECUTE_FAILED}, the batch continues.
+     */
+    void recoverFailedRows(Consumer<FailedRow> deadLetter);
+
+    /**
+     * @return the number of statements passed to the dead letter handler
+     */
+    int countFailedRows();
+
     /**
      * Will call the JDBC function `clearParameters` on the statement
      */
@@ -5,12 +5,69 @@
 
 package io.kaumei.jdbc;
 
+import org.jspecify.annotations.Nullable;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.concurrent.Executor;
 
 // @part:JdbcConnectionProvider
 @FunctionalInterface
 public interface JdbcConnectionProvider {
     Connection getConnection() throws SQLException;
+    // @part:JdbcConnectionProvider
+
+    // ------------------------------------------------------------------------
+    // All generated code prepares statements with these methods. Overwrite
+    // them to intercept statement creation, e.g. see JdbcStatementCache.
+
+    default PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+        return con.prepareStatement(sql);
+    }
+
+    default PreparedStatement prepareStatement(Connection con, String sql,
+                                               int resultSetType, int resultSetConcurrency) throws SQLException {
+        return con.prepareStatement(sql, resultSetType, resultSetConcurrency);
+    }
+
+    default PreparedStatement prepareStatement(Connection con, String sql, int autoGeneratedKeys) throws SQLException {
+        return con.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    // ------------------------------------------------------------------------
+    // Generated methods returning a CompletableFuture run on this executor,
+    // the default starts a virtual thread per call, named kaumei-jdbc-<n>.
+    // getConnection() is called on the executor thread, not on the caller's.
+    // Providers which bind connections to a thread, like the transactions of
+    // Spring's DataSourceUtils or a JPA EntityManager, hand out a connection
+    // outside of the caller's transaction. Its statements are neither committed
+    // nor rolled back with the caller's transaction.
+
+    default Executor executor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    // ------------------------------------------------------------------------
+    // The connections of getConnection() belong to the provider, the generated
+    // code never commits, rolls back or closes them. Sharded batches and the
+    // EXPLAIN of slow queries need connections of their own, they take them from
+    // this data source and commit and close them. Each call must return a new
+    // connection, which is not bound to the caller's transaction. The default
+    // has none, sharded batches fail and slow queries are not explained.
+
+    default @Nullable DataSource ownedConnections() {
+        return null;
+    }
+
+    // ------------------------------------------------------------------------
+    // Generated methods report their phases to this listener, see JdbcListener.
+    // The default has no listener and the generated code creates no events.
+
+    default @Nullable JdbcListener listener() {
+        return null;
+    }
+    // @part:JdbcConnectionProvider
 }
 // @part:JdbcConnectionProvider
@@ -0,0 +1,34 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Batch which returns the generated keys of its statements, e.g. {@code interface Inserts extends JdbcKeyBatch<Long>}.
+ * <p>
+ * The keys are read after every flush, in the order of the statements. They are passed to
+ * the consumer or, without a consumer, collected until they are taken.
+ */
+public interface JdbcKeyBatch<K> extends JdbcBatch {
+
+    /**
+     * Sets the consumer, it is called after every flush with the keys of the flushed statements.
+     * Keys which are collected already stay collected.
+     */
+    void onGeneratedKeys(Consumer<List<K>> consumer);
+
+    /**
+     * @return the collected keys, the collection is cleared
+     */
+    List<K> takeGeneratedKeys();
+
+    /**
+     * @return the collected keys as long values, the keys must be numbers and the collection is cleared
+     */
+    long[] takeGeneratedKeysAsLong();
+}
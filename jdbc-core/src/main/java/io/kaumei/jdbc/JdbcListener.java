@@ -0,0 +1,54 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Listener of the generated methods, return it from {@link JdbcConnectionProvider#listener()}:
+ * <pre>{@code
+ * var dao = new CustomerDaoJdbc(new JdbcConnectionProvider() {
+ *     public Connection getConnection() throws SQLException { return dataSource.getConnection(); }
+ *     public JdbcListener listener() { return event -> metrics.record(event); }
+ * });
+ * }</pre>
+ * A call of a generated method reports one event per phase. The last event of a call
+ * has the phase {@link Phase#CLOSE}, it reports the elapsed time and the rows of the
+ * whole call. Results which are read lazily (e.g. {@code Stream} or {@code JdbcIterable})
+ * report {@code FETCH} and {@code CLOSE} after the last row was read or the result was closed.
+ * {@code @JdbcNative} methods only report {@code CONNECTION} and
+ * {@code CLOSE}. Batches report no events.
+ * <p>
+ * The listener is called by the thread which executes the statement and must not throw.
+ * Without a listener the generated code creates no events.
+ */
+@FunctionalInterface
+public interface JdbcListener {
+
+    enum Phase {
+        CONNECTION,
+        PREPARE,
+        BIND,
+        EXECUTE,
+        FETCH,
+        CLOSE
+    }
+
+    /**
+     * @param type         the interface or class of the method
+     * @param method       the name of the method
+     * @param sql          the native SQL, null before the statement is prepared
+     * @param phase        the finished phase
+     * @param rows         the updated or fetched rows, -1 if unknown
+     * @param elapsedNanos the elapsed time of the phase, of the whole call for {@link Phase#CLOSE}
+     * @param error        the error of the call, only set for {@link Phase#CLOSE}
+     */
+    record Event(Class<?> type, String method, @Nullable String sql, Phase phase,
+                 long rows, long elapsedNanos, @Nullable Throwable error) {
+    }
+
+    void onEvent(Event event);
+}
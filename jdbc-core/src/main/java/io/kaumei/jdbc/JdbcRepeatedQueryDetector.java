@@ -0,0 +1,112 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Detects N+1 queries: the same SQL executed again and again within one scope,
+ * e.g. a single-row select called in a loop. Meant for development and staging.
+ * Return it from {@link JdbcConnectionProvider#listener()} and run each request
+ * or transaction in a scope:
+ * <pre>{@code
+ * var detector = new JdbcRepeatedQueryDetector(50);
+ * var dao = new CustomerDaoJdbc(new JdbcConnectionProvider() {
+ *     public Connection getConnection() throws SQLException { return dataSource.getConnection(); }
+ *     public JdbcListener listener() { return detector; }
+ * });
+ * detector.run(() -> handleRequest(dao));
+ * }</pre>
+ * The scope is bound as {@link ScopedValue}, so threads forked within the scope
+ * (e.g. by a {@code StructuredTaskScope}) count to the same scope. Calls outside of
+ * a scope are ignored.
+ * <p>
+ * When one SQL reaches the threshold in a scope, a warning is logged once to the
+ * {@value #LOGGER} logger. It contains the method, the SQL, a stack sample of the caller
+ * and suggests to fetch all rows with one statement, e.g. with a collection
+ * parameter {@code WHERE id IN (:ids)}, which the processor expands for each element.
+ */
+public final class JdbcRepeatedQueryDetector implements JdbcListener {
+
+    public final static String LOGGER = "io.kaumei.jdbc.RepeatedQuery";
+    private final static System.Logger logger = System.getLogger(LOGGER);
+
+    // ----- config
+    private final int threshold;
+    // ------ state: the executions per SQL of the current scope
+    private final ScopedValue<Map<String, AtomicInteger>> scope = ScopedValue.newInstance();
+
+    /**
+     * @param threshold the number of executions of the same SQL within a scope, which is reported
+     */
+    public JdbcRepeatedQueryDetector(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Runs the operation in a new scope.
+     */
+    public void run(Runnable op) {
+        ScopedValue.where(this.scope, new ConcurrentHashMap<>()).run(op);
+    }
+
+    /**
+     * Runs the operation in a new scope and returns its result.
+     */
+    public <T extends @Nullable Object> T call(Supplier<T> op) {
+        var result = new Object[1];
+        this.run(() -> result[0] = op.get());
+        @SuppressWarnings("unchecked")
+        var value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * @return the executions of the SQL in the current scope, 0 outside of a scope
+     */
+    public int count(String sql) {
+        if (!this.scope.isBound()) {
+            return 0;
+        }
+        var counter = this.scope.get().get(sql);
+        return counter == null ? 0 : counter.get();
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (event.phase() != Phase.EXECUTE || event.sql() == null || !this.scope.isBound()) {
+            return;
+        }
+        var count = this.scope.get().computeIfAbsent(event.sql(), k -> new AtomicInteger()).incrementAndGet();
+        if (count == this.threshold) {
+            logger.log(System.Logger.Level.WARNING, "Repeated query " + event.type().getSimpleName() + "." + event.method()
+                            + " executed " + count + " times in one scope, sql: " + event.sql()
+                            + ". Consider to read all rows with one statement, e.g. with a collection parameter: IN (:values)",
+                    new StackSample());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * The stack of the call which reached the threshold.
+     */
+    private static final class StackSample extends Exception {
+        StackSample() {
+            super("stack sample");
+        }
+    }
+}
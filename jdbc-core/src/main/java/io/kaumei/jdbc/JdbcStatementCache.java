@@ -0,0 +1,399 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import io.kaumei.jdbc.impl.DelegatingPreparedStatement;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Opt-in cache for prepared statements. Wrap the provider passed to the generated class:
+ * <pre>{@code
+ * var cache = new JdbcStatementCache(provider, 64);
+ * var dao = new CustomerDaoJdbc(cache);
+ * }</pre>
+ * Statements are cached per connection and keyed by native SQL, result set type,
+ * result set concurrency and generated keys mode. Each connection holds at most
+ * {@code maxStatements} statements, the least recently used one is closed first.
+ * <p>
+ * The generated code closes every statement after use. For a cached statement this
+ * clears the parameters and returns it to the cache. The cache only pays off if the
+ * provider hands out the same connection for many calls (e.g. a transaction bound connection).
+ * Statements of a closed connection are dropped on the next lookup, use
+ * {@link #invalidate(Connection)} to release them right away.
+ */
+public final class JdbcStatementCache implements JdbcConnectionProvider, AutoCloseable {
+
+    private final static int NO_GENERATED_KEYS = -1;
+
+    // ----- services
+    private final JdbcConnectionProvider provider;
+    // ------ state
+    private final int maxStatements;
+    private final Map<Connection, Statements> connections = new IdentityHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JdbcStatementCache(JdbcConnectionProvider provider, int maxStatements) {
+        if (maxStatements < 1) {
+            throw new IllegalArgumentException("maxStatements must be positive: " + maxStatements);
+        }
+        this.provider = requireNonNull(provider, "provider");
+        this.maxStatements = maxStatements;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.provider.getConnection();
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+        return this.lookup(con, new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, NO_GENERATED_KEYS));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(Connection con, String sql,
+                                              int resultSetType, int resultSetConcurrency) throws SQLException {
+        return this.lookup(con, new Key(sql, resultSetType, resultSetConcurrency, NO_GENERATED_KEYS));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(Connection con, String sql, int autoGeneratedKeys) throws SQLException {
+        return this.lookup(con, new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, autoGeneratedKeys));
+    }
+
+    @Override
+    public Executor executor() {
+        return this.provider.executor();
+    }
+
+    @Override
+    public @Nullable JdbcListener listener() {
+        return this.provider.listener();
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return number of statements served from the cache
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return number of statements prepared by the driver
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Closes all cached statements of the given connection. Statements in use are closed on release.
+     */
+    public void invalidate(Connection con) throws SQLException {
+        Statements statements;
+        synchronized (this.connections) {
+            statements = this.connections.remove(con);
+        }
+        if (statements != null) {
+            statements.clear();
+        }
+    }
+
+    /**
+     * Closes all cached statements of all connections.
+     */
+    @Override
+    public void close() throws SQLException {
+        ArrayList<Statements> all;
+        synchronized (this.connections) {
+            all = new ArrayList<>(this.connections.values());
+            this.connections.clear();
+        }
+        SQLException ex = null;
+        for (var statements : all) {
+            try {
+                statements.clear();
+            } catch (SQLException e) {
+                if (ex == null) {
+                    ex = e;
+                } else {
+                    ex.addSuppressed(e);
+                }
+            }
+        }
+        if (ex != null) {
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private PreparedStatement lookup(Connection con, Key key) throws SQLException {
+        Statements statements;
+        synchronized (this.connections) {
+            statements = this.connections.get(con);
+            if (statements == null) {
+                this.removeClosedConnections();
+                statements = new Statements();
+                this.connections.put(con, statements);
+            }
+        }
+        return statements.checkout(con, key);
+    }
+
+    // called with lock on connections, keeps the map at the number of open connections
+    private void removeClosedConnections() throws SQLException {
+        var iter = this.connections.entrySet().iterator();
+        while (iter.hasNext()) {
+            var entry = iter.next();
+            if (entry.getKey().isClosed()) {
+                var statements = entry.getValue();
+                iter.remove();
+                statements.clear();
+            }
+        }
+    }
+
+    private PreparedStatement prepare(Connection con, Key key) throws SQLException {
+        this.misses.increment();
+        if (key.autoGeneratedKeys != NO_GENERATED_KEYS) {
+            return this.provider.prepareStatement(con, key.sql, key.autoGeneratedKeys);
+        } else if (key.resultSetType != ResultSet.TYPE_FORWARD_ONLY || key.resultSetConcurrency != ResultSet.CONCUR_READ_ONLY) {
+            return this.provider.prepareStatement(con, key.sql, key.resultSetType, key.resultSetConcurrency);
+        }
+        return this.provider.prepareStatement(con, key.sql);
+    }
+
+    record Key(String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * The cached statements of one connection in LRU order.
+     */
+    private final class Statements {
+        private final LinkedHashMap<Key, CachedStatement> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized PreparedStatement checkout(Connection con, Key key) throws SQLException {
+            var cached = this.cache.get(key);
+            if (cached != null) {
+                if (cached.inUse) {
+                    // e.g. an open stream with the same SQL, do not share the statement
+                    return JdbcStatementCache.this.prepare(con, key);
+                } else if (cached.target.isClosed()) {
+                    // the connection was closed, all statements are gone
+                    this.clear();
+                } else {
+                    hits.increment();
+                    cached.inUse = true;
+                    return cached;
+                }
+            }
+            cached = new CachedStatement(this, key, JdbcStatementCache.this.prepare(con, key));
+            cached.inUse = true;
+            this.cache.put(key, cached);
+            if (this.cache.size() > maxStatements) {
+                var iter = this.cache.values().iterator();
+                var eldest = iter.next();
+                iter.remove();
+                this.evict(eldest);
+            }
+            return cached;
+        }
+
+        synchronized void release(CachedStatement stmt) throws SQLException {
+            if (!stmt.inUse) {
+                return;
+            }
+            stmt.inUse = false;
+            if (stmt.evicted) {
+                stmt.target.close();
+                return;
+            }
+            try {
+                stmt.reset();
+            } catch (SQLException e) {
+                this.cache.remove(stmt.key, stmt);
+                stmt.evicted = true;
+                try {
+                    stmt.target.close();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
+                }
+                throw e;
+            }
+        }
+
+        synchronized void clear() throws SQLException {
+            SQLException ex = null;
+            for (var stmt : this.cache.values()) {
+                try {
+                    this.evict(stmt);
+                } catch (SQLException e) {
+                    if (ex == null) {
+                        ex = e;
+                    } else {
+                        ex.addSuppressed(e);
+                    }
+                }
+            }
+            this.cache.clear();
+            if (ex != null) {
+                throw ex;
+            }
+        }
+
+        private void evict(CachedStatement stmt) throws SQLException {
+            stmt.evicted = true;
+            if (!stmt.inUse) {
+                stmt.target.close();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * A statement whose close returns it to the cache. Settings changed by the
+     * generated code are reset, so the next user starts with the driver defaults.
+     */
+    private static final class CachedStatement extends DelegatingPreparedStatement {
+        private final static int FETCH_SIZE = 1;
+        private final static int FETCH_DIRECTION = 2;
+        private final static int MAX_ROWS = 4;
+        private final static int QUERY_TIMEOUT = 8;
+
+        private final Statements owner;
+        private final Key key;
+        private final PreparedStatement target;
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxRows;
+        private final int queryTimeout;
+        // ------ state, guarded by owner
+        private boolean inUse;
+        private boolean evicted;
+        private int changed;
+
+        CachedStatement(Statements owner, Key key, PreparedStatement target) throws SQLException {
+            this.owner = owner;
+            this.key = key;
+            this.target = target;
+            this.fetchSize = target.getFetchSize();
+            this.fetchDirection = target.getFetchDirection();
+            this.maxRows = target.getMaxRows();
+            this.queryTimeout = target.getQueryTimeout();
+        }
+
+        @Override
+        protected PreparedStatement delegate() throws SQLException {
+            if (!this.inUse) {
+                throw new SQLException("Statement is closed");
+            }
+            return this.target;
+        }
+
+        void reset() throws SQLException {
+            // rows of a failed batch must not be sent by the next user
+            this.target.clearBatch();
+            this.target.clearParameters();
+            this.target.clearWarnings();
+            if (this.changed != 0) {
+                // reset only what was changed, e.g. H2 executes a command to set the query timeout.
+                // max rows first, some drivers reject a fetch size greater than max rows
+                if ((this.changed & MAX_ROWS) != 0) {
+                    this.target.setMaxRows(this.maxRows);
+                }
+                if ((this.changed & FETCH_SIZE) != 0) {
+                    this.target.setFetchSize(this.fetchSize);
+                }
+                if ((this.changed & FETCH_DIRECTION) != 0) {
+                    this.target.setFetchDirection(this.fetchDirection);
+                }
+                if ((this.changed & QUERY_TIMEOUT) != 0) {
+                    this.target.setQueryTimeout(this.queryTimeout);
+                }
+                this.changed = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.owner.release(this);
+        }
+
+        @Override
+        public boolean isClosed() throws SQLException {
+            return !this.inUse || this.target.isClosed();
+        }
+
+        @Override
+        public void setFetchSize(int rows) throws SQLException {
+            this.changed |= FETCH_SIZE;
+            this.delegate().setFetchSize(rows);
+        }
+
+        @Override
+        public void setFetchDirection(int direction) throws SQLException {
+            this.changed |= FETCH_DIRECTION;
+            this.delegate().setFetchDirection(direction);
+        }
+
+        @Override
+        public void setMaxRows(int max) throws SQLException {
+            this.changed |= MAX_ROWS;
+            this.delegate().setMaxRows(max);
+        }
+
+        @Override
+        public void setLargeMaxRows(long max) throws SQLException {
+            this.changed |= MAX_ROWS;
+            this.delegate().setLargeMaxRows(max);
+        }
+
+        @Override
+        public void setQueryTimeout(int seconds) throws SQLException {
+            this.changed |= QUERY_TIMEOUT;
+            this.delegate().setQueryTimeout(seconds);
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            if (iface.isInstance(this)) {
+                return iface.cast(this);
+            }
+            return this.delegate().unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || this.delegate().isWrapperFor(iface);
+        }
+
+        @Override
+        public String toString() {
+            return "CachedStatement[" + this.target + "]";
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-process statistics of the generated methods, aggregated per interface and method.
+ * Return it from {@link JdbcConnectionProvider#listener()}:
+ * <pre>{@code
+ * var statistics = new JdbcStatistics();
+ * var dao = new CustomerDaoJdbc(new JdbcConnectionProvider() {
+ *     public Connection getConnection() throws SQLException { return dataSource.getConnection(); }
+ *     public JdbcListener listener() { return statistics; }
+ * });
+ * statistics.startServer(new InetSocketAddress(9400)); // GET /metrics
+ * }</pre>
+ * Each call counts the calls, errors, rows and the time with min, max and a histogram.
+ * The native SQL is not part of the key: an expanded collection parameter changes it with
+ * every size, so the entries and the exported series would grow without bound.
+ * The counters are striped ({@link LongAdder}), so many threads can update them without contention.
+ * <p>
+ * {@link #snapshot()} returns the current values, {@link #writePrometheus} writes them in the
+ * Prometheus text format.
+ */
+public final class JdbcStatistics implements JdbcListener {
+
+    /**
+     * The upper bounds of the histogram buckets in nanoseconds, the last bucket has no bound.
+     */
+    public final static List<Long> BUCKET_BOUNDS = List.of(
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L);
+
+    private final static long[] BOUNDS = BUCKET_BOUNDS.stream().mapToLong(Long::longValue).toArray();
+    private final static String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // ------ state
+    private final ConcurrentMap<Key, Counters> counters = new ConcurrentHashMap<>();
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * @param type         the interface or class of the method
+     * @param method       the name of the method
+     * @param calls        the finished calls
+     * @param errors       the failed calls
+     * @param rows         the updated or fetched rows, calls with unknown rows are not counted
+     * @param totalNanos   the time of all calls
+     * @param minNanos     the time of the fastest call
+     * @param maxNanos     the time of the slowest call
+     * @param buckets      the calls per bucket of {@link #BUCKET_BOUNDS}, not cumulative,
+     *                     the last one counts the calls above the last bound
+     */
+    public record Entry(Class<?> type, String method,
+                        long calls, long errors, long rows,
+                        long totalNanos, long minNanos, long maxNanos,
+                        List<Long> buckets) {
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (event.phase() != Phase.CLOSE) {
+            return;
+        }
+        var key = new Key(event.type(), event.method());
+        var entry = this.counters.get(key);
+        if (entry == null) {
+            entry = this.counters.computeIfAbsent(key, k -> new Counters());
+        }
+        entry.add(event);
+    }
+
+    /**
+     * @return the current values, ordered by interface and method
+     */
+    public List<Entry> snapshot() {
+        var result = new ArrayList<Entry>(this.counters.size());
+        this.counters.forEach((key, value) -> result.add(value.toEntry(key)));
+        result.sort(Comparator.comparing((Entry e) -> e.type().getName())
+                .thenComparing(Entry::method));
+        return result;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void reset() {
+        this.counters.clear();
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Writes the current values in the Prometheus text format. The time is written in seconds.
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        var entries = this.snapshot();
+        out.append("# HELP kaumei_jdbc_call_seconds Time of the calls of the generated methods.\n");
+        out.append("# TYPE kaumei_jdbc_call_seconds histogram\n");
+        for (var entry : entries) {
+            long cumulative = 0;
+            for (int i = 0; i < BOUNDS.length; i++) {
+                cumulative += entry.buckets().get(i);
+                this.sample(out, "kaumei_jdbc_call_seconds_bucket", entry, seconds(BOUNDS[i]), cumulative);
+            }
+            this.sample(out, "kaumei_jdbc_call_seconds_bucket", entry, "+Inf", entry.calls());
+            this.sample(out, "kaumei_jdbc_call_seconds_sum", entry, null, seconds(entry.totalNanos()));
+            this.sample(out, "kaumei_jdbc_call_seconds_count", entry, null, entry.calls());
+        }
+        out.append("# HELP kaumei_jdbc_call_min_seconds Time of the fastest call.\n");
+        out.append("# TYPE kaumei_jdbc_call_min_seconds gauge\n");
+        for (var entry : entries) {
+            this.sample(out, "kaumei_jdbc_call_min_seconds", entry, null, seconds(entry.minNanos()));
+        }
+        out.append("# HELP kaumei_jdbc_call_max_seconds Time of the slowest call.\n");
+        out.append("# TYPE kaumei_jdbc_call_max_seconds gauge\n");
+        for (var entry : entries) {
+            this.sample(out, "kaumei_jdbc_call_max_seconds", entry, null, seconds(entry.maxNanos()));
+        }
+        out.append("# HELP kaumei_jdbc_call_errors_total Failed calls.\n");
+        out.append("# TYPE kaumei_jdbc_call_errors_total counter\n");
+        for (var entry : entries) {
+            this.sample(out, "kaumei_jdbc_call_errors_total", entry, null, entry.errors());
+        }
+        out.append("# HELP kaumei_jdbc_call_rows_total Updated or fetched rows.\n");
+        out.append("# TYPE kaumei_jdbc_call_rows_total counter\n");
+        for (var entry : entries) {
+            this.sample(out, "kaumei_jdbc_call_rows_total", entry, null, entry.rows());
+        }
+    }
+
+    public String toPrometheus() {
+        var result = new StringBuilder();
+        try {
+            this.writePrometheus(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // sanity-check: StringBuilder does not throw
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return a handler, which answers every request with {@link #toPrometheus()}
+     */
+    public HttpHandler httpHandler() {
+        return exchange -> {
+            try (exchange) {
+                var body = this.toPrometheus().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        };
+    }
+
+    /**
+     * Starts a server, which serves {@link #toPrometheus()} on {@code /metrics}.
+     * Stop the returned server to release the port.
+     */
+    public HttpServer startServer(InetSocketAddress address) throws IOException {
+        var server = HttpServer.create(requireNonNull(address, "address"), 0);
+        server.createContext("/metrics", this.httpHandler());
+        server.start();
+        return server;
+    }
+
+    // ------------------------------------------------------------------------
+
+    private void sample(Appendable out, String name, Entry entry, @Nullable String le, Object value) throws IOException {
+        out.append(name).append("{type=\"");
+        escape(out, entry.type().getName());
+        out.append("\",method=\"");
+        escape(out, entry.method());
+        if (le != null) {
+            out.append("\",le=\"").append(le);
+        }
+        out.append("\"} ").append(String.valueOf(value)).append('\n');
+    }
+
+    private static void escape(Appendable out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.valueOf((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // ------------------------------------------------------------------------
+
+    private record Key(Class<?> type, String method) {
+    }
+
+    private static final class Counters {
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator minNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+        Counters() {
+            for (int i = 0; i < this.buckets.length; i++) {
+                this.buckets[i] = new LongAdder();
+            }
+        }
+
+        void add(Event event) {
+            var nanos = event.elapsedNanos();
+            if (event.error() != null) {
+                this.errors.increment();
+            }
+            if (event.rows() > 0) {
+                this.rows.add(event.rows());
+            }
+            this.totalNanos.add(nanos);
+            this.minNanos.accumulate(nanos);
+            this.maxNanos.accumulate(nanos);
+            this.buckets[bucket(nanos)].increment();
+        }
+
+        private static int bucket(long nanos) {
+            int i = 0;
+            while (i < BOUNDS.length && nanos > BOUNDS[i]) {
+                i++;
+            }
+            return i;
+        }
+
+        Entry toEntry(Key key) {
+            // the calls are the sum of the buckets, so the histogram is consistent while it is updated
+            long calls = 0;
+            var buckets = new ArrayList<Long>(this.buckets.length);
+            for (var bucket : this.buckets) {
+                var count = bucket.sum();
+                calls += count;
+                buckets.add(count);
+            }
+            return new Entry(key.type(), key.method(),
+                    calls, this.errors.sum(), this.rows.sum(), this.totalNanos.sum(),
+                    calls == 0 ? 0 : this.minNanos.get(), this.maxNanos.get(), List.copyOf(buckets));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list backed by an array, the array may have unused space at its end.
+ * <p>
+ * The array of the result set is not copied, so up to half of it may be unused, e.g. a list of
+ * 1000 rows may keep an array of up to 2000 elements. Copy a large list with {@link java.util.List#copyOf}
+ * to keep it with its exact size.
+ */
+public final class CompactList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final static CompactList<?> EMPTY = new CompactList<>(new Object[0], 0);
+
+    private final @Nullable Object[] elements;
+    private final int size;
+
+    private CompactList(@Nullable Object[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * Takes ownership of the array. It is only trimmed if more than half of it is unused,
+     * i.e. if a capacity hint was too large. The growth of the array never leaves that much.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CompactList<T> of(@Nullable Object[] elements, int size) {
+        if (size == 0) {
+            return (CompactList<T>) EMPTY;
+        }
+        if (elements.length - size > size) {
+            return new CompactList<>(Arrays.copyOf(elements, size), size);
+        }
+        return new CompactList<>(elements, size);
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, this.size);
+        return (T) this.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public @Nullable Object[] toArray() {
+        return Arrays.copyOf(this.elements, this.size);
+    }
+
+    @Override
+    public int indexOf(@Nullable Object o) {
+        for (int i = 0; i < this.size; i++) {
+            if (Objects.equals(o, this.elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return this.indexOf(o) >= 0;
+    }
+}
@@ -0,0 +1,528 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch statement which loads the rows of a batch with PostgreSQL {@code COPY ... FROM STDIN}.
+ * <p>
+ * Every row is encoded in the COPY text format when it is added, a flush sends all rows
+ * of the batch with the {@code CopyManager} of the driver. Only values with a text
+ * representation can be bound, e.g. numbers, strings, binary data, dates and times.
+ * The query timeout is not applied to COPY, use {@code statement_timeout} of the session.
+ * <p>
+ * {@link #prepare} falls back to a plain batch with the insert statement, if the connection
+ * is not a PostgreSQL connection or the driver is not on the class path.
+ */
+public final class CopyInsert extends DelegatingPreparedStatement {
+
+    private final static String NULL = "\\N";
+
+    /**
+     * Sends the rows to the database, see {@code CopyManager#copyIn(String, Reader)}.
+     */
+    @FunctionalInterface
+    interface CopyIn {
+        long copyIn(String sql, Reader rows) throws SQLException, IOException;
+    }
+
+    // ----- services
+    private final JdbcConnectionProvider provider;
+    private final Connection con;
+    private final CopyIn copyIn;
+    // ----- config
+    private final String copySql;
+    private final String insertSql;
+    // ----- state
+    private final @Nullable String[] current;
+    private final StringBuilder rows = new StringBuilder();
+    private int rowCount;
+    private @Nullable PreparedStatement insert;
+    private boolean closed;
+
+    CopyInsert(JdbcConnectionProvider provider, Connection con, CopyIn copyIn,
+               String copySql, String insertSql, int parameterCount) {
+        if (parameterCount < 1) {
+            throw new IllegalArgumentException("parameterCount must be positive: " + parameterCount);
+        }
+        this.provider = requireNonNull(provider, "provider");
+        this.con = requireNonNull(con, "con");
+        this.copyIn = requireNonNull(copyIn, "copyIn");
+        this.copySql = requireNonNull(copySql, "copySql");
+        this.insertSql = requireNonNull(insertSql, "insertSql");
+        this.current = new String[parameterCount];
+    }
+
+    /**
+     * @return a COPY statement for a PostgreSQL connection, otherwise the prepared insert statement
+     */
+    public static PreparedStatement prepare(JdbcConnectionProvider provider, Connection con,
+                                            String copySql, String insertSql, int parameterCount) throws SQLException {
+        var copyIn = PgCopy.copyIn(con);
+        if (copyIn == null) {
+            return provider.prepareStatement(con, insertSql);
+        }
+        return new CopyInsert(provider, con, copyIn, copySql, insertSql, parameterCount);
+    }
+
+    @Override
+    protected PreparedStatement delegate() throws SQLException {
+        this.checkOpen();
+        if (this.insert == null) {
+            this.insert = this.provider.prepareStatement(this.con, this.insertSql);
+        }
+        return this.insert;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.checkOpen();
+        for (int i = 0; i < this.current.length; i++) {
+            var value = this.current[i];
+            if (value == null) {
+                throw new SQLException("Parameter " + (i + 1) + " is not set");
+            }
+            if (i > 0) {
+                this.rows.append('\t');
+            }
+            this.rows.append(value);
+        }
+        this.rows.append('\n');
+        this.rowCount++;
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.checkOpen();
+        Arrays.fill(this.current, null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.checkOpen();
+        this.rows.setLength(0);
+        this.rowCount = 0;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        this.checkOpen();
+        var result = new int[this.rowCount];
+        if (this.rowCount == 0) {
+            return result;
+        }
+        try {
+            var count = this.copyIn.copyIn(this.copySql, new StringReader(this.rows.toString()));
+            Arrays.fill(result, count == this.rowCount ? 1 : Statement.SUCCESS_NO_INFO);
+        } catch (IOException e) {
+            throw new SQLException(e.getMessage(), e);
+        } finally {
+            this.rows.setLength(0);
+            this.rowCount = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.checkOpen();
+        // COPY has no query timeout
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.rows.setLength(0);
+        if (this.insert != null) {
+            this.insert.close();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private void set(int parameterIndex, @Nullable String value) throws SQLException {
+        this.checkOpen();
+        if (parameterIndex < 1 || parameterIndex > this.current.length) {
+            throw new SQLException("Invalid parameter index: " + parameterIndex);
+        }
+        this.current[parameterIndex - 1] = value == null ? NULL : escape(value);
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Statement is closed");
+        }
+    }
+
+    private static SQLException notSupported(String method) {
+        return new SQLFeatureNotSupportedException(method + " is not supported by COPY");
+    }
+
+    /**
+     * Escapes a value for the COPY text format.
+     */
+    static String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            var escaped = switch (c) {
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> null;
+            };
+            if (escaped != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+                }
+                sb.append(escaped);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? value : sb.toString();
+    }
+
+    static String hex(byte[] value) {
+        return "\\x" + HexFormat.of().formatHex(value);
+    }
+
+    /**
+     * A timestamp is written with the offset of the JVM time zone at that instant, so a {@code timestamptz}
+     * column gets the same instant as with JDBC. A {@code timestamp} column ignores the offset.
+     *
+     * @return the ISO-8601 text of the date
+     */
+    static String iso(java.util.Date value) {
+        return switch (value) {
+            case Date d -> d.toLocalDate().toString();
+            case Time t -> t.toLocalTime().toString();
+            default -> value.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime().toString();
+        };
+    }
+
+    static @Nullable String text(@Nullable Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        } else if (value instanceof String s) {
+            return s;
+        } else if (value instanceof Boolean b) {
+            return b ? "t" : "f";
+        } else if (value instanceof BigDecimal d) {
+            return d.toPlainString();
+        } else if (value instanceof byte[] b) {
+            return hex(b);
+        } else if (value instanceof Enum<?> e) {
+            return e.name();
+        } else if (value instanceof java.util.Date d) {
+            return iso(d);
+        } else if (value instanceof ZonedDateTime z) {
+            // the zone id in brackets is not ISO-8601
+            return z.toOffsetDateTime().toString();
+        } else if (value instanceof Number || value instanceof Character || value instanceof UUID
+                || value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        throw notSupported("setObject(" + value.getClass().getName() + ")");
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        this.set(parameterIndex, null);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        this.set(parameterIndex, x ? "t" : "f");
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        this.set(parameterIndex, Byte.toString(x));
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        this.set(parameterIndex, Short.toString(x));
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        this.set(parameterIndex, Integer.toString(x));
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        this.set(parameterIndex, Long.toString(x));
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        this.set(parameterIndex, Float.toString(x));
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        this.set(parameterIndex, Double.toString(x));
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        this.set(parameterIndex, x == null ? null : x.toPlainString());
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        this.set(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        this.set(parameterIndex, x == null ? null : hex(x));
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        this.set(parameterIndex, x == null ? null : iso(x));
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        this.set(parameterIndex, x == null ? null : iso(x));
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        this.set(parameterIndex, x == null ? null : iso(x));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw notSupported("setAsciiStream");
+    }
+
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw notSupported("setUnicodeStream");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw notSupported("setBinaryStream");
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        this.set(parameterIndex, text(x));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        this.set(parameterIndex, text(x));
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        throw notSupported("setCharacterStream");
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        throw notSupported("setRef");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        throw notSupported("setBlob");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        throw notSupported("setClob");
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        throw notSupported("setArray");
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        throw notSupported("setDate");
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        throw notSupported("setTime");
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        throw notSupported("setTimestamp");
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        this.set(parameterIndex, null);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        throw notSupported("setURL");
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        throw notSupported("setRowId");
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        this.set(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        throw notSupported("setNCharacterStream");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        throw notSupported("setNClob");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw notSupported("setClob");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        throw notSupported("setBlob");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw notSupported("setNClob");
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        throw notSupported("setSQLXML");
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        this.set(parameterIndex, text(x));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        throw notSupported("setAsciiStream");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        throw notSupported("setBinaryStream");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw notSupported("setCharacterStream");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        throw notSupported("setAsciiStream");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        throw notSupported("setBinaryStream");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        throw notSupported("setCharacterStream");
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        throw notSupported("setNCharacterStream");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        throw notSupported("setClob");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        throw notSupported("setBlob");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        throw notSupported("setNClob");
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        this.set(parameterIndex, text(x));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        this.set(parameterIndex, text(x));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import org.jspecify.annotations.Nullable;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statement of a slow query, which records the bound parameters to explain the query afterward.
+ * <p>
+ * {@link #explainAsync} runs {@code EXPLAIN} with the same parameters on the executor of the provider,
+ * with a connection of {@link JdbcConnectionProvider#ownedConnections()}. The connection of the caller
+ * belongs to the provider and is never used, it may be in the middle of a transaction. Without owned
+ * connections nothing is explained. The caller does not wait for the plan. Only H2 and PostgreSQL
+ * are supported. The plans are rate-limited per SQL, so a slow query which is called often does not
+ * double the load of the database. The rate limit remembers the last {@value #MAX_PLANS} SQL strings.
+ */
+final class ExplainStatement extends RecordingStatement {
+
+    private final static int MAX_PLANS = 256;
+    // SQL to the time of its last plan, the least recently explained SQL is evicted
+    private final static Map<String, Long> lastPlan = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return this.size() > MAX_PLANS;
+        }
+    };
+    private final static Binder[] EMPTY = new Binder[0];
+
+    // ----- services
+    private final PreparedStatement target;
+    // ----- config
+    private final long intervalNanos;
+    // ----- state
+    private @Nullable Binder[] params = EMPTY;
+    private boolean streams;
+
+    ExplainStatement(PreparedStatement target, int intervalSeconds) {
+        this.target = requireNonNull(target, "target");
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+    }
+
+    @Override
+    protected PreparedStatement delegate() {
+        return this.target;
+    }
+
+    @Override
+    void record(int parameterIndex, @Nullable Object value, Binder binder) throws SQLException {
+        binder.bind(this.delegate(), parameterIndex);
+        if (parameterIndex < 1) {
+            throw new SQLException("Invalid parameter index: " + parameterIndex);
+        }
+        if (parameterIndex > this.params.length) {
+            this.params = Arrays.copyOf(this.params, parameterIndex);
+        }
+        this.params[parameterIndex - 1] = binder;
+        // streams and readers are consumed by the statement
+        this.streams |= value instanceof InputStream || value instanceof Reader;
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.target.clearParameters();
+        Arrays.fill(this.params, null);
+        this.streams = false;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Explains the SQL on {@link JdbcConnectionProvider#executor()} and passes the plan to the log.
+     * Nothing is explained, if the SQL was explained within the interval.
+     */
+    void explainAsync(JdbcConnectionProvider provider, String sql, Consumer<String> log) {
+        if (!this.acquire(sql)) {
+            return;
+        }
+        if (this.streams) {
+            log.accept("EXPLAIN not possible with stream parameters");
+            return;
+        }
+        var dataSource = provider.ownedConnections();
+        if (dataSource == null) {
+            log.accept("EXPLAIN not possible without JdbcConnectionProvider.ownedConnections()");
+            return;
+        }
+        var params = this.params.clone();
+        try {
+            provider.executor().execute(() -> log.accept(plan(dataSource, sql, params)));
+        } catch (RejectedExecutionException e) {
+            log.accept("EXPLAIN failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true, if the SQL was not explained within the interval
+     */
+    private boolean acquire(String sql) {
+        var now = System.nanoTime();
+        synchronized (lastPlan) {
+            var last = lastPlan.get(sql);
+            if (last != null && now - last < this.intervalNanos) {
+                return false;
+            }
+            lastPlan.put(sql, now);
+            return true;
+        }
+    }
+
+    /**
+     * Runs {@code EXPLAIN} on an owned connection, the connection is closed afterward.
+     */
+    private static String plan(DataSource dataSource, String sql, @Nullable Binder[] params) {
+        try (var con = dataSource.getConnection()) {
+            var product = con.getMetaData().getDatabaseProductName();
+            if (!product.equals("H2") && !product.equals("PostgreSQL")) {
+                return "EXPLAIN not supported for " + product;
+            }
+            try (var stmt = con.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    var param = params[i];
+                    if (param != null) {
+                        param.bind(stmt, i + 1);
+                    }
+                }
+                try (var rs = stmt.executeQuery()) {
+                    var plan = new StringBuilder();
+                    while (rs.next()) {
+                        if (!plan.isEmpty()) {
+                            plan.append('\n');
+                        }
+                        plan.append(rs.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of one batch, which is executed by {@link JdbcBatchImpl}.
+ * <p>
+ * The event is disabled by default, enable it in the JFR settings, e.g.
+ * {@code jfr configure io.kaumei.jdbc.Batch#enabled=true}.
+ */
+@Name("io.kaumei.jdbc.Batch")
+@Label("JDBC Batch")
+@Category({"Kaumei JDBC"})
+@Description("Execution of a JDBC batch")
+@Enabled(false)
+@StackTrace(false)
+final class JdbcBatchEvent extends Event {
+
+    final static EventType TYPE = EventType.getEventType(JdbcBatchEvent.class);
+
+    @Label("Batch")
+    Class<?> batch;
+
+    @Label("Flush Reason")
+    String reason;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @Description("Estimated size of the bound parameters, -1 without a byte budget")
+    long bytes;
+}
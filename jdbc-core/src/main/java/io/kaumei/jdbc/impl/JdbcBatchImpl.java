@@ -7,31 +7,79 @@ package io.kaumei.jdbc.impl;
 
 import io.kaumei.jdbc.JdbcBatch;
 import io.kaumei.jdbc.JdbcException;
+import org.jspecify.annotations.Nullable;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Base class of the generated batch implementations.
+ * <p>
+ * The batch is sent to the database if it reaches the batch size, the byte budget or
+ * the linger time, whatever comes first. The byte budget is checked against an estimate
+ * of the bound parameters (see {@link SizedPreparedStatement}). The linger time is checked
+ * when a statement is added, a statement must not be used by two threads and therefore
+ * no timer thread flushes an idle batch.
+ * <p>
+ * With a {@link PipelinedStatement} these flushes run in the background on a connection of
+ * their own, while {@link #executeBatch()} and {@link #close()} wait for all batches. In the recovery mode
+ * (see {@link RecoveringStatement}) every batch is executed by the caller.
+ * <p>
+ * Every batch is recorded as {@link JdbcBatchEvent} by the thread which executes it, if the event
+ * is enabled. {@link #countAll()} only counts the rows of completed batches.
+ */
 public class JdbcBatchImpl implements JdbcBatch {
     private final static int[] EMPTY = new int[0];
-    protected final PreparedStatement stmt;
+    protected PreparedStatement stmt;
     private final int bachSize;
+    private final int batchBytes;
+    private final int batchLingerMillis;
+    private final @Nullable SizedPreparedStatement sized;
+    private final @Nullable PipelinedStatement pipeline;
+    private final long lingerNanos;
+    private @Nullable RecoveringStatement recovery;
 
     // ----- state
     private int countBatch;
     private int countAll;
+    private long pendingBytes;
+    private long firstPendingNanos;
+    private @Nullable FlushReason lastFlushReason;
+    private final int[] countFlushes = new int[FlushReason.values().length];
 
     public JdbcBatchImpl(PreparedStatement stmt, int bachSize) {
-        this.stmt = requireNonNull(stmt);
+        this(stmt, bachSize, -1, -1);
+    }
+
+    public JdbcBatchImpl(PreparedStatement stmt, int bachSize, int batchBytes, int batchLingerMillis) {
+        requireNonNull(stmt);
         this.bachSize = bachSize;
+        this.batchBytes = batchBytes > 0 ? batchBytes : -1;
+        this.batchLingerMillis = batchLingerMillis > 0 ? batchLingerMillis : -1;
+        this.pipeline = stmt instanceof PipelinedStatement p ? p : null;
+        this.sized = batchBytes > 0 ? new SizedPreparedStatement(stmt) : null;
+        this.stmt = this.sized != null ? this.sized : stmt;
+        this.lingerNanos = batchLingerMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(batchLingerMillis) : -1;
     }
 
     protected int[] addBatch() throws SQLException {
         this.stmt.addBatch();
-        this.countBatch++;
+        if (this.countBatch++ == 0 && this.lingerNanos > 0) {
+            this.firstPendingNanos = System.nanoTime();
+        }
+        if (this.sized != null) {
+            this.pendingBytes += this.sized.takeSize();
+        }
         if (this.countBatch >= this.bachSize) {
-            return executeBatch0();
+            return this.executeBatch0(FlushReason.BATCH_SIZE);
+        } else if (this.sized != null && this.pendingBytes >= this.batchBytes) {
+            return this.executeBatch0(FlushReason.BATCH_BYTES);
+        } else if (this.lingerNanos > 0 && System.nanoTime() - this.firstPendingNanos >= this.lingerNanos) {
+            return this.executeBatch0(FlushReason.LINGER);
         }
         return EMPTY;
     }
@@ -43,6 +91,31 @@ public class JdbcBatchImpl implements JdbcBatch {
         return this.bachSize;
     }
 
+    @Override
+    public int batchBytes() {
+        return this.batchBytes;
+    }
+
+    @Override
+    public int batchLingerMillis() {
+        return this.batchLingerMillis;
+    }
+
+    @Override
+    public long pendingBytes() {
+        return this.pendingBytes;
+    }
+
+    @Override
+    public @Nullable FlushReason lastFlushReason() {
+        return this.lastFlushReason;
+    }
+
+    @Override
+    public int countFlushes(FlushReason reason) {
+        return this.countFlushes[reason.ordinal()];
+    }
+
     @Override
     public int countBatch() {
         return this.countBatch;
@@ -50,7 +123,23 @@ public class JdbcBatchImpl implements JdbcBatch {
 
     @Override
     public int countAll() {
-        return this.countAll;
+        return this.pipeline != null ? this.countAll + this.pipeline.completedRows() : this.countAll;
+    }
+
+    @Override
+    public void recoverFailedRows(Consumer<FailedRow> deadLetter) {
+        if (this.recovery != null) {
+            throw new IllegalStateException("Recovery mode is already enabled");
+        } else if (this.countBatch != 0 || this.countAll != 0) {
+            throw new IllegalStateException("Recovery mode must be enabled before the first statement is added");
+        }
+        this.recovery = new RecoveringStatement(this.stmt, deadLetter);
+        this.stmt = this.recovery;
+    }
+
+    @Override
+    public int countFailedRows() {
+        return this.recovery == null ? 0 : this.recovery.countFailed();
     }
 
     @Override
@@ -67,6 +156,7 @@ public class JdbcBatchImpl implements JdbcBatch {
         try {
             this.stmt.clearBatch();
             this.countBatch = 0;
+            this.pendingBytes = 0;
         } catch (SQLException e) {
             throw new JdbcException(e.getMessage(), e);
         }
@@ -75,26 +165,75 @@ public class JdbcBatchImpl implements JdbcBatch {
     @Override
     public int[] executeBatch() {
         try {
-            return this.executeBatch0();
+            return this.executeBatch0(FlushReason.EXECUTE);
         } catch (SQLException e) {
             throw new JdbcException(e.getMessage(), e);
         }
     }
 
-    private int[] executeBatch0() throws SQLException {
-        if (this.countBatch > 0) {
-            this.countAll += this.countBatch;
-            this.countBatch = 0;
-            return this.stmt.executeBatch();
+    private int[] executeBatch0(FlushReason reason) throws SQLException {
+        if (this.pipeline != null) {
+            // the rows of a batch are counted, when the batch is completed
+            this.countAll += this.pipeline.await();
         }
-        return EMPTY;
+        if (this.countBatch == 0) {
+            return EMPTY;
+        }
+        var rows = this.countBatch;
+        var event = JdbcBatchEvent.TYPE.isEnabled() ? this.newEvent(reason) : null;
+        this.lastFlushReason = reason;
+        this.countFlushes[reason.ordinal()]++;
+        if (this.pipeline != null && this.recovery == null
+                && reason != FlushReason.EXECUTE && reason != FlushReason.CLOSE) {
+            this.pipeline.executeBatchAsync(rows, event);
+            this.resetBatch();
+            return EMPTY;
+        }
+        try {
+            if (event != null) {
+                event.begin();
+            }
+            var result = this.stmt.executeBatch();
+            if (this.pipeline != null) {
+                this.pipeline.commit();
+            }
+            this.countAll += rows;
+            this.afterExecute();
+            if (event != null) {
+                event.commit();
+            }
+            return result;
+        } finally {
+            // the driver resets the batch, even if it fails
+            this.resetBatch();
+        }
+    }
+
+    private void resetBatch() {
+        this.countBatch = 0;
+        this.pendingBytes = 0;
+    }
+
+    private JdbcBatchEvent newEvent(FlushReason reason) {
+        var event = new JdbcBatchEvent();
+        event.batch = this.getClass();
+        event.reason = reason.name();
+        event.rows = this.countBatch;
+        event.bytes = this.sized != null ? this.pendingBytes : -1;
+        return event;
+    }
+
+    /**
+     * Called after a batch was executed by this thread.
+     */
+    protected void afterExecute() throws SQLException {
     }
 
     @Override
     public void close() {
         Exception ex = null;
         try {
-            this.executeBatch0();
+            this.executeBatch0(FlushReason.CLOSE);
         } catch (Exception e) {
             ex = e;
         }
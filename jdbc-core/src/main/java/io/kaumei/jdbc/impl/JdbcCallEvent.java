@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of one call of a generated method, see {@link JdbcProbe}.
+ * <p>
+ * The event is disabled by default, enable it in the JFR settings, e.g.
+ * {@code jfr configure io.kaumei.jdbc.Call#enabled=true}.
+ */
+@Name("io.kaumei.jdbc.Call")
+@Label("JDBC Call")
+@Category({"Kaumei JDBC"})
+@Description("Call of a generated JDBC method, split into its phases")
+@Enabled(false)
+@StackTrace(false)
+final class JdbcCallEvent extends Event {
+
+    final static EventType TYPE = EventType.getEventType(JdbcCallEvent.class);
+
+    @Label("Interface")
+    Class<?> type;
+
+    @Label("Method")
+    String method;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Connection")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectionNanos;
+
+    @Label("Prepare")
+    @Timespan(Timespan.NANOSECONDS)
+    long prepareNanos;
+
+    @Label("Bind")
+    @Timespan(Timespan.NANOSECONDS)
+    long bindNanos;
+
+    @Label("Execute")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeNanos;
+
+    @Label("Fetch")
+    @Description("Time of reading the rows, without the mapping")
+    @Timespan(Timespan.NANOSECONDS)
+    long fetchNanos;
+
+    @Label("Mapping")
+    @Description("Time of mapping the rows to Java objects")
+    @Timespan(Timespan.NANOSECONDS)
+    long mappingNanos;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,167 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import io.kaumei.jdbc.JdbcListener;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Future of a generated method which returns a {@link CompletableFuture}.
+ * <p>
+ * The generated body runs on {@link JdbcConnectionProvider#executor()} and gets its connection on the
+ * executor thread, a connection bound to the caller's thread is not used. Cancelling the future
+ * calls {@link java.sql.Statement#cancel()} on the statement which is executed at this moment.
+ * Dependent stages are plain {@link CompletableFuture}s.
+ */
+public final class JdbcFuture<T> extends CompletableFuture<T> {
+
+    /**
+     * The generated method body, prepares all statements with the given provider.
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        @Nullable T run(JdbcConnectionProvider supplier);
+    }
+
+    // ----- services
+    private final JdbcConnectionProvider provider;
+    // ------ state, guarded by this.lock
+    private final Object lock = new Object();
+    private @Nullable PreparedStatement running;
+
+    private JdbcFuture(JdbcConnectionProvider provider) {
+        this.provider = provider;
+    }
+
+    public static <T> CompletableFuture<T> supplyAsync(JdbcConnectionProvider provider, Task<T> task) {
+        requireNonNull(provider, "provider");
+        requireNonNull(task, "task");
+        var future = new JdbcFuture<T>(provider);
+        try {
+            provider.executor().execute(() -> future.run(task));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new JdbcException(e.getMessage(), e));
+        }
+        return future;
+    }
+
+    private void run(Task<T> task) {
+        if (this.isDone()) {
+            return; // cancelled before the task was started
+        }
+        try {
+            this.complete(task.run(new Tracking()));
+        } catch (Throwable e) {
+            this.completeExceptionally(e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        var cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            synchronized (this.lock) {
+                if (this.running != null) {
+                    try {
+                        this.running.cancel();
+                    } catch (SQLException e) {
+                        // the statement completed in the meantime, nothing to cancel
+                    }
+                }
+            }
+        }
+        return cancelled;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Remembers the statement in use. A closed statement is never cancelled, e.g. a
+     * statement returned to a {@link io.kaumei.jdbc.JdbcStatementCache} which is in use
+     * by another thread.
+     */
+    private final class Tracking implements JdbcConnectionProvider {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return provider.getConnection();
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+            return this.track(provider.prepareStatement(con, sql));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(Connection con, String sql,
+                                                  int resultSetType, int resultSetConcurrency) throws SQLException {
+            return this.track(provider.prepareStatement(con, sql, resultSetType, resultSetConcurrency));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(Connection con, String sql, int autoGeneratedKeys) throws SQLException {
+            return this.track(provider.prepareStatement(con, sql, autoGeneratedKeys));
+        }
+
+        @Override
+        public Executor executor() {
+            return provider.executor();
+        }
+
+        @Override
+        public @Nullable JdbcListener listener() {
+            return provider.listener();
+        }
+
+        private PreparedStatement track(PreparedStatement stmt) throws SQLException {
+            var tracked = new TrackedStatement(stmt);
+            synchronized (lock) {
+                if (isCancelled()) {
+                    stmt.close();
+                    throw new SQLException("Statement was cancelled");
+                }
+                running = tracked;
+            }
+            return tracked;
+        }
+    }
+
+    private final class TrackedStatement extends DelegatingPreparedStatement {
+        private final PreparedStatement target;
+
+        TrackedStatement(PreparedStatement target) {
+            this.target = target;
+        }
+
+        @Override
+        protected PreparedStatement delegate() {
+            return this.target;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            synchronized (lock) {
+                if (running == this) {
+                    running = null;
+                }
+                this.target.close();
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ import static java.util.Objects.requireNonNull;
 class JdbcIterableImpl<T> implements JdbcIterable<T> {
     private final Statement stmt;
     private final ResultSet rs;
+    private final JdbcToJava.Row<T> rowGetter;
     private final Iterator<T> iterator;
 
     // ----- state
@@ -27,6 +28,7 @@ class JdbcIterableImpl<T> implements JdbcIterable<T> {
     JdbcIterableImpl(Statement stmt, ResultSet rs, JdbcToJava.Row<T> rowGetter) {
         this.stmt = requireNonNull(stmt);
         this.rs = requireNonNull(rs);
+        this.rowGetter = requireNonNull(rowGetter);
         this.iterator = new JdbcIterator<>(rs, rowGetter);
     }
 
@@ -35,6 +37,7 @@ class JdbcIterableImpl<T> implements JdbcIterable<T> {
     @Override
     public void close() {
         this.state = State.CLOSED;
+        JdbcProbe.finish(this.rowGetter);
         JdbcUtils.close(this.stmt, this.rs);
     }
 
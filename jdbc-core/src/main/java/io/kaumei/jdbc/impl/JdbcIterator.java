@@ -20,19 +20,21 @@ public class JdbcIterator<T> implements Iterator<T> {
 
     protected final ResultSet rs;
     private final JdbcToJava.Row<T> rowGetter;
+    private final JdbcProbe.@Nullable Rows<T> probe;
     // ----- state
     private @Nullable Boolean hasNextRow;
 
     JdbcIterator(ResultSet rs, JdbcToJava.Row<T> rowGetter) {
         this.rs = requireNonNull(rs);
         this.rowGetter = requireNonNull(rowGetter);
+        this.probe = rowGetter instanceof JdbcProbe.Rows<T> rows ? rows : null;
     }
 
     @Override
     public boolean hasNext() {
         if (this.hasNextRow == null) {
             try {
-                this.hasNextRow = this.rs.next();
+                this.hasNextRow = this.probe != null ? this.probe.next(this.rs) : this.rs.next();
             } catch (SQLException e) {
                 throw new JdbcException(e.getMessage(), e);
             }
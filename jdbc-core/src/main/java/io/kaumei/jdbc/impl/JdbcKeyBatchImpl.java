@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcKeyBatch;
+import io.kaumei.jdbc.annotation.JdbcToJava;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class of the generated batch implementations with generated keys.
+ * <p>
+ * The statement must be prepared with {@code RETURN_GENERATED_KEYS}. The keys are read after
+ * every flush and mapped with the converter of the key type. With a {@code long} converter the
+ * collected keys are stored in a {@code long[]}, they are only boxed by {@link #takeGeneratedKeys()}.
+ */
+public class JdbcKeyBatchImpl<K> extends JdbcBatchImpl implements JdbcKeyBatch<K> {
+
+    private final static long[] EMPTY = new long[0];
+
+    private final JdbcToJava.Row<K> keyConverter;
+    private final ResultSetUtils.@Nullable LongRow longKeyConverter;
+    // ----- state
+    private @Nullable Consumer<List<K>> consumer;
+    private final ArrayList<K> keys = new ArrayList<>();
+    private long[] longKeys = EMPTY;
+    private int longKeysSize;
+
+    public JdbcKeyBatchImpl(PreparedStatement stmt, int bachSize, int batchBytes, int batchLingerMillis,
+                            JdbcToJava.Row<K> keyConverter) {
+        this(stmt, bachSize, batchBytes, batchLingerMillis, keyConverter, null);
+    }
+
+    /**
+     * @param longKeyConverter reads the key as {@code long}, only for {@code Long} keys
+     */
+    public JdbcKeyBatchImpl(PreparedStatement stmt, int bachSize, int batchBytes, int batchLingerMillis,
+                            JdbcToJava.Row<K> keyConverter, ResultSetUtils.@Nullable LongRow longKeyConverter) {
+        super(stmt, bachSize, batchBytes, batchLingerMillis);
+        this.keyConverter = requireNonNull(keyConverter, "keyConverter");
+        this.longKeyConverter = longKeyConverter;
+    }
+
+    @Override
+    protected void afterExecute() throws SQLException {
+        if (this.consumer == null && this.longKeyConverter != null) {
+            try (var rs = this.stmt.getGeneratedKeys()) {
+                while (rs.next()) {
+                    if (this.longKeysSize == this.longKeys.length) {
+                        this.longKeys = Arrays.copyOf(this.longKeys, ResultSetUtils.newCapacity(this.longKeysSize));
+                    }
+                    this.longKeys[this.longKeysSize++] = this.longKeyConverter.mapRowToJava(rs);
+                }
+            }
+            return;
+        }
+        List<K> flushed;
+        try (var rs = this.stmt.getGeneratedKeys()) {
+            flushed = ResultSetUtils.toList(rs, this.keyConverter);
+        }
+        if (this.consumer != null) {
+            this.consumer.accept(flushed);
+        } else {
+            this.keys.addAll(flushed);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void onGeneratedKeys(Consumer<List<K>> consumer) {
+        this.consumer = requireNonNull(consumer, "consumer");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<K> takeGeneratedKeys() {
+        if (this.longKeyConverter != null) {
+            // the long converter is only set for Long keys
+            var result = new ArrayList<K>(this.longKeysSize);
+            for (int i = 0; i < this.longKeysSize; i++) {
+                result.add((K) Long.valueOf(this.longKeys[i]));
+            }
+            this.longKeysSize = 0;
+            return Collections.unmodifiableList(result);
+        }
+        var result = List.copyOf(this.keys);
+        this.keys.clear();
+        return result;
+    }
+
+    @Override
+    public long[] takeGeneratedKeysAsLong() {
+        if (this.longKeyConverter != null) {
+            var result = Arrays.copyOf(this.longKeys, this.longKeysSize);
+            this.longKeysSize = 0;
+            return result;
+        }
+        var result = new long[this.keys.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((Number) this.keys.get(i)).longValue();
+        }
+        this.keys.clear();
+        return result;
+    }
+
+    /**
+     * Not supported, the keys of a recovered batch can not be assigned to the statements.
+     */
+    @Override
+    public void recoverFailedRows(Consumer<FailedRow> deadLetter) {
+        throw new IllegalStateException("Recovery mode does not support generated keys");
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcListener;
+import io.kaumei.jdbc.annotation.JdbcToJava;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the phases of one call of a generated method to the {@link JdbcListener}
+ * and as {@link JdbcCallEvent} to the JDK Flight Recorder.
+ * <p>
+ * {@link #start} returns null without a listener, with a disabled JFR event and without a
+ * {@code @JdbcSlowQuery} threshold. All other methods accept null and return right away,
+ * so such a call allocates nothing.
+ * <p>
+ * With a threshold the generated code captures the parameters, see {@link #capture}. Only a call
+ * which takes at least the threshold formats them, it is logged as warning to the {@value #SLOW_QUERY_LOGGER} logger.
+ * If the statement was passed to {@link #explain}, the plan of the query is logged afterward.
+ * <p>
+ * The rows of lazy results are read after the generated method returned. For them the
+ * converter is wrapped by {@link #rows}, the wrapper reports the fetch and close phases
+ * when the rows are exhausted or the result is closed.
+ */
+public final class JdbcProbe {
+
+    private final static JdbcListener.Phase[] PHASES = JdbcListener.Phase.values();
+    final static String SLOW_QUERY_LOGGER = "io.kaumei.jdbc.SlowQuery";
+    private final static System.Logger SLOW_QUERY = System.getLogger(SLOW_QUERY_LOGGER);
+    private final static int MAX_VALUE_LENGTH = 100;
+
+    // ----- services
+    private final JdbcConnectionProvider provider;
+    private final @Nullable JdbcListener listener;
+    private final @Nullable JdbcCallEvent event;
+    // ----- config
+    private final Class<?> type;
+    private final String method;
+    private final long slowQueryNanos;
+    // ----- state
+    private final long started;
+    private long last;
+    private @Nullable String sql;
+    private long rows = -1;
+    private @Nullable Throwable error;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long mappingNanos;
+    private @Nullable String parameterNames;
+    private @Nullable Object @Nullable [] parameterValues;
+    private @Nullable ExplainStatement explain;
+    private boolean closed;
+
+    private JdbcProbe(JdbcConnectionProvider provider, @Nullable JdbcListener listener, boolean recordEvent,
+                      Class<?> type, String method, int slowQueryMillis) {
+        this.provider = provider;
+        this.listener = listener;
+        this.type = type;
+        this.method = method;
+        this.slowQueryNanos = slowQueryMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        if (recordEvent) {
+            this.event = new JdbcCallEvent();
+            this.event.begin();
+        } else {
+            this.event = null;
+        }
+        this.started = this.last = System.nanoTime();
+    }
+
+    public static @Nullable JdbcProbe start(JdbcConnectionProvider provider, Class<?> type, String method) {
+        return start(provider, type, method, -1);
+    }
+
+    /**
+     * @param slowQueryMillis calls which take at least this time are logged, -1 to log no call
+     */
+    public static @Nullable JdbcProbe start(JdbcConnectionProvider provider, Class<?> type, String method,
+                                            int slowQueryMillis) {
+        var listener = provider.listener();
+        var recordEvent = JdbcCallEvent.TYPE.isEnabled();
+        if (listener == null && !recordEvent && slowQueryMillis < 0) {
+            return null;
+        }
+        return new JdbcProbe(provider, listener, recordEvent, type, method, slowQueryMillis);
+    }
+
+    /**
+     * @return true, if the parameters must be passed to {@link #parameters}
+     */
+    public static boolean capture(@Nullable JdbcProbe probe) {
+        return probe != null && probe.slowQueryNanos >= 0;
+    }
+
+    /**
+     * Keeps the values as they are, they are only formatted if the call is logged.
+     *
+     * @param names the comma separated names of the values
+     */
+    public void parameters(String names, @Nullable Object[] values) {
+        this.parameterNames = names;
+        this.parameterValues = values;
+    }
+
+    /**
+     * @param intervalSeconds the minimal time between two plans of the same SQL
+     * @return the statement, which records the parameters to explain a slow query
+     */
+    public static PreparedStatement explain(@Nullable JdbcProbe probe, PreparedStatement stmt, int intervalSeconds) {
+        if (probe == null || probe.slowQueryNanos < 0) {
+            return stmt;
+        }
+        var explain = new ExplainStatement(stmt, intervalSeconds);
+        probe.explain = explain;
+        return explain;
+    }
+
+    public static void connected(@Nullable JdbcProbe probe) {
+        if (probe != null) {
+            probe.emit(JdbcListener.Phase.CONNECTION, -1, System.nanoTime() - probe.last);
+        }
+    }
+
+    public static void prepared(@Nullable JdbcProbe probe, String sql) {
+        if (probe != null) {
+            probe.sql = sql;
+            probe.emit(JdbcListener.Phase.PREPARE, -1, System.nanoTime() - probe.last);
+        }
+    }
+
+    public static void bound(@Nullable JdbcProbe probe) {
+        if (probe != null) {
+            probe.emit(JdbcListener.Phase.BIND, -1, System.nanoTime() - probe.last);
+        }
+    }
+
+    /**
+     * @param rows the update count, -1 for a query
+     */
+    public static void executed(@Nullable JdbcProbe probe, long rows) {
+        if (probe != null) {
+            probe.emit(JdbcListener.Phase.EXECUTE, rows, System.nanoTime() - probe.last);
+        }
+    }
+
+    public static void fetched(@Nullable JdbcProbe probe, long rows) {
+        if (probe != null) {
+            probe.emit(JdbcListener.Phase.FETCH, rows, System.nanoTime() - probe.last);
+        }
+    }
+
+    public static void failed(@Nullable JdbcProbe probe, Throwable error) {
+        if (probe != null) {
+            probe.error = error;
+        }
+    }
+
+    public static void closed(@Nullable JdbcProbe probe) {
+        if (probe != null) {
+            probe.close();
+        }
+    }
+
+    /**
+     * @return the converter, which measures the mapping of the rows if there is a probe
+     */
+    public static <T> JdbcToJava.Row<T> rows(@Nullable JdbcProbe probe, JdbcToJava.Row<T> converter) {
+        return probe == null ? converter : new Rows<>(probe, converter);
+    }
+
+    /**
+     * Primitive streams map their rows without a {@link JdbcToJava.Row}, they read them with {@link Fetch#next}
+     * and count them with {@link Fetch#mapped}.
+     *
+     * @return the counter of a primitive stream, null without a probe
+     */
+    static @Nullable Fetch fetch(@Nullable JdbcProbe probe) {
+        return probe == null ? null : new Fetch(probe);
+    }
+
+    /**
+     * Reports the end of a lazy result, if its converter was wrapped by {@link #rows}.
+     */
+    static void finish(JdbcToJava.Row<?> converter) {
+        if (converter instanceof Rows<?> rows) {
+            rows.finish();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private void emit(JdbcListener.Phase phase, long rows, long elapsedNanos) {
+        if (rows >= 0) {
+            this.rows = rows;
+        }
+        this.phaseNanos[phase.ordinal()] += elapsedNanos;
+        if (this.listener != null) {
+            this.listener.onEvent(new JdbcListener.Event(this.type, this.method, this.sql, phase, rows, elapsedNanos, null));
+        }
+        // the time of the listener is not part of the next phase
+        this.last = System.nanoTime();
+    }
+
+    private void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        var elapsed = System.nanoTime() - this.started;
+        if (this.listener != null) {
+            this.listener.onEvent(new JdbcListener.Event(this.type, this.method, this.sql,
+                    JdbcListener.Phase.CLOSE, this.rows, elapsed, this.error));
+        }
+        if (this.slowQueryNanos >= 0 && elapsed >= this.slowQueryNanos
+                && SLOW_QUERY.isLoggable(System.Logger.Level.WARNING)) {
+            var name = this.type.getSimpleName() + "." + this.method;
+            SLOW_QUERY.log(System.Logger.Level.WARNING, "Slow query " + name
+                    + " took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms, rows: " + this.rows
+                    + ", sql: " + this.sql + ", parameters: [" + this.formatParameters() + "]"
+                    + (this.error == null ? "" : ", error: " + this.error));
+            var sql = this.sql;
+            if (this.explain != null && sql != null) {
+                this.explain.explainAsync(this.provider, sql, plan -> SLOW_QUERY.log(System.Logger.Level.WARNING,
+                        "Plan of slow query " + name + ", sql: " + sql + ", plan:\n" + plan));
+            }
+        }
+        var event = this.event;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = this.type;
+                event.method = this.method;
+                event.sql = this.sql;
+                event.rows = this.rows;
+                event.connectionNanos = this.phaseNanos[JdbcListener.Phase.CONNECTION.ordinal()];
+                event.prepareNanos = this.phaseNanos[JdbcListener.Phase.PREPARE.ordinal()];
+                event.bindNanos = this.phaseNanos[JdbcListener.Phase.BIND.ordinal()];
+                event.executeNanos = this.phaseNanos[JdbcListener.Phase.EXECUTE.ordinal()];
+                event.fetchNanos = Math.max(0, this.phaseNanos[JdbcListener.Phase.FETCH.ordinal()] - this.mappingNanos);
+                event.mappingNanos = this.mappingNanos;
+                event.error = this.error == null ? null : this.error.toString();
+                event.commit();
+            }
+        }
+    }
+
+    private String formatParameters() {
+        var names = this.parameterNames;
+        var values = this.parameterValues;
+        if (names == null || values == null) {
+            return "";
+        }
+        var sb = new StringBuilder();
+        var split = names.split(",");
+        for (int i = 0; i < split.length && i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(split[i]).append('=');
+            var str = switch (values[i]) {
+                case byte[] bytes -> "byte[" + bytes.length + "]";
+                case Object[] array -> Arrays.toString(array);
+                case null, default -> String.valueOf(values[i]);
+            };
+            if (str.length() > MAX_VALUE_LENGTH) {
+                sb.append(str, 0, MAX_VALUE_LENGTH).append("...");
+            } else {
+                sb.append(str);
+            }
+        }
+        return sb.toString();
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Measures the fetch time of a lazy result, which reads its rows with {@link #next}.
+     * The fetch and close phases are reported by {@link #finish}.
+     */
+    static class Fetch {
+        final JdbcProbe probe;
+        // ----- state of lazy results
+        private long fetchNanos;
+        long count;
+
+        Fetch(JdbcProbe probe) {
+            this.probe = probe;
+        }
+
+        boolean next(ResultSet rs) throws SQLException {
+            var start = System.nanoTime();
+            var hasRow = rs.next();
+            this.fetchNanos += System.nanoTime() - start;
+            if (!hasRow) {
+                this.finish();
+            }
+            return hasRow;
+        }
+
+        void mapped() {
+            this.count++;
+        }
+
+        void finish() {
+            if (this.probe.closed) {
+                return;
+            }
+            this.probe.emit(JdbcListener.Phase.FETCH, this.count, this.fetchNanos + this.probe.mappingNanos);
+            this.probe.close();
+        }
+    }
+
+    /**
+     * Measures the mapping and counts the rows.
+     */
+    static final class Rows<T> extends Fetch implements JdbcToJava.Row<T> {
+        private final JdbcToJava.Row<T> converter;
+
+        Rows(JdbcProbe probe, JdbcToJava.Row<T> converter) {
+            super(probe);
+            this.converter = converter;
+        }
+
+        @Override
+        public @Nullable T mapRowToJava(ResultSet rs) throws SQLException {
+            var start = System.nanoTime();
+            try {
+                return this.converter.mapRowToJava(rs);
+            } finally {
+                this.probe.mappingNanos += System.nanoTime() - start;
+                this.mapped();
+            }
+        }
+    }
+}
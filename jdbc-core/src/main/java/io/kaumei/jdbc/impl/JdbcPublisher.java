@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcIterable;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cold publisher of the rows of a select.
+ * <p>
+ * Every subscription executes the query on the first {@code request(n)}. The rows are read
+ * and emitted by the thread which requests them, no extra thread is involved. Without
+ * {@code @JdbcFetchSize} the fetch size is the first demand, but at least {@value #MIN_FETCH_SIZE}
+ * and at most {@value #MAX_FETCH_SIZE}. A small first demand, e.g. {@code request(1)}, would
+ * otherwise cost a round trip per row.
+ * The statement and the result set are closed on complete, on error and on cancel.
+ */
+public final class JdbcPublisher<T> implements Flow.Publisher<T> {
+
+    final static int MIN_FETCH_SIZE = 64;
+    final static int MAX_FETCH_SIZE = 1024;
+
+    /**
+     * Executes the query, the result is closed by the publisher.
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        JdbcIterable<T> execute(int fetchSize);
+    }
+
+    private final Query<T> query;
+
+    JdbcPublisher(Query<T> query) {
+        this.query = requireNonNull(query);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new RowSubscription<>(subscriber, this.query));
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Signals are serialized with a work-in-progress counter. A request from within
+     * {@code onNext} only adds demand, the running drain loop emits the rows.
+     */
+    private static final class RowSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Query<T> query;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile @Nullable Throwable invalidRequest;
+        // ----- state, only used by the draining thread
+        private @Nullable JdbcIterable<T> rows;
+        private @Nullable Iterator<T> iterator;
+        private boolean done;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber, Query<T> query) {
+            this.subscriber = subscriber;
+            this.query = query;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.invalidRequest = new IllegalArgumentException("non-positive request: " + n);
+            } else {
+                this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                this.emit();
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (this.done) {
+                return;
+            }
+            try {
+                var requested = this.demand.get();
+                long emitted = 0;
+                while (true) {
+                    if (this.cancelled) {
+                        this.finish();
+                        return;
+                    } else if (this.invalidRequest != null) {
+                        this.finish();
+                        this.subscriber.onError(this.invalidRequest);
+                        return;
+                    } else if (emitted == requested) {
+                        break;
+                    }
+                    var iter = this.iterator;
+                    if (iter == null) {
+                        var rows = this.query.execute((int) Math.clamp(requested, MIN_FETCH_SIZE, MAX_FETCH_SIZE));
+                        this.rows = rows;
+                        this.iterator = iter = rows.iterator();
+                    }
+                    if (!iter.hasNext()) {
+                        this.finish();
+                        this.subscriber.onComplete();
+                        return;
+                    }
+                    this.subscriber.onNext(requireNonNull(iter.next(), "Row must not be null"));
+                    emitted++;
+                }
+                if (requested != Long.MAX_VALUE) {
+                    this.demand.addAndGet(-emitted);
+                }
+            } catch (Throwable e) {
+                this.finish();
+                this.subscriber.onError(e);
+            }
+        }
+
+        private void finish() {
+            this.done = true;
+            if (this.rows != null) {
+                this.rows.close();
+                this.rows = null;
+                this.iterator = null;
+            }
+        }
+    }
+}
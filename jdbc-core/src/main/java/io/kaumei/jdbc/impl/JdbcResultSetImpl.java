@@ -52,6 +52,7 @@ class JdbcResultSetImpl<T> implements JdbcResultSet<T> {
 
     @Override
     public void close() {
+        JdbcProbe.finish(this.rowGetter);
         JdbcUtils.close(this.stmt, this.rs);
     }
 
@@ -0,0 +1,553 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class of the generated sharded batch implementations.
+ * <p>
+ * The rows are spread across several batches, each with its own connection and statement.
+ * Every shard is driven by its own loop on a dedicated virtual thread, which adds the rows to
+ * the batch and flushes it. The loops run until the batch is closed, so they do not use
+ * {@link JdbcConnectionProvider#executor()}, a bounded executor would not start all of them.
+ * A row is routed round-robin or by its key, rows with equal keys use the same shard and
+ * therefore the same connection and transaction.
+ * <p>
+ * The shards own their connections, they are taken from {@link JdbcConnectionProvider#ownedConnections()}
+ * and never from {@link JdbcConnectionProvider#getConnection()}. {@link #executeBatch()} and
+ * {@link #close()} commit the connections which are not in auto-commit mode, a failed shard is
+ * rolled back on close.
+ * <p>
+ * The caller only waits for the database if the queue of a shard is full, it holds
+ * {@value #QUEUE_CAPACITY} rows. A failure of a shard is reported by the next call of the
+ * batch, the shard rejects all further rows with it.
+ */
+public abstract class JdbcShardedBatch<B extends JdbcBatch> implements JdbcBatch {
+
+    final static int QUEUE_CAPACITY = 1024;
+    private final static long PUT_RECHECK_MILLIS = 100;
+    private final static int[] EMPTY = new int[0];
+    private final static AtomicLong FLUSH_SEQUENCE = new AtomicLong();
+    private final static ThreadFactory SHARD_THREADS = Thread.ofVirtual().name("kaumei-jdbc-shard-", 0).factory();
+
+    /**
+     * Opens the batch of one shard on the connection of the shard.
+     */
+    @FunctionalInterface
+    public interface Shard<B extends JdbcBatch> {
+        B open(Connection con) throws SQLException;
+    }
+
+    private final List<Worker<B>> workers;
+    // ----- state, only used by the caller
+    private int next;
+    private int submitted;
+    private boolean closed;
+
+    protected JdbcShardedBatch(JdbcConnectionProvider provider, int shards, Shard<B> shard) throws SQLException {
+        requireNonNull(provider, "provider");
+        requireNonNull(shard, "shard");
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be positive: " + shards);
+        }
+        var dataSource = provider.ownedConnections();
+        if (dataSource == null) {
+            throw new JdbcException("@JdbcBatchShards needs connections of its own, see JdbcConnectionProvider.ownedConnections()");
+        }
+        var workers = new ArrayList<Worker<B>>(shards);
+        try {
+            for (int i = 0; i < shards; i++) {
+                var con = dataSource.getConnection();
+                try {
+                    for (var worker : workers) {
+                        if (worker.con == con) {
+                            throw new JdbcException("ownedConnections() returned the same connection twice, every shard needs its own");
+                        }
+                    }
+                    workers.add(new Worker<>(i, con, shard.open(con)));
+                } catch (SQLException | RuntimeException e) {
+                    if (workers.stream().noneMatch(w -> w.con == con)) {
+                        closeQuietly(con, e);
+                    }
+                    throw e;
+                }
+            }
+            for (var worker : workers) {
+                SHARD_THREADS.newThread(worker).start();
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (var worker : workers) {
+                worker.release(e);
+            }
+            throw e;
+        }
+        this.workers = List.copyOf(workers);
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int shards() {
+        return this.workers.size();
+    }
+
+    /**
+     * Adds a row to the next shard.
+     */
+    protected void submit(Consumer<B> row) {
+        var index = this.next;
+        this.next = index + 1 == this.workers.size() ? 0 : index + 1;
+        this.submit(this.workers.get(index), row);
+    }
+
+    /**
+     * Adds a row to the shard of the given key.
+     */
+    protected void submit(@Nullable Object key, Consumer<B> row) {
+        this.submit(this.workers.get(Math.floorMod(Objects.hashCode(key), this.workers.size())), row);
+    }
+
+    private void submit(Worker<B> worker, Consumer<B> row) {
+        this.checkOpen();
+        worker.put(row);
+        this.submitted++;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public int bachSize() {
+        return this.workers.getFirst().batch.bachSize();
+    }
+
+    @Override
+    public int batchBytes() {
+        return this.workers.getFirst().batch.batchBytes();
+    }
+
+    @Override
+    public int batchLingerMillis() {
+        return this.workers.getFirst().batch.batchLingerMillis();
+    }
+
+    @Override
+    public long pendingBytes() {
+        long result = 0;
+        for (var worker : this.workers) {
+            result += worker.pendingBytes;
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of statements not send to the database, including the statements waiting for their shard
+     */
+    @Override
+    public int countBatch() {
+        return this.submitted - this.countAll();
+    }
+
+    @Override
+    public int countAll() {
+        int result = 0;
+        for (var worker : this.workers) {
+            result += worker.countAll;
+        }
+        return result;
+    }
+
+    @Override
+    public @Nullable FlushReason lastFlushReason() {
+        Flushes last = null;
+        for (var worker : this.workers) {
+            var flushes = worker.flushes;
+            if (flushes.lastFlushReason != null && (last == null || flushes.sequence > last.sequence)) {
+                last = flushes;
+            }
+        }
+        return last == null ? null : last.lastFlushReason;
+    }
+
+    @Override
+    public int countFlushes(FlushReason reason) {
+        int result = 0;
+        for (var worker : this.workers) {
+            result += worker.flushes.counts[reason.ordinal()];
+        }
+        return result;
+    }
+
+    /**
+     * Enables the recovery mode of all shards. The dead letter handler is called by the
+     * threads of the shards, it must be thread-safe.
+     */
+    @Override
+    public void recoverFailedRows(Consumer<FailedRow> deadLetter) {
+        requireNonNull(deadLetter, "deadLetter");
+        this.checkOpen();
+        if (this.submitted != 0) {
+            throw new IllegalStateException("Recovery mode must be enabled before the first statement is added");
+        }
+        for (var worker : this.workers) {
+            worker.put(batch -> batch.recoverFailedRows(deadLetter));
+        }
+    }
+
+    @Override
+    public int countFailedRows() {
+        int result = 0;
+        for (var worker : this.workers) {
+            result += worker.countFailedRows;
+        }
+        return result;
+    }
+
+    /**
+     * Does nothing, every row carries its parameters to its shard.
+     */
+    @Override
+    public void clearParameters() {
+    }
+
+    /**
+     * Clears the batches of all shards, statements already sent to the database are not affected.
+     */
+    @Override
+    public void clearBatch() {
+        this.checkOpen();
+        this.all(Control.CLEAR);
+        this.submitted = this.countAll();
+    }
+
+    /**
+     * Executes the batches of all shards, commits them and waits for them.
+     *
+     * @return the update counts of all shards, in the order of the shards
+     */
+    @Override
+    public int[] executeBatch() {
+        this.checkOpen();
+        var counts = this.all(Control.EXECUTE);
+        int length = 0;
+        for (var count : counts) {
+            length += count.length;
+        }
+        var result = new int[length];
+        int pos = 0;
+        for (var count : counts) {
+            System.arraycopy(count, 0, result, pos, count.length);
+            pos += count.length;
+        }
+        return result;
+    }
+
+    /**
+     * Executes the batches of all shards, commits them and closes their connections.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.all(Control.CLOSE);
+    }
+
+    // ------------------------------------------------------------------------
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new JdbcException("Batch is closed");
+        }
+    }
+
+    /**
+     * Runs the control on every shard and waits for all of them. The first failure is
+     * thrown, the failures of the other shards are suppressed.
+     */
+    private List<int[]> all(Control control) {
+        var tasks = new ArrayList<Task<B>>(this.workers.size());
+        for (var worker : this.workers) {
+            var task = new Task<B>(control);
+            worker.put(task);
+            tasks.add(task);
+        }
+        var result = new ArrayList<int[]>(tasks.size());
+        JdbcException ex = null;
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                result.add(tasks.get(i).result.join());
+            } catch (CompletionException e) {
+                var shardEx = this.workers.get(i).failed(e.getCause() != null ? e.getCause() : e);
+                if (ex == null) {
+                    ex = shardEx;
+                } else {
+                    ex.addSuppressed(shardEx);
+                }
+            }
+        }
+        if (ex != null) {
+            throw ex;
+        }
+        return result;
+    }
+
+    private static void closeQuietly(Connection con, Throwable cause) {
+        try {
+            con.close();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private enum Control {
+        CLEAR, EXECUTE, CLOSE
+    }
+
+    /**
+     * A control task, the caller waits for its result.
+     */
+    private static final class Task<B extends JdbcBatch> implements Consumer<B> {
+        private final Control control;
+        private final CompletableFuture<int[]> result = new CompletableFuture<>();
+
+        Task(Control control) {
+            this.control = control;
+        }
+
+        @Override
+        public void accept(B batch) {
+            throw new IllegalStateException("Task is run by the worker");
+        }
+    }
+
+    /**
+     * Flush statistics of a shard, published as a whole after a flush.
+     */
+    private record Flushes(int[] counts, @Nullable FlushReason lastFlushReason, long sequence) {
+    }
+
+    /**
+     * The loop of one shard, it runs until the shard is closed. The batch and the connection
+     * are only used by the loop.
+     */
+    private static final class Worker<B extends JdbcBatch> implements Runnable {
+        private final int index;
+        private final Connection con;
+        private final B batch;
+        private final BlockingQueue<Consumer<B>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        // ----- published by the loop
+        private volatile @Nullable Throwable failure;
+        private volatile boolean stopped;
+        private volatile int countAll;
+        private volatile long pendingBytes;
+        private volatile int countFailedRows;
+        private volatile Flushes flushes = new Flushes(new int[FlushReason.values().length], null, 0);
+
+        Worker(int index, Connection con, B batch) {
+            this.index = index;
+            this.con = con;
+            this.batch = batch;
+        }
+
+        JdbcException failed(Throwable cause) {
+            return new JdbcException("Shard " + this.index + " failed: " + cause.getMessage(), cause);
+        }
+
+        /**
+         * Adds a row or a task to the queue. A row is rejected with the failure of the shard, a
+         * task is still queued, so a failed shard is reported and released by its loop. The
+         * state is checked again while the queue is full, the loop may stop in the meantime.
+         */
+        void put(Consumer<B> row) {
+            try {
+                do {
+                    this.checkAccepts(row);
+                } while (!this.queue.offer(row, PUT_RECHECK_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JdbcException("Interrupted while waiting for shard " + this.index, e);
+            }
+            if (this.stopped) {
+                // the loop stopped while we waited, nobody else takes the task
+                this.failAll(this.closedFailure());
+            }
+            if (!(row instanceof Task)) {
+                // the loop drops the rows after a failure
+                this.checkAccepts(row);
+            }
+        }
+
+        private void checkAccepts(Consumer<B> row) {
+            if (this.stopped) {
+                throw this.failed(this.closedFailure());
+            }
+            var failure = this.failure;
+            if (failure != null && !(row instanceof Task)) {
+                throw this.failed(failure);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Consumer<B> next;
+                try {
+                    next = this.queue.take();
+                } catch (InterruptedException e) {
+                    this.failure = e;
+                    this.stopped = true;
+                    this.release(e);
+                    this.failAll(e);
+                    return;
+                }
+                if (next instanceof Task<B> task) {
+                    if (this.control(task)) {
+                        this.stopped = true;
+                        this.failAll(this.closedFailure());
+                        return;
+                    }
+                } else if (this.failure == null) {
+                    try {
+                        next.accept(this.batch);
+                    } catch (Throwable e) {
+                        this.failure = e;
+                    }
+                }
+                this.publish();
+            }
+        }
+
+        /**
+         * @return true if the shard is closed
+         */
+        private boolean control(Task<B> task) {
+            try {
+                var failure = this.failure;
+                var result = EMPTY;
+                switch (task.control) {
+                    case CLEAR -> {
+                        if (failure == null) {
+                            this.batch.clearBatch();
+                        }
+                    }
+                    case EXECUTE -> {
+                        if (failure == null) {
+                            result = this.batch.executeBatch();
+                            this.commit();
+                        }
+                    }
+                    case CLOSE -> {
+                        if (failure == null) {
+                            this.batch.close();
+                            this.commit();
+                            this.con.close();
+                        } else {
+                            this.release(failure);
+                        }
+                        this.publish();
+                        this.complete(task, failure, result);
+                        return true;
+                    }
+                }
+                this.complete(task, failure, result);
+            } catch (Throwable e) {
+                this.failure = e;
+                task.result.completeExceptionally(e);
+                if (task.control == Control.CLOSE) {
+                    this.release(e);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void complete(Task<B> task, @Nullable Throwable failure, int[] result) {
+            if (failure != null) {
+                task.result.completeExceptionally(failure);
+            } else {
+                task.result.complete(result);
+            }
+        }
+
+        private void commit() throws SQLException {
+            if (!this.con.getAutoCommit()) {
+                this.con.commit();
+            }
+        }
+
+        /**
+         * Closes the batch and rolls back and closes the connection, after a failure.
+         */
+        void release(Throwable cause) {
+            try {
+                this.batch.close();
+            } catch (RuntimeException e) {
+                if (e != cause) {
+                    cause.addSuppressed(e);
+                }
+            }
+            try {
+                if (!this.con.isClosed() && !this.con.getAutoCommit()) {
+                    this.con.rollback();
+                }
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+            closeQuietly(this.con, cause);
+        }
+
+        private Throwable closedFailure() {
+            var cause = this.failure;
+            return cause != null ? cause : new IllegalStateException("shard is closed");
+        }
+
+        private void failAll(Throwable cause) {
+            Consumer<B> next;
+            while ((next = this.queue.poll()) != null) {
+                if (next instanceof Task<B> task) {
+                    task.result.completeExceptionally(cause);
+                }
+            }
+        }
+
+        private void publish() {
+            var countAll = this.batch.countAll();
+            this.pendingBytes = this.batch.pendingBytes();
+            this.countFailedRows = this.batch.countFailedRows();
+            if (countAll != this.countAll) {
+                var counts = new int[FlushReason.values().length];
+                for (var reason : FlushReason.values()) {
+                    counts[reason.ordinal()] = this.batch.countFlushes(reason);
+                }
+                this.flushes = new Flushes(counts, this.batch.lastFlushReason(), FLUSH_SEQUENCE.incrementAndGet());
+                this.countAll = countAll;
+            }
+        }
+    }
+}
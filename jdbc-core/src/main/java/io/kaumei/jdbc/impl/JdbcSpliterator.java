@@ -0,0 +1,131 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcException;
+import io.kaumei.jdbc.annotation.JdbcToJava;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spliterator over a result set which supports parallel streams.
+ * <p>
+ * The cursor is only used by one thread at a time: {@link #trySplit()} reads the next
+ * chunk of rows into an array and hands the array off. The rows are mapped by the
+ * cursor thread, the downstream operations of the chunk run on the fork-join pool.
+ * The chunk size is the fetch size of the statement, so a chunk is typically one
+ * round trip to the database.
+ */
+final class JdbcSpliterator<T> implements Spliterator<T> {
+
+    private final static int DEFAULT_CHUNK_SIZE = 1024;
+    private final static int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.IMMUTABLE;
+
+    private final Statement stmt;
+    private final ResultSet rs;
+    private final JdbcToJava.Row<T> rowGetter;
+    private final JdbcProbe.@Nullable Rows<T> probe;
+    // ----- state
+    private int chunkSize;
+    private boolean done;
+
+    JdbcSpliterator(Statement stmt, ResultSet rs, JdbcToJava.Row<T> rowGetter) {
+        this.stmt = requireNonNull(stmt);
+        this.rs = requireNonNull(rs);
+        this.rowGetter = requireNonNull(rowGetter);
+        this.probe = rowGetter instanceof JdbcProbe.Rows<T> rows ? rows : null;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        requireNonNull(action);
+        var row = this.nextRow();
+        if (row == NO_MORE_ROWS) {
+            return false;
+        }
+        action.accept(cast(row));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        requireNonNull(action);
+        for (var row = this.nextRow(); row != NO_MORE_ROWS; row = this.nextRow()) {
+            action.accept(cast(row));
+        }
+    }
+
+    @Override
+    public @Nullable Spliterator<T> trySplit() {
+        if (this.done) {
+            return null;
+        }
+        var chunk = new Object[this.chunkSize()];
+        int size = 0;
+        while (size < chunk.length) {
+            var row = this.nextRow();
+            if (row == NO_MORE_ROWS) {
+                break;
+            }
+            chunk[size++] = row;
+        }
+        return size == 0 ? null : Spliterators.spliterator(chunk, 0, size, CHARACTERISTICS);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.done ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    // ------------------------------------------------------------------------
+
+    private final static Object NO_MORE_ROWS = new Object();
+
+    private @Nullable Object nextRow() {
+        if (this.done) {
+            return NO_MORE_ROWS;
+        }
+        try {
+            if (!(this.probe != null ? this.probe.next(this.rs) : this.rs.next())) {
+                this.done = true;
+                return NO_MORE_ROWS;
+            }
+            return this.rowGetter.mapRowToJava(this.rs);
+        } catch (SQLException e) {
+            throw new JdbcException(e.getMessage(), e);
+        }
+    }
+
+    private int chunkSize() {
+        if (this.chunkSize == 0) {
+            try {
+                var fetchSize = this.stmt.getFetchSize();
+                this.chunkSize = fetchSize > 0 ? fetchSize : DEFAULT_CHUNK_SIZE;
+            } catch (SQLException e) {
+                throw new JdbcException(e.getMessage(), e);
+            }
+        }
+        return this.chunkSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(@Nullable Object row) {
+        return (T) row;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch statement which sends the rows of a batch as one multi-row insert
+ * {@code INSERT ... VALUES (...),(...),...} instead of {@code addBatch}/{@code executeBatch}.
+ * <p>
+ * The parameters of every row are recorded and bound on execution. A batch is split into
+ * chunks of the maximal size, the rest is split into powers of two. So at most
+ * log2(max rows) + 2 statements are prepared, they are reused until the statement is closed.
+ * The maximal size is limited by {@value #MAX_PARAMETERS} parameters per statement.
+ * If a chunk fails, the {@link BatchUpdateException} has the update counts of the completed chunks.
+ * <p>
+ * The single-row statement is used for all other calls, e.g. {@link #getConnection()}.
+ */
+public final class MultiRowInsert extends RecordingStatement {
+
+    final static int MAX_PARAMETERS = 32767;
+
+    // ----- services
+    private final JdbcConnectionProvider provider;
+    private final Connection con;
+    // ----- config
+    private final String prefix;
+    private final String row;
+    private final String suffix;
+    private final int parameterCount;
+    private final int maxRows;
+    // ----- state
+    private final Map<Integer, PreparedStatement> statements = new HashMap<>();
+    private final ArrayList<@Nullable Binder[]> rows = new ArrayList<>();
+    private final @Nullable Binder[] current;
+    private int queryTimeout = -1;
+    private boolean closed;
+
+    public MultiRowInsert(JdbcConnectionProvider provider, Connection con,
+                          String prefix, String row, String suffix, int parameterCount, int maxRows) {
+        if (parameterCount < 1) {
+            throw new IllegalArgumentException("parameterCount must be positive: " + parameterCount);
+        }
+        this.provider = requireNonNull(provider, "provider");
+        this.con = requireNonNull(con, "con");
+        this.prefix = requireNonNull(prefix, "prefix");
+        this.row = requireNonNull(row, "row");
+        this.suffix = requireNonNull(suffix, "suffix");
+        this.parameterCount = parameterCount;
+        this.maxRows = Math.max(1, Math.min(maxRows, MAX_PARAMETERS / parameterCount));
+        this.current = new Binder[parameterCount];
+    }
+
+    @Override
+    protected PreparedStatement delegate() throws SQLException {
+        return this.statement(1);
+    }
+
+    @Override
+    void record(int parameterIndex, @Nullable Object value, Binder binder) throws SQLException {
+        this.checkOpen();
+        if (parameterIndex < 1 || parameterIndex > this.parameterCount) {
+            throw new SQLException("Invalid parameter index: " + parameterIndex);
+        }
+        this.current[parameterIndex - 1] = binder;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.checkOpen();
+        for (int i = 0; i < this.parameterCount; i++) {
+            if (this.current[i] == null) {
+                throw new SQLException("Parameter " + (i + 1) + " is not set");
+            }
+        }
+        // parameters stay set for the next row, like in a JDBC batch
+        this.rows.add(this.current.clone());
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.checkOpen();
+        Arrays.fill(this.current, null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.checkOpen();
+        this.rows.clear();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        this.checkOpen();
+        var size = this.rows.size();
+        var result = new int[size];
+        int pos = 0;
+        try {
+            while (pos < size) {
+                var remaining = size - pos;
+                var chunk = remaining >= this.maxRows ? this.maxRows : Integer.highestOneBit(remaining);
+                var stmt = this.statement(chunk);
+                int index = 1;
+                for (int r = pos; r < pos + chunk; r++) {
+                    for (var binder : this.rows.get(r)) {
+                        requireNonNull(binder).bind(stmt, index++);
+                    }
+                }
+                var count = stmt.executeUpdate();
+                Arrays.fill(result, pos, pos + chunk, count == chunk ? 1 : Statement.SUCCESS_NO_INFO);
+                pos += chunk;
+            }
+        } catch (SQLException e) {
+            // the counts of the completed chunks, like a driver which stops at the first failure
+            throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(),
+                    Arrays.copyOf(result, pos), e);
+        } finally {
+            this.rows.clear();
+        }
+        return result;
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.checkOpen();
+        this.queryTimeout = seconds;
+        for (var stmt : this.statements.values()) {
+            stmt.setQueryTimeout(seconds);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.rows.clear();
+        SQLException ex = null;
+        for (var stmt : this.statements.values()) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                if (ex == null) {
+                    ex = e;
+                } else {
+                    ex.addSuppressed(e);
+                }
+            }
+        }
+        this.statements.clear();
+        if (ex != null) {
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the SQL with the given number of rows
+     */
+    String sql(int rowCount) {
+        var sb = new StringBuilder(this.prefix.length() + (this.row.length() + 1) * rowCount + this.suffix.length());
+        sb.append(this.prefix).append(this.row);
+        for (int i = 1; i < rowCount; i++) {
+            sb.append(',').append(this.row);
+        }
+        return sb.append(this.suffix).toString();
+    }
+
+    private PreparedStatement statement(int rowCount) throws SQLException {
+        this.checkOpen();
+        var stmt = this.statements.get(rowCount);
+        if (stmt == null) {
+            stmt = this.provider.prepareStatement(this.con, this.sql(rowCount));
+            this.statements.put(rowCount, stmt);
+            if (this.queryTimeout >= 0) {
+                stmt.setQueryTimeout(this.queryTimeout);
+            }
+        }
+        return stmt;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Statement is closed");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import org.jspecify.annotations.Nullable;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Access to the COPY API of the PostgreSQL driver, which is an optional dependency.
+ * No class of the driver is loaded if it is not on the class path.
+ */
+final class PgCopy {
+
+    private final static boolean DRIVER_PRESENT = isDriverPresent();
+
+    private PgCopy() {
+    }
+
+    /**
+     * @return the COPY API of the connection, or null if it is not a PostgreSQL connection
+     */
+    static CopyInsert.@Nullable CopyIn copyIn(Connection con) throws SQLException {
+        return DRIVER_PRESENT ? Driver.copyIn(con) : null;
+    }
+
+    private static boolean isDriverPresent() {
+        try {
+            Class.forName("org.postgresql.PGConnection", false, PgCopy.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static final class Driver {
+        static CopyInsert.@Nullable CopyIn copyIn(Connection con) throws SQLException {
+            if (!con.isWrapperFor(PGConnection.class)) {
+                return null;
+            }
+            var copyManager = con.unwrap(PGConnection.class).getCopyAPI();
+            return copyManager::copyIn;
+        }
+    }
+}
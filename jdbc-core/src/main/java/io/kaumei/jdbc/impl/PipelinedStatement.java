@@ -0,0 +1,309 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Double-buffered batch statement: the producer records the rows of the next batch while the
+ * previous batch is bound and executed on {@link JdbcConnectionProvider#executor()}.
+ * <p>
+ * JDBC does not allow to bind a statement while another statement of the same connection is
+ * executed. So the producer only records the parameters, the flusher binds them to the one
+ * statement and executes it. The statement is prepared on a connection of its own from
+ * {@link JdbcConnectionProvider#ownedConnections()}, the connection of the caller is not used.
+ * <p>
+ * Therefore the batches are not part of the caller's transaction. Without auto-commit every batch
+ * is committed on its own after it was executed, a failed batch is rolled back. At most one batch
+ * is in flight, the producer waits for it before it hands off the next one. A failed batch is
+ * reported by the next call of {@link #addBatch()}, {@link #executeBatch()} or {@link #close()}.
+ * <p>
+ * The mode is opt-in: it only pays off if the round trip of a batch and the work of the
+ * producer overlap. Without a round trip, e.g. with an in-memory database, the hand-off costs
+ * a few percent, see {@code PipelinedBatchBenchmark}.
+ */
+public final class PipelinedStatement extends RecordingStatement {
+
+    private final static Binder[] EMPTY = new Binder[0];
+
+    // ----- services
+    private final JdbcConnectionProvider provider;
+    private final Connection con;
+    private final PreparedStatement stmt;
+    // ----- config
+    private final boolean autoCommit;
+    // ----- state, the flusher only uses the statement and the rows it was given
+    private ArrayList<@Nullable Binder[]> rows = new ArrayList<>();
+    private @Nullable Binder[] current = EMPTY;
+    private @Nullable CompletableFuture<int[]> inFlight;
+    private int inFlightRows;
+    private boolean closed;
+
+    public PipelinedStatement(JdbcConnectionProvider provider, String sql) throws SQLException {
+        this.provider = requireNonNull(provider, "provider");
+        requireNonNull(sql, "sql");
+        var dataSource = provider.ownedConnections();
+        if (dataSource == null) {
+            throw new JdbcException("@JdbcBatchMode(PIPELINED) needs a connection of its own, see JdbcConnectionProvider.ownedConnections()");
+        }
+        this.con = dataSource.getConnection();
+        try {
+            this.autoCommit = this.con.getAutoCommit();
+            this.stmt = provider.prepareStatement(this.con, sql);
+        } catch (SQLException | RuntimeException e) {
+            try {
+                this.con.close();
+            } catch (SQLException closeEx) {
+                e.addSuppressed(closeEx);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The statement is only used by the caller if no batch is in flight.
+     */
+    @Override
+    protected PreparedStatement delegate() throws SQLException {
+        this.checkOpen();
+        var future = this.inFlight;
+        if (future != null) {
+            // a failure is reported by await()
+            future.handle((result, e) -> null).join();
+        }
+        return this.stmt;
+    }
+
+    @Override
+    void record(int parameterIndex, @Nullable Object value, Binder binder) throws SQLException {
+        this.checkOpen();
+        if (parameterIndex < 1) {
+            throw new SQLException("Invalid parameter index: " + parameterIndex);
+        }
+        if (parameterIndex > this.current.length) {
+            this.current = Arrays.copyOf(this.current, parameterIndex);
+        }
+        this.current[parameterIndex - 1] = binder;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Hands off the current batch to the flusher. The batch in flight must be awaited before.
+     *
+     * @param rows  number of rows of the current batch
+     * @param event event of the batch, it is recorded by the flusher
+     */
+    void executeBatchAsync(int rows, @Nullable JdbcBatchEvent event) throws SQLException {
+        this.checkOpen();
+        if (this.inFlight != null) {
+            throw new IllegalStateException("A batch is in flight, call await() before"); // sanity-check
+        }
+        var batch = this.takeRows();
+        this.inFlight = CompletableFuture.supplyAsync(() -> {
+            try {
+                if (event != null) {
+                    event.begin();
+                }
+                var result = this.execute(batch);
+                this.commit();
+                if (event != null) {
+                    event.commit();
+                }
+                return result;
+            } catch (SQLException e) {
+                this.rollback(e);
+                throw new CompletionException(e);
+            }
+        }, this.provider.executor());
+        this.inFlightRows = rows;
+    }
+
+    /**
+     * @return number of rows of the batch in flight, if it is completed without error, otherwise 0
+     */
+    int completedRows() {
+        var future = this.inFlight;
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? this.inFlightRows : 0;
+    }
+
+    /**
+     * Waits for the batch in flight.
+     *
+     * @return number of rows of the batch in flight, 0 if no batch was in flight
+     * @throws SQLException if the batch in flight failed
+     */
+    int await() throws SQLException {
+        var future = this.inFlight;
+        var rows = this.inFlightRows;
+        if (future == null) {
+            return 0;
+        }
+        this.inFlight = null;
+        this.inFlightRows = 0;
+        try {
+            future.join();
+            return rows;
+        } catch (CompletionException e) {
+            var cause = e.getCause() != null ? e.getCause() : e;
+            throw new SQLException("Pipelined batch failed: " + cause.getMessage(),
+                    cause instanceof SQLException sqlEx ? sqlEx.getSQLState() : null, cause);
+        }
+    }
+
+    /**
+     * Commits the batches which were executed by the caller, if the connection is not in auto-commit mode.
+     */
+    void commit() throws SQLException {
+        if (!this.autoCommit) {
+            this.con.commit();
+        }
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.checkOpen();
+        var future = this.inFlight;
+        if (future != null && future.isCompletedExceptionally()) {
+            this.await();
+        }
+        // parameters stay set for the next row, like in a JDBC batch
+        this.rows.add(this.current.clone());
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.checkOpen();
+        Arrays.fill(this.current, null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.checkOpen();
+        this.rows.clear();
+    }
+
+    /**
+     * Executes the current batch on the caller's thread, it is committed by {@link #commit()}.
+     */
+    @Override
+    public int[] executeBatch() throws SQLException {
+        this.await();
+        return this.execute(this.takeRows());
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.delegate().setQueryTimeout(seconds);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (this.closed) {
+            return;
+        }
+        SQLException ex = null;
+        try {
+            this.await();
+        } catch (SQLException e) {
+            ex = e;
+        }
+        this.closed = true;
+        this.rows.clear();
+        try {
+            this.stmt.close();
+            if (!this.autoCommit) {
+                // discards a batch of the caller, which was not committed
+                this.con.rollback();
+            }
+        } catch (SQLException e) {
+            if (ex == null) {
+                ex = e;
+            } else {
+                ex.addSuppressed(e);
+            }
+        }
+        try {
+            this.con.close();
+        } catch (SQLException e) {
+            if (ex == null) {
+                ex = e;
+            } else {
+                ex.addSuppressed(e);
+            }
+        }
+        if (ex != null) {
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private List<@Nullable Binder[]> takeRows() {
+        var batch = this.rows;
+        this.rows = new ArrayList<>();
+        return batch;
+    }
+
+    /**
+     * Binds and executes the rows, the batch of the statement is cleared if it fails.
+     */
+    private int[] execute(List<@Nullable Binder[]> batch) throws SQLException {
+        try {
+            for (var row : batch) {
+                for (int i = 0; i < row.length; i++) {
+                    var binder = row[i];
+                    if (binder != null) {
+                        binder.bind(this.stmt, i + 1);
+                    }
+                }
+                this.stmt.addBatch();
+            }
+            return this.stmt.executeBatch();
+        } catch (SQLException | RuntimeException e) {
+            try {
+                this.stmt.clearBatch();
+            } catch (SQLException clearEx) {
+                e.addSuppressed(clearEx);
+            }
+            throw e;
+        }
+    }
+
+    private void rollback(SQLException cause) {
+        if (!this.autoCommit) {
+            try {
+                this.con.rollback();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Statement is closed");
+        }
+    }
+}
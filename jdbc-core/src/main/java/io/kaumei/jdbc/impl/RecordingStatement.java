@@ -0,0 +1,298 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * A {@link DelegatingPreparedStatement} which passes every bound parameter to {@link #record}.
+ * <p>
+ * The {@link Binder} binds the value to a statement, e.g. to {@link #delegate()} or later
+ * to another statement.
+ */
+abstract class RecordingStatement extends DelegatingPreparedStatement {
+
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    /**
+     * Called for every parameter instead of setting it on {@link #delegate()}, use the binder to set it.
+     */
+    abstract void record(int parameterIndex, @Nullable Object value, Binder binder) throws SQLException;
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        this.record(parameterIndex, null, (ps, i) -> ps.setNull(i, sqlType));
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBoolean(i, x));
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setByte(i, x));
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setShort(i, x));
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setInt(i, x));
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setLong(i, x));
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setFloat(i, x));
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setDouble(i, x));
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBigDecimal(i, x));
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setString(i, x));
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBytes(i, x));
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setDate(i, x));
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setTime(i, x));
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setTimestamp(i, x));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setAsciiStream(i, x, length));
+    }
+
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setUnicodeStream(i, x, length));
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBinaryStream(i, x, length));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setObject(i, x, targetSqlType));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setObject(i, x));
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setCharacterStream(i, reader, length));
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setRef(i, x));
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBlob(i, x));
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setClob(i, x));
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setArray(i, x));
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setDate(i, x, cal));
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setTime(i, x, cal));
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setTimestamp(i, x, cal));
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        this.record(parameterIndex, null, (ps, i) -> ps.setNull(i, sqlType, typeName));
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setURL(i, x));
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setRowId(i, x));
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        this.record(parameterIndex, value, (ps, i) -> ps.setNString(i, value));
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        this.record(parameterIndex, value, (ps, i) -> ps.setNCharacterStream(i, value, length));
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        this.record(parameterIndex, value, (ps, i) -> ps.setNClob(i, value));
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setClob(i, reader, length));
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        this.record(parameterIndex, inputStream, (ps, i) -> ps.setBlob(i, inputStream, length));
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setNClob(i, reader, length));
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        this.record(parameterIndex, xmlObject, (ps, i) -> ps.setSQLXML(i, xmlObject));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setObject(i, x, targetSqlType, scaleOrLength));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setAsciiStream(i, x, length));
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBinaryStream(i, x, length));
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setCharacterStream(i, reader, length));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setAsciiStream(i, x));
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setBinaryStream(i, x));
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setCharacterStream(i, reader));
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        this.record(parameterIndex, value, (ps, i) -> ps.setNCharacterStream(i, value));
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setClob(i, reader));
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        this.record(parameterIndex, inputStream, (ps, i) -> ps.setBlob(i, inputStream));
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        this.record(parameterIndex, reader, (ps, i) -> ps.setNClob(i, reader));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setObject(i, x, targetSqlType, scaleOrLength));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        this.record(parameterIndex, x, (ps, i) -> ps.setObject(i, x, targetSqlType));
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcBatch;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch statement which finds the failed statements of a batch, the recovery mode of {@link JdbcBatchImpl}.
+ * <p>
+ * The parameters of every row are recorded. If the batch fails, it is split into halves which are
+ * executed again, until the failed rows are found. A failed row is passed to the dead letter handler
+ * and reported with {@link Statement#EXECUTE_FAILED}, all other rows are executed.
+ * <p>
+ * Without auto-commit every execution is guarded by a savepoint, a failed part is rolled back before
+ * it is split. In auto-commit mode or without savepoints the update counts of the
+ * {@link BatchUpdateException} tell which rows were executed: if the driver continued after a failure
+ * the failed rows are known, otherwise the rows after the first failure are executed again. If the
+ * driver reports nothing, the error is thrown.
+ * <p>
+ * Streams and readers can only be read once, the rows must not be executed again.
+ */
+final class RecoveringStatement extends RecordingStatement {
+
+    private record Param(@Nullable Object value, Binder binder) {
+    }
+
+    private final static Param[] EMPTY = new Param[0];
+
+    // ----- services
+    private final PreparedStatement target;
+    private final Consumer<JdbcBatch.FailedRow> deadLetter;
+    // ----- state
+    private final ArrayList<@Nullable Param[]> rows = new ArrayList<>();
+    private @Nullable Param[] current = EMPTY;
+    private boolean savepoints = true;
+    private int countFailed;
+
+    RecoveringStatement(PreparedStatement target, Consumer<JdbcBatch.FailedRow> deadLetter) {
+        this.target = requireNonNull(target, "target");
+        this.deadLetter = requireNonNull(deadLetter, "deadLetter");
+    }
+
+    @Override
+    protected PreparedStatement delegate() {
+        return this.target;
+    }
+
+    /**
+     * @return the number of rows passed to the dead letter handler
+     */
+    int countFailed() {
+        return this.countFailed;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.target.addBatch();
+        // parameters stay set for the next row, like in a JDBC batch
+        this.rows.add(this.current.clone());
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.target.clearParameters();
+        Arrays.fill(this.current, null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.target.clearBatch();
+        this.rows.clear();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        var rows = new ArrayList<>(this.rows);
+        this.rows.clear();
+        var counts = new int[rows.size()];
+        this.execute(rows, 0, rows.size(), counts, true);
+        return counts;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Executes the rows from (inclusive) to (exclusive) and stores their update counts.
+     *
+     * @param bound true if the rows are already added to the batch of the target
+     */
+    private void execute(List<@Nullable Param[]> rows, int from, int to, int[] counts, boolean bound) throws SQLException {
+        if (from >= to) {
+            return;
+        }
+        if (!bound) {
+            for (int r = from; r < to; r++) {
+                var row = rows.get(r);
+                for (int i = 0; i < row.length; i++) {
+                    var param = row[i];
+                    if (param != null) {
+                        param.binder.bind(this.target, i + 1);
+                    }
+                }
+                this.target.addBatch();
+            }
+        }
+        var con = this.target.getConnection();
+        var savepoint = this.savepoint(con);
+        int[] result;
+        try {
+            result = this.target.executeBatch();
+        } catch (SQLException e) {
+            this.target.clearBatch();
+            if (savepoint != null) {
+                con.rollback(savepoint);
+                this.split(rows, from, to, counts, e);
+                return;
+            }
+            var done = e instanceof BatchUpdateException bue ? bue.getUpdateCounts() : null;
+            if (to - from == 1) {
+                this.failed(rows, from, counts, e);
+            } else if (done == null) {
+                throw e;
+            } else if (done.length >= to - from) {
+                // the driver continued after the failure
+                for (int i = 0; i < to - from; i++) {
+                    counts[from + i] = done[i];
+                    if (done[i] == Statement.EXECUTE_FAILED) {
+                        this.failed(rows, from + i, counts, e);
+                    }
+                }
+            } else {
+                // the driver stopped at the first failure
+                System.arraycopy(done, 0, counts, from, done.length);
+                this.failed(rows, from + done.length, counts, e);
+                this.execute(rows, from + done.length + 1, to, counts, false);
+            }
+            return;
+        }
+        if (savepoint != null) {
+            this.release(con, savepoint);
+        }
+        if (result.length == to - from) {
+            System.arraycopy(result, 0, counts, from, result.length);
+        } else {
+            Arrays.fill(counts, from, to, Statement.SUCCESS_NO_INFO);
+        }
+    }
+
+    private void split(List<@Nullable Param[]> rows, int from, int to, int[] counts, SQLException e) throws SQLException {
+        if (to - from == 1) {
+            this.failed(rows, from, counts, e);
+        } else {
+            var mid = (from + to) >>> 1;
+            this.execute(rows, from, mid, counts, false);
+            this.execute(rows, mid, to, counts, false);
+        }
+    }
+
+    private void failed(List<@Nullable Param[]> rows, int index, int[] counts, SQLException e) {
+        counts[index] = Statement.EXECUTE_FAILED;
+        this.countFailed++;
+        var row = rows.get(index);
+        var values = new @Nullable Object[row.length];
+        for (int i = 0; i < row.length; i++) {
+            var param = row[i];
+            values[i] = param == null ? null : param.value;
+        }
+        this.deadLetter.accept(new JdbcBatch.FailedRow(Collections.unmodifiableList(Arrays.asList(values)), e));
+    }
+
+    private @Nullable Savepoint savepoint(Connection con) throws SQLException {
+        if (!this.savepoints || con.getAutoCommit()) {
+            return null;
+        }
+        try {
+            return con.setSavepoint();
+        } catch (SQLFeatureNotSupportedException e) {
+            this.savepoints = false;
+            return null;
+        }
+    }
+
+    private void release(Connection con, Savepoint savepoint) throws SQLException {
+        try {
+            con.releaseSavepoint(savepoint);
+        } catch (SQLFeatureNotSupportedException e) {
+            // the savepoint ends with the transaction
+        }
+    }
+
+    @Override
+    void record(int parameterIndex, @Nullable Object value, Binder binder) throws SQLException {
+        binder.bind(this.delegate(), parameterIndex);
+        if (parameterIndex < 1) {
+            throw new SQLException("Invalid parameter index: " + parameterIndex);
+        }
+        if (parameterIndex > this.current.length) {
+            this.current = Arrays.copyOf(this.current, parameterIndex);
+        }
+        this.current[parameterIndex - 1] = new Param(value, binder);
+    }
+}
@@ -5,20 +5,34 @@
 
 package io.kaumei.jdbc.impl;
 
+import io.kaumei.jdbc.JdbcException;
 import io.kaumei.jdbc.JdbcIterable;
 import io.kaumei.jdbc.JdbcResultSet;
 import io.kaumei.jdbc.annotation.JdbcToJava;
+import org.jspecify.annotations.Nullable;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public final class ResultSetUtils {
 
+    // the same capacity and growth as ArrayList, so a result without hint allocates no more
+    private final static int DEFAULT_CAPACITY = 10;
+    // a hint is no promise, a larger result grows
+    private final static int MAX_INITIAL_CAPACITY = 1 << 16;
+
     private ResultSetUtils() {
         // prevent instantiation
     }
@@ -34,21 +48,38 @@ public final class ResultSetUtils {
     // ------------------------------------------------------------------------
 
     public static <T> List<T> toList(ResultSet rs, JdbcToJava.Row<T> converter) throws SQLException {
-        var list = new ArrayList<T>();
+        return toList(rs, 0, converter);
+    }
+
+    /**
+     * @param capacityHint expected number of rows, see {@link #initialCapacity(int)}
+     * @return an immutable list, see {@link CompactList#of(Object[], int)}
+     */
+    public static <T> List<T> toList(ResultSet rs, int capacityHint, JdbcToJava.Row<T> converter) throws SQLException {
+        var array = new Object[initialCapacity(capacityHint)];
+        int size = 0;
         while (rs.next()) {
-            list.add(converter.mapRowToJava(rs));
+            if (size == array.length) {
+                array = Arrays.copyOf(array, newCapacity(size));
+            }
+            array[size++] = converter.mapRowToJava(rs);
         }
-        return Collections.unmodifiableList(list);
+        return CompactList.of(array, size);
     }
 
     // ------------------------------------------------------------------------
 
+    /**
+     * The returned stream is sequential, call {@link Stream#parallel()} to process the
+     * rows in parallel. The rows are read and mapped in chunks of the fetch size.
+     */
     public static <T> Stream<T> toStream(PreparedStatement stmt, ResultSet rs, JdbcToJava.Row<T> converter) {
         try {
-            var iterator = new JdbcIterator<>(rs, converter);
-            var characteristic = Spliterator.IMMUTABLE | Spliterator.NONNULL;
-            var split = Spliterators.spliteratorUnknownSize(iterator, characteristic);
-            return StreamSupport.stream(split, false).onClose(() -> JdbcUtils.close(stmt, rs));
+            var split = new JdbcSpliterator<>(stmt, rs, converter);
+            return StreamSupport.stream(split, false).onClose(() -> {
+                JdbcProbe.finish(converter);
+                JdbcUtils.close(stmt, rs);
+            });
         } catch (Exception e) {
             JdbcUtils.close(e, stmt, rs);
             throw e;
@@ -63,8 +94,178 @@ public final class ResultSetUtils {
 
     // ------------------------------------------------------------------------
 
+    public static <T> Flow.Publisher<T> toPublisher(JdbcPublisher.Query<T> query) {
+        return new JdbcPublisher<>(query);
+    }
+
+    // ------------------------------------------------------------------------
+
     public static <T> JdbcResultSet<T> toJdbcResultSet(Statement stmt, ResultSet rs, JdbcToJava.Row<T> converter) {
         return new JdbcResultSetImpl<>(stmt, rs, converter);
     }
 
+    // ------------------------------------------------------------------------
+    // primitive rows, the values are never boxed
+
+    @FunctionalInterface
+    public interface IntRow {
+        int mapRowToJava(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface LongRow {
+        long mapRowToJava(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface DoubleRow {
+        double mapRowToJava(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * @param capacityHint expected number of rows, it is capped at {@value #MAX_INITIAL_CAPACITY}.
+     *                     Values less than one are ignored.
+     */
+    public static int initialCapacity(int capacityHint) {
+        return capacityHint < 1 ? DEFAULT_CAPACITY : Math.min(capacityHint, MAX_INITIAL_CAPACITY);
+    }
+
+    /**
+     * A limit like max rows or fetch size is not the number of rows, so it is capped.
+     *
+     * @return the capacity hint for the given limit
+     */
+    public static int limitCapacityHint(int limit) {
+        return Math.min(limit, MAX_INITIAL_CAPACITY);
+    }
+
+    public static int[] toIntArray(ResultSet rs, int capacityHint, IntRow converter) throws SQLException {
+        var array = new int[initialCapacity(capacityHint)];
+        int size = 0;
+        while (rs.next()) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, newCapacity(size));
+            }
+            array[size++] = converter.mapRowToJava(rs);
+        }
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    public static long[] toLongArray(ResultSet rs, int capacityHint, LongRow converter) throws SQLException {
+        var array = new long[initialCapacity(capacityHint)];
+        int size = 0;
+        while (rs.next()) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, newCapacity(size));
+            }
+            array[size++] = converter.mapRowToJava(rs);
+        }
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    public static double[] toDoubleArray(ResultSet rs, int capacityHint, DoubleRow converter) throws SQLException {
+        var array = new double[initialCapacity(capacityHint)];
+        int size = 0;
+        while (rs.next()) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, newCapacity(size));
+            }
+            array[size++] = converter.mapRowToJava(rs);
+        }
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    static int newCapacity(int size) {
+        if (size >= Integer.MAX_VALUE - 8) {
+            throw new JdbcException("Result set is too large for an array: " + size);
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8L, size + Math.max(size >> 1, 1L));
+    }
+
+    // ------------------------------------------------------------------------
+
+    public static IntStream toIntStream(PreparedStatement stmt, ResultSet rs, @Nullable JdbcProbe probe,
+                                         IntRow converter) {
+        var fetch = JdbcProbe.fetch(probe);
+        var split = new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                try {
+                    if (fetch == null ? !rs.next() : !fetch.next(rs)) {
+                        return false;
+                    }
+                    action.accept(converter.mapRowToJava(rs));
+                    if (fetch != null) {
+                        fetch.mapped();
+                    }
+                    return true;
+                } catch (SQLException e) {
+                    throw new JdbcException(e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.intStream(split, false).onClose(() -> {
+            if (fetch != null) {
+                fetch.finish();
+            }
+            JdbcUtils.close(stmt, rs);
+        });
+    }
+
+    public static LongStream toLongStream(PreparedStatement stmt, ResultSet rs, @Nullable JdbcProbe probe,
+                                           LongRow converter) {
+        var fetch = JdbcProbe.fetch(probe);
+        var split = new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                try {
+                    if (fetch == null ? !rs.next() : !fetch.next(rs)) {
+                        return false;
+                    }
+                    action.accept(converter.mapRowToJava(rs));
+                    if (fetch != null) {
+                        fetch.mapped();
+                    }
+                    return true;
+                } catch (SQLException e) {
+                    throw new JdbcException(e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.longStream(split, false).onClose(() -> {
+            if (fetch != null) {
+                fetch.finish();
+            }
+            JdbcUtils.close(stmt, rs);
+        });
+    }
+
+    public static DoubleStream toDoubleStream(PreparedStatement stmt, ResultSet rs, @Nullable JdbcProbe probe,
+                                               DoubleRow converter) {
+        var fetch = JdbcProbe.fetch(probe);
+        var split = new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                try {
+                    if (fetch == null ? !rs.next() : !fetch.next(rs)) {
+                        return false;
+                    }
+                    action.accept(converter.mapRowToJava(rs));
+                    if (fetch != null) {
+                        fetch.mapped();
+                    }
+                    return true;
+                } catch (SQLException e) {
+                    throw new JdbcException(e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.doubleStream(split, false).onClose(() -> {
+            if (fetch != null) {
+                fetch.finish();
+            }
+            JdbcUtils.close(stmt, rs);
+        });
+    }
+
 }
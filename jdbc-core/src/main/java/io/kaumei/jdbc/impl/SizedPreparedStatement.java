@@ -0,0 +1,288 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates the size of the bound parameters of the current row.
+ * <p>
+ * The estimate is cheap and rough: numbers count with their width, strings with their
+ * length, binary values and streams with their length. Values of other types count
+ * with {@value #OTHER_SIZE} bytes, streams without a length are not counted.
+ */
+final class SizedPreparedStatement extends DelegatingPreparedStatement {
+
+    private final static int OTHER_SIZE = 16;
+
+    private final PreparedStatement target;
+    // ----- state
+    private long size;
+
+    SizedPreparedStatement(PreparedStatement target) {
+        this.target = requireNonNull(target);
+    }
+
+    @Override
+    protected PreparedStatement delegate() {
+        return this.target;
+    }
+
+    /**
+     * @return the estimated size of the parameters set since the last call
+     */
+    long takeSize() {
+        var result = this.size;
+        this.size = 0;
+        return result;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.size = 0;
+        this.target.clearParameters();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        this.size += 1;
+        this.target.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        this.size += 1;
+        this.target.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        this.size += 1;
+        this.target.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        this.size += Byte.BYTES;
+        this.target.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        this.size += Short.BYTES;
+        this.target.setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        this.size += Integer.BYTES;
+        this.target.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        this.size += Float.BYTES;
+        this.target.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        this.size += Double.BYTES;
+        this.target.setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        this.size += sizeOf(value);
+        this.target.setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        this.size += Long.BYTES;
+        this.target.setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        this.size += sizeOf(x);
+        this.target.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.size += length;
+        this.target.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        this.size += length;
+        this.target.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.size += length;
+        this.target.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        this.size += length;
+        this.target.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        this.size += length;
+        this.target.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.size += length;
+        this.target.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        this.size += length;
+        this.target.setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        this.size += length;
+        this.target.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.size += length;
+        this.target.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.size += length;
+        this.target.setNClob(parameterIndex, reader, length);
+    }
+
+    // ------------------------------------------------------------------------
+
+    static long sizeOf(@Nullable Object x) {
+        if (x == null || x instanceof Boolean || x instanceof Byte) {
+            return 1;
+        } else if (x instanceof String s) {
+            return s.length();
+        } else if (x instanceof byte[] b) {
+            return b.length;
+        } else if (x instanceof Short) {
+            return Short.BYTES;
+        } else if (x instanceof Integer || x instanceof Float) {
+            return Integer.BYTES;
+        } else if (x instanceof Long || x instanceof Double) {
+            return Long.BYTES;
+        } else if (x instanceof BigDecimal d) {
+            return d.unscaledValue().bitLength() / 8 + 1 + Integer.BYTES;
+        }
+        return OTHER_SIZE;
+    }
+}
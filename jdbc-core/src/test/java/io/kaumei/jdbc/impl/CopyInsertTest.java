@@ -0,0 +1,177 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CopyInsertTest {
+
+    private final List<String> copied = new ArrayList<>();
+
+    // ------------------------------------------------------------------------
+    // escape
+
+    @Test
+    void escape_plain() {
+        var value = "abc äöü 123";
+        assertThat(CopyInsert.escape(value)).isSameAs(value);
+        assertThat(CopyInsert.escape("")).isEmpty();
+    }
+
+    @Test
+    void escape_special() {
+        assertThat(CopyInsert.escape("a\tb")).isEqualTo("a\\tb");
+        assertThat(CopyInsert.escape("a\nb")).isEqualTo("a\\nb");
+        assertThat(CopyInsert.escape("a\rb")).isEqualTo("a\\rb");
+        assertThat(CopyInsert.escape("a\\b")).isEqualTo("a\\\\b");
+        assertThat(CopyInsert.escape("\\N")).isEqualTo("\\\\N");
+        assertThat(CopyInsert.escape("\t\n\\")).isEqualTo("\\t\\n\\\\");
+    }
+
+    // ------------------------------------------------------------------------
+    // text
+
+    @Test
+    void text_values() throws SQLException {
+        assertThat(CopyInsert.text(null)).isNull();
+        assertThat(CopyInsert.text("a\tb")).isEqualTo("a\tb");
+        assertThat(CopyInsert.text(true)).isEqualTo("t");
+        assertThat(CopyInsert.text(false)).isEqualTo("f");
+        assertThat(CopyInsert.text(42)).isEqualTo("42");
+        assertThat(CopyInsert.text(new BigDecimal("1E+3"))).isEqualTo("1000");
+        assertThat(CopyInsert.text('x')).isEqualTo("x");
+        assertThat(CopyInsert.text(Thread.State.NEW)).isEqualTo("NEW");
+        var uuid = UUID.randomUUID();
+        assertThat(CopyInsert.text(uuid)).isEqualTo(uuid.toString());
+    }
+
+    @Test
+    void text_bytea() throws SQLException {
+        assertThat(CopyInsert.text(new byte[]{0x00, 0x7f, (byte) 0xff})).isEqualTo("\\x007fff");
+        assertThat(CopyInsert.text(new byte[0])).isEqualTo("\\x");
+        assertThat(CopyInsert.hex(new byte[]{0x0a})).isEqualTo("\\x0a");
+    }
+
+    @Test
+    void text_dates() throws SQLException {
+        var dateTime = LocalDateTime.of(2024, 2, 29, 13, 45, 7, 123_456_000);
+        assertThat(CopyInsert.text(Date.valueOf(dateTime.toLocalDate()))).isEqualTo("2024-02-29");
+        assertThat(CopyInsert.text(Time.valueOf(dateTime.toLocalTime()))).isEqualTo("13:45:07");
+        var offset = dateTime.atZone(ZoneId.systemDefault()).getOffset();
+        assertThat(CopyInsert.text(Timestamp.valueOf(dateTime))).isEqualTo("2024-02-29T13:45:07.123456" + offset);
+        assertThat(CopyInsert.text(new java.util.Date(Timestamp.valueOf(dateTime).getTime())))
+                .isEqualTo("2024-02-29T13:45:07.123" + offset);
+        assertThat(CopyInsert.text(LocalDate.of(2024, 2, 29))).isEqualTo("2024-02-29");
+        assertThat(CopyInsert.text(LocalTime.of(13, 45))).isEqualTo("13:45");
+        assertThat(CopyInsert.text(dateTime.atOffset(ZoneOffset.ofHours(2)))).isEqualTo("2024-02-29T13:45:07.123456+02:00");
+        assertThat(CopyInsert.text(ZonedDateTime.of(dateTime, ZoneId.of("Europe/Berlin"))))
+                .isEqualTo("2024-02-29T13:45:07.123456+01:00");
+    }
+
+    @Test
+    void text_timestampKeepsInstant() throws SQLException {
+        // winter and summer time have different offsets
+        for (var instant : new Instant[]{Instant.parse("2024-01-15T12:00:00.5Z"), Instant.parse("2024-07-15T12:00:00.5Z")}) {
+            var timestamp = CopyInsert.text(Timestamp.from(instant));
+            assertThat(OffsetDateTime.parse(requireNonNull(timestamp)).toInstant()).isEqualTo(instant);
+            var date = CopyInsert.text(java.util.Date.from(instant));
+            assertThat(OffsetDateTime.parse(requireNonNull(date)).toInstant()).isEqualTo(instant);
+        }
+    }
+
+    @Test
+    void text_notSupported() {
+        assertThatThrownBy(() -> CopyInsert.text(new Object()))
+                .isInstanceOf(SQLFeatureNotSupportedException.class)
+                .hasMessage("setObject(java.lang.Object) is not supported by COPY");
+    }
+
+    // ------------------------------------------------------------------------
+    // rows
+
+    @Test
+    void rows() throws SQLException {
+        try (var stmt = this.copyInsert(3)) {
+            stmt.setLong(1, 1);
+            stmt.setString(2, "a\tb\nc\\d");
+            stmt.setNull(3, Types.VARCHAR);
+            stmt.addBatch();
+            stmt.setLong(1, 2);
+            stmt.setString(2, null);
+            stmt.setBytes(3, new byte[]{1, 2});
+            stmt.addBatch();
+            assertThat(stmt.executeBatch()).containsExactly(1, 1);
+            assertThat(stmt.executeBatch()).isEmpty();
+        }
+        // the backslash of the bytea hex format is escaped too, COPY removes it before bytea parses the value
+        assertThat(this.copied).containsExactly("""
+                1\ta\\tb\\nc\\\\d\t\\N
+                2\t\\N\t\\\\x0102
+                """);
+    }
+
+    @Test
+    void rows_parameterNotSet() throws SQLException {
+        try (var stmt = this.copyInsert(2)) {
+            stmt.setInt(1, 1);
+            assertThatThrownBy(stmt::addBatch)
+                    .isInstanceOf(SQLException.class)
+                    .hasMessage("Parameter 2 is not set");
+            stmt.setInt(2, 2);
+            stmt.addBatch();
+            stmt.clearParameters();
+            assertThatThrownBy(stmt::addBatch)
+                    .isInstanceOf(SQLException.class)
+                    .hasMessage("Parameter 1 is not set");
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private CopyInsert copyInsert(int parameterCount) {
+        JdbcConnectionProvider provider = () -> {
+            throw new UnsupportedOperationException();
+        };
+        var con = (Connection) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        CopyInsert.CopyIn copyIn = (sql, rows) -> {
+            var out = new StringWriter();
+            rows.transferTo(out);
+            this.copied.add(out.toString());
+            return out.toString().lines().count();
+        };
+        return new CopyInsert(provider, con, copyIn, "COPY t FROM STDIN", "INSERT INTO t VALUES (?)", parameterCount);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.impl;
+
+import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcShardedBatchTest {
+
+    @Test
+    void failedShardRejectsRows() throws Exception {
+        try (var batch = new OneShard()) {
+            // the failure is published by the loop, the following rows are rejected
+            assertThatThrownBy(() -> {
+                batch.add(b -> {
+                    throw new IllegalStateException("boom");
+                });
+                for (int i = 0; i < 10 * JdbcShardedBatch.QUEUE_CAPACITY; i++) {
+                    batch.add(b -> {
+                    });
+                }
+            }).isInstanceOf(JdbcException.class).hasMessage("Shard 0 failed: boom");
+            assertThatThrownBy(batch::close).isInstanceOf(JdbcException.class).hasMessage("Shard 0 failed: boom");
+        }
+    }
+
+    @Test
+    void fullQueueOfFailedShard() throws Exception {
+        var running = new CountDownLatch(1);
+        var fail = new CountDownLatch(1);
+        try (var batch = new OneShard()) {
+            batch.add(b -> {
+                running.countDown();
+                await(fail);
+                throw new IllegalStateException("boom");
+            });
+            assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < JdbcShardedBatch.QUEUE_CAPACITY; i++) {
+                batch.add(b -> {
+                });
+            }
+            var blocked = CompletableFuture.runAsync(() -> batch.add(b -> {
+            }));
+            assertThatThrownBy(() -> blocked.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            fail.countDown();
+            assertThatThrownBy(() -> blocked.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isInstanceOf(JdbcException.class).hasMessage("Shard 0 failed: boom");
+            assertThatThrownBy(batch::close).isInstanceOf(JdbcException.class);
+        }
+    }
+
+    @Test
+    void ownedConnectionsRequired() {
+        assertThatThrownBy(() -> new Shards(provider(null), 2))
+                .isInstanceOf(JdbcException.class)
+                .hasMessageStartingWith("@JdbcBatchShards needs connections of its own");
+    }
+
+    @Test
+    void sameConnectionTwice() {
+        var closed = new AtomicInteger();
+        var con = (Connection) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.incrementAndGet();
+                        yield null;
+                    }
+                    case "getAutoCommit" -> true;
+                    case "isClosed" -> closed.get() > 0;
+                    default -> null;
+                });
+        assertThatThrownBy(() -> new Shards(provider(() -> con), 2))
+                .isInstanceOf(JdbcException.class)
+                .hasMessage("ownedConnections() returned the same connection twice, every shard needs its own");
+        assertThat(closed).hasValue(1);
+    }
+
+    @Test
+    void shardLoopsDoNotUseTheExecutor() throws Exception {
+        var provider = new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Executor executor() {
+                throw new UnsupportedOperationException("executor");
+            }
+
+            @Override
+            public DataSource ownedConnections() {
+                return requireNonNull(provider(() -> stub(Connection.class)).ownedConnections());
+            }
+        };
+        try (var batch = new Shards(provider, 4)) {
+            for (int i = 0; i < 4 * JdbcShardedBatch.QUEUE_CAPACITY; i++) {
+                batch.add(b -> {
+                });
+            }
+            assertThat(batch.executeBatch()).isEmpty();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(JdbcShardedBatchTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    var returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return method.getName().equals("getAutoCommit");
+                    } else if (returnType == int.class) {
+                        return 0;
+                    } else if (returnType == int[].class) {
+                        return new int[0];
+                    } else if (returnType == long.class) {
+                        return 0L;
+                    }
+                    return null;
+                }));
+    }
+
+    /**
+     * @param connections returns the connection of each call of {@link DataSource#getConnection()}
+     */
+    private static JdbcConnectionProvider provider(@Nullable Supplier<Connection> connections) {
+        return new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() {
+                throw new UnsupportedOperationException("the provider connection is not used");
+            }
+
+            @Override
+            public @Nullable DataSource ownedConnections() {
+                if (connections == null) {
+                    return null;
+                }
+                return (DataSource) Proxy.newProxyInstance(JdbcShardedBatchTest.class.getClassLoader(),
+                        new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("getConnection")) {
+                                return connections.get();
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+            }
+        };
+    }
+
+    private static class Shards extends JdbcShardedBatch<JdbcBatch> {
+        Shards(JdbcConnectionProvider provider, int shards) throws SQLException {
+            super(provider, shards, con -> stub(JdbcBatch.class));
+        }
+
+        void add(Consumer<JdbcBatch> row) {
+            this.submit(row);
+        }
+    }
+
+    private static final class OneShard extends Shards {
+        OneShard() throws SQLException {
+            super(provider(() -> stub(Connection.class)), 1);
+        }
+    }
+}
@@ -8,6 +8,7 @@ package io.kaumei.jdbc;
 import org.h2.jdbcx.JdbcConnectionPool;
 import org.h2.tools.RunScript;
 import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
@@ -49,6 +50,14 @@ public class DatasourceExtension implements BeforeAllCallback, BeforeEachCallbac
         this.ds = context
                 .getStore(ExtensionContext.StoreScope.LAUNCHER_SESSION, NS)
                 .computeIfAbsent(dbType, DatasourceExtension::createOrGetDataSource, DataSource.class);
+        if (dbType == DBType.Postgres) {
+            // tests on PostgreSQL are skipped if no database is running
+            try (var con = this.dataSource().getConnection()) {
+                con.isValid(1);
+            } catch (SQLException e) {
+                Assumptions.abort("PostgreSQL is not available: " + e.getMessage());
+            }
+        }
     }
 
     @Override
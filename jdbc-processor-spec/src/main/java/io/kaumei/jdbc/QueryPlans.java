@@ -0,0 +1,294 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Query plan regression harness for the SQL of all generated methods.
+ * <p>
+ * The annotation processor writes the SQL of each generated {@code @JdbcSelect} and {@code @JdbcUpdate}
+ * method to {@value #MANIFEST}, if the option {@code -Aio.kaumei.jdbc.processor.sqlmanifest=true} is set.
+ * {@link #assertNoFullScanRegression} runs {@code EXPLAIN} for each SQL and compares the plans with a
+ * snapshot file: it fails if a table is read by more full scans than in the snapshot, e.g. if one table
+ * of a join switched from an index lookup to a full scan, or if a SQL cannot be explained. Exclude SQL
+ * which is invalid on purpose from the list.
+ * <p>
+ * A missing snapshot is written. Changed plans without a regression are written to a separate file,
+ * e.g. in the build directory, set the system property {@value #UPDATE_PROPERTY} to update the snapshot.
+ * Supported are H2 and PostgreSQL (16 or later, with generic plans).
+ */
+public final class QueryPlans {
+
+    public final static String MANIFEST = "META-INF/io.kaumei.jdbc/sql-manifest.tsv";
+    public final static String UPDATE_PROPERTY = "kaumei.plans.update";
+
+    private final static String ENTRY_PREFIX = "### ";
+    private final static String EXPLAIN_FAILED = "EXPLAIN failed: ";
+    private final static Pattern MARKER = Pattern.compile("\\?");
+    // H2: /* PUBLIC.DB_CUSTOMERS.tableScan */, PostgreSQL: Seq Scan on db_customers
+    private final static Pattern FULL_SCAN = Pattern.compile("/\\* (\\S+)\\.tableScan \\*/|Seq Scan on (\\S+)");
+    // H2 numbers the aliases of derived tables per session
+    private final static Pattern H2_ALIAS = Pattern.compile("\"_\\d+\"");
+
+    private QueryPlans() {
+    }
+
+    /**
+     * @param kind   SELECT or UPDATE
+     * @param type   the qualified name of the interface
+     * @param method the name of the method
+     * @param sql    the native SQL, collection parameters have one marker
+     */
+    public record Sql(String kind, String type, String method, String sql) {
+        String key() {
+            return this.type + "." + this.method + ": " + this.sql;
+        }
+    }
+
+    public record Plan(Sql sql, String plan) {
+        /**
+         * @return true, if one table is read without an index
+         */
+        public boolean fullScan() {
+            return !this.scannedTables().isEmpty();
+        }
+
+        /**
+         * @return the tables which are read without an index, with the number of their full scans
+         */
+        public Map<String, Integer> scannedTables() {
+            var result = new TreeMap<String, Integer>();
+            var matcher = FULL_SCAN.matcher(this.plan);
+            while (matcher.find()) {
+                var table = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+                result.merge(table, 1, Integer::sum);
+            }
+            return result;
+        }
+
+        /**
+         * @return the tables which are read without an index more often than in the older plan
+         */
+        public Set<String> newFullScans(Plan older) {
+            var before = older.scannedTables();
+            var result = new TreeSet<String>();
+            this.scannedTables().forEach((table, count) -> {
+                if (count > before.getOrDefault(table, 0)) {
+                    result.add(table);
+                }
+            });
+            return result;
+        }
+
+        /**
+         * @return true, if the SQL could not be explained, the plan is the SQL state
+         */
+        public boolean failed() {
+            return this.plan.startsWith(EXPLAIN_FAILED);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return all SQL of the manifests found on the class path
+     */
+    public static List<Sql> manifest() {
+        var result = new ArrayList<Sql>();
+        try {
+            var urls = QueryPlans.class.getClassLoader().getResources(MANIFEST);
+            for (URL url : Collections.list(urls)) {
+                try (var in = url.openStream()) {
+                    var content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    for (var line : content.split("\n")) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        var parts = line.split("\t", 4);
+                        if (parts.length != 4) {
+                            throw new IllegalStateException("Invalid manifest line in " + url + ": " + line);
+                        }
+                        result.add(new Sql(parts[0], parts[1], parts[2], unescape(parts[3])));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        result.sort(Comparator.comparing(Sql::key));
+        return result;
+    }
+
+    /**
+     * @return the plan of each SQL, a failed {@code EXPLAIN} is reported with its SQL state
+     */
+    public static List<Plan> explain(Connection con, List<Sql> sqls) throws SQLException {
+        var postgres = con.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+        var result = new ArrayList<Plan>(sqls.size());
+        for (var sql : sqls) {
+            result.add(new Plan(sql, postgres ? explainPostgres(con, sql.sql()) : explainH2(con, sql.sql())));
+        }
+        return result;
+    }
+
+    /**
+     * Explains all SQL of the manifest and compares the plans with the snapshot.
+     *
+     * @param actual the file the changed plans are written to
+     * @throws AssertionError if a SQL cannot be explained or a table is read by more full scans than in the snapshot
+     */
+    public static void assertNoFullScanRegression(Connection con, Path snapshot, Path actual) throws SQLException, IOException {
+        assertNoFullScanRegression(con, manifest(), snapshot, actual);
+    }
+
+    /**
+     * Explains the given SQL, e.g. a filtered {@link #manifest()}, and compares the plans with the snapshot.
+     *
+     * @param actual the file the changed plans are written to
+     * @throws AssertionError if a SQL cannot be explained or a table is read by more full scans than in the snapshot
+     */
+    public static void assertNoFullScanRegression(Connection con, List<Sql> sqls, Path snapshot, Path actual)
+            throws SQLException, IOException {
+        if (sqls.isEmpty()) {
+            throw new AssertionError("No SQL manifest found on the class path: " + MANIFEST);
+        }
+        var plans = explain(con, sqls);
+        var failed = new ArrayList<String>();
+        for (var plan : plans) {
+            if (plan.failed()) {
+                failed.add(plan.sql().key() + "\n" + plan.plan());
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new AssertionError("SQL cannot be explained, fix or exclude it:\n\n" + String.join("\n\n", failed));
+        }
+        if (!Files.exists(snapshot) || Boolean.getBoolean(UPDATE_PROPERTY)) {
+            write(snapshot, plans);
+            return;
+        }
+        var expected = read(snapshot);
+        var regressions = new ArrayList<String>();
+        var changed = false;
+        for (var plan : plans) {
+            var old = expected.get(plan.sql().key());
+            if (old == null || !old.equals(plan.plan().strip())) {
+                changed = true;
+            }
+            var newScans = old == null ? Set.<String>of() : plan.newFullScans(new Plan(plan.sql(), old));
+            if (!newScans.isEmpty()) {
+                regressions.add(plan.sql().key() + "\nnew full scans of " + newScans + "\n" + plan.plan());
+            }
+        }
+        if (changed) {
+            write(actual, plans);
+        } else {
+            Files.deleteIfExists(actual);
+        }
+        if (!regressions.isEmpty()) {
+            throw new AssertionError("Query plans switched to a full scan, see " + actual + ":\n\n"
+                    + String.join("\n\n", regressions));
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private static String explainH2(Connection con, String sql) {
+        try (var stmt = con.prepareStatement("EXPLAIN " + sql)) {
+            var count = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= count; i++) {
+                stmt.setObject(i, null);
+            }
+            return H2_ALIAS.matcher(readPlan(stmt.executeQuery())).replaceAll("\"_\"");
+        } catch (SQLException e) {
+            return EXPLAIN_FAILED + e.getSQLState();
+        }
+    }
+
+    private static String explainPostgres(Connection con, String sql) {
+        // a generic plan does not depend on parameter values, the markers are passed as $1, $2, ...
+        var index = new int[1];
+        var generic = MARKER.matcher(sql).replaceAll(m -> Matcher.quoteReplacement("$" + ++index[0]));
+        try (var stmt = con.createStatement()) {
+            return readPlan(stmt.executeQuery("EXPLAIN (GENERIC_PLAN) " + generic));
+        } catch (SQLException e) {
+            return EXPLAIN_FAILED + e.getSQLState();
+        }
+    }
+
+    private static String readPlan(ResultSet rs) throws SQLException {
+        try (rs) {
+            var plan = new StringJoiner("\n");
+            while (rs.next()) {
+                plan.add(rs.getString(1));
+            }
+            return plan.toString();
+        }
+    }
+
+    private static void write(Path file, List<Plan> plans) throws IOException {
+        var content = new StringBuilder();
+        for (var plan : plans) {
+            content.append(ENTRY_PREFIX).append(plan.sql().key().replace("\n", "\\n")).append('\n');
+            content.append(plan.plan()).append("\n\n");
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, content);
+    }
+
+    private static Map<String, String> read(Path file) throws IOException {
+        var result = new HashMap<String, String>();
+        String key = null;
+        var plan = new StringJoiner("\n");
+        for (var line : Files.readAllLines(file)) {
+            if (line.startsWith(ENTRY_PREFIX)) {
+                if (key != null) {
+                    result.put(key, plan.toString().strip());
+                }
+                key = line.substring(ENTRY_PREFIX.length()).replace("\\n", "\n");
+                plan = new StringJoiner("\n");
+            } else {
+                plan.add(line);
+            }
+        }
+        if (key != null) {
+            result.put(key, plan.toString().strip());
+        }
+        return result;
+    }
+
+    private static String unescape(String value) {
+        var result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                var next = value.charAt(++i);
+                result.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'r' -> '\r';
+                    case 'n' -> '\n';
+                    default -> next;
+                });
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.JdbcIterable;
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+public interface AsyncSpec {
+
+    @JdbcUpdate("INSERT INTO db_customers (name, pricing_plan) VALUES (:name, 'FREE')")
+    CompletableFuture<Void> insert(String name);
+
+    @JdbcUpdate("UPDATE db_customers SET budge = :budge WHERE name = :name")
+    CompletableFuture<Integer> updateCount(String name, int budge);
+
+    @JdbcUpdate("UPDATE db_customers SET budge = :budge WHERE name = :name")
+    CompletableFuture<Boolean> updated(String name, int budge);
+
+    // ------------------------------------------------------------
+
+    @JdbcSelect("SELECT count(*) FROM db_customers")
+    CompletableFuture<Integer> count();
+
+    @JdbcSelect("SELECT budge FROM db_customers WHERE name = :name")
+    CompletableFuture<@Nullable Integer> budge(String name);
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    CompletableFuture<List<String>> names();
+
+    @JdbcSelect("SELECT unknown_column FROM db_customers")
+    CompletableFuture<List<String>> invalidSql();
+
+    @JdbcSelect("""
+            WITH RECURSIVE r(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM r WHERE n < 10000)
+            SELECT count(*) FROM r a, r b, r c""")
+    CompletableFuture<Long> longRunning();
+
+    // ------------------------------------------------------------
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    CompletableFuture<Stream<String>> invalidStream();
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    CompletableFuture<JdbcIterable<String>> invalidIterable();
+
+}
@@ -0,0 +1,59 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import io.kaumei.jdbc.annotation.JdbcUpdateBatch;
+import io.kaumei.jdbc.annotation.config.JdbcBatchSize;
+import io.kaumei.jdbc.annotation.config.JdbcReturnGeneratedValues;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+public interface ListenerSpec {
+
+    @JdbcUpdate("INSERT INTO db_customers (name, pricing_plan) VALUES (:name, 'FREE')")
+    void insert(String name);
+
+    @JdbcUpdate("INSERT INTO db_customers (name, pricing_plan) VALUES (:name, 'FREE')")
+    @JdbcReturnGeneratedValues(JdbcReturnGeneratedValues.Kind.GENERATED_KEYS)
+    long insertAndReturnId(String name);
+
+    @JdbcUpdate("UPDATE db_customers SET budge = :budge")
+    int updateAll(int budge);
+
+    @JdbcSelect("SELECT count(*) FROM db_customers")
+    int count();
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    List<String> list();
+
+    @JdbcSelect("SELECT count(*) FROM db_customers WHERE name IN (:names)")
+    int countIn(List<String> names);
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    Stream<String> stream();
+
+    @JdbcSelect("SELECT id FROM db_customers ORDER BY id")
+    LongStream ids();
+
+    @JdbcSelect("SELECT count(*) FROM db_customers")
+    CompletableFuture<Integer> countAsync();
+
+    interface Inserts extends JdbcBatch {
+        @JdbcUpdate("INSERT INTO db_customers (name, pricing_plan) VALUES (:name, 'FREE')")
+        void insert(String name);
+    }
+
+    @JdbcBatchSize(2)
+    @JdbcUpdateBatch
+    Inserts inserts();
+
+}
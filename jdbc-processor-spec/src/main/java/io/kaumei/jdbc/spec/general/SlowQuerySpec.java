@@ -0,0 +1,53 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import io.kaumei.jdbc.annotation.config.JdbcSlowQuery;
+import io.kaumei.jdbc.annotation.config.JdbcSlowQueryExplain;
+
+import java.util.List;
+
+public interface SlowQuerySpec {
+
+    @JdbcSlowQuery(0)
+    @JdbcUpdate("INSERT INTO db_customers (name, pricing_plan) VALUES (:name, 'FREE')")
+    void insert(String name);
+
+    @JdbcSlowQuery(0)
+    @JdbcSelect("SELECT name FROM db_customers WHERE name IN (:names) OR name = :name ORDER BY id")
+    List<String> list(List<String> names, String name);
+
+    @JdbcSelect("SELECT count(*) FROM db_customers WHERE name = :name")
+    int countParameter(@JdbcSlowQuery int threshold, String name);
+
+    @JdbcSelect("SELECT count(*) FROM db_customers WHERE name = :name")
+    int count(String name);
+
+    @JdbcSlowQuery(0)
+    @JdbcSelect("SELECT count(*) FROM db_customers WHERE name IN (:names) OR name = :name")
+    int countArray(String[] names, String name);
+
+    @JdbcSlowQuery
+    @JdbcSelect("SELECT 1")
+    int invalidSlowQueryMethod();
+
+    @JdbcSlowQuery(0)
+    @JdbcSlowQueryExplain(0)
+    @JdbcSelect("SELECT name FROM db_customers WHERE name IN (:names) ORDER BY id")
+    List<String> explain(List<String> names);
+
+    @JdbcSlowQuery(0)
+    @JdbcSlowQueryExplain(3600)
+    @JdbcSelect("SELECT count(*) FROM db_customers WHERE name <> :name")
+    int explainRateLimited(String name);
+
+    @JdbcSlowQueryExplain(0)
+    @JdbcUpdate("UPDATE db_customers SET budge = 0 WHERE name = :name")
+    void invalidExplainUpdate(String name);
+
+}
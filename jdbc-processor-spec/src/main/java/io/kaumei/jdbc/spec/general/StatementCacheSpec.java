@@ -0,0 +1,33 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import io.kaumei.jdbc.annotation.config.JdbcMaxRows;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface StatementCacheSpec {
+
+    @JdbcUpdate("INSERT INTO db_customers (name, pricing_plan) VALUES (:name, 'FREE')")
+    int insert(String name);
+
+    @JdbcSelect("SELECT count(*) FROM db_customers")
+    int count();
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    Stream<String> stream();
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    @JdbcMaxRows(1)
+    List<String> listOne();
+
+    @JdbcSelect("SELECT name FROM db_customers ORDER BY id")
+    List<String> listAll();
+
+}
@@ -7,12 +7,15 @@ package io.kaumei.jdbc.spec.jdbc2java;
 
 
 import io.kaumei.jdbc.annotation.*;
+import io.kaumei.jdbc.annotation.config.JdbcColumnMapping;
 import io.kaumei.jdbc.annotation.config.JdbcNoRows;
 import io.kaumei.jdbc.spec.NoJdbcType;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Order of methods:
@@ -79,6 +82,38 @@ public interface RowFromObjectsSpec {
     @JdbcSelect("select :value1 as value1, :value2 as value2")
     WithNames withNames(String value1, Integer value2);
 
+    // ------------------------------------------------------------------------
+    // column indexes are resolved once per result set
+
+    @JdbcSelect("select col_varchar AS value1, col_int AS value2 from db_types ORDER BY col_int")
+    List<StringInt2> stringIntList();
+
+    @JdbcSelect("select col_varchar AS value1, col_int AS value2 from db_types ORDER BY col_int")
+    Stream<StringInt2> stringIntStream();
+
+    // ------------------------------------------------------------------------
+    // column indexes are taken from the select list at compile time
+
+    @JdbcSelect("select :value1 as value1, :value2 as value2")
+    @JdbcColumnMapping(JdbcColumnMapping.Kind.BY_ORDINAL)
+    StringInt2 stringIntByOrdinal(String value1, Integer value2);
+
+    @JdbcSelect("select t.col_int AS value2, t.col_varchar AS \"value1\" from db_types t ORDER BY col_int")
+    @JdbcColumnMapping(JdbcColumnMapping.Kind.BY_ORDINAL)
+    List<StringInt2> stringIntListByOrdinal();
+
+    @JdbcSelect("select col_varchar AS value1, col_int AS value2 from db_types ORDER BY col_int")
+    @JdbcColumnMapping(JdbcColumnMapping.Kind.BY_ORDINAL)
+    Stream<StringInt2> stringIntStreamByOrdinal();
+
+    @JdbcSelect("select * from (select col_varchar AS value1, col_int AS value2 from db_types) ORDER BY value2")
+    @JdbcColumnMapping(JdbcColumnMapping.Kind.BY_ORDINAL)
+    List<StringInt2> stringIntListByOrdinalSelectAll();
+
+    @JdbcSelect("select col_varchar AS value1, col_int AS value3 from db_types")
+    @JdbcColumnMapping(JdbcColumnMapping.Kind.BY_ORDINAL)
+    List<StringInt2> stringIntListByOrdinalInvalid();
+
     // ------------------------------------------------------------------------
 
     @JdbcToJava("RowFromObjectsSpec.invalidReturnTypeVoid")
@@ -0,0 +1,54 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.select;
+
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.config.JdbcFetchSize;
+import io.kaumei.jdbc.annotation.config.JdbcMaxRows;
+
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+public interface SelectPrimitiveSpec {
+
+    // ------------------------------------------------------------
+
+    @JdbcSelect("SELECT id FROM db_address ORDER BY id")
+    long[] longArray();
+
+    @JdbcSelect("SELECT id FROM db_address where city = :city ORDER BY id")
+    long[] longArrayByCity(String city);
+
+    @JdbcSelect("SELECT length FROM db_address where city = :city ORDER BY id")
+    int[] intArray(String city);
+
+    @JdbcSelect("SELECT length / 10.0 FROM db_address where city = :city ORDER BY id")
+    double[] doubleArray(String city);
+
+    @JdbcMaxRows(2)
+    @JdbcSelect("SELECT id FROM db_address ORDER BY id")
+    long[] longArrayMaxRows();
+
+    @JdbcFetchSize(3)
+    @JdbcSelect("SELECT id FROM db_address ORDER BY id")
+    long[] longArrayFetchSize();
+
+    @JdbcSelect("SELECT city FROM db_address ORDER BY id")
+    String[] invalidStringArray();
+
+    // ------------------------------------------------------------
+
+    @JdbcSelect("SELECT id FROM db_address ORDER BY id")
+    LongStream longStream();
+
+    @JdbcSelect("SELECT length FROM db_address where city = :city ORDER BY id")
+    IntStream intStream(String city);
+
+    @JdbcSelect("SELECT length / 10.0 FROM db_address where city = :city ORDER BY id")
+    DoubleStream doubleStream(String city);
+
+}
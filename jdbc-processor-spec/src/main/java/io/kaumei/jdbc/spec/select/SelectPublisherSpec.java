@@ -0,0 +1,39 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.select;
+
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.config.JdbcFetchSize;
+import io.kaumei.jdbc.spec.db.DbAddress;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.Flow;
+
+public interface SelectPublisherSpec {
+
+    @JdbcSelect("SELECT street FROM db_address where city = :city ORDER BY id")
+    Flow.Publisher<String> columnUnspecific(String city);
+
+    @JdbcSelect("SELECT street FROM db_address where city = :city ORDER BY id")
+    Flow.Publisher<Optional<String>> columnOptional(String city);
+
+    @JdbcSelect("SELECT * FROM db_address where city = :city ORDER BY id")
+    Flow.Publisher<DbAddress> rowUnspecific(String city);
+
+    @JdbcFetchSize(2)
+    @JdbcSelect("SELECT street FROM db_address where city = :city ORDER BY id")
+    Flow.Publisher<String> columnWithFetchSize(String city);
+
+    @JdbcSelect("SELECT unknown_column FROM db_address")
+    Flow.Publisher<String> invalidSql();
+
+    // ------------------------------------------------------------
+
+    @JdbcSelect("SELECT street FROM db_address where city = :city ORDER BY id")
+    Flow.Publisher<@Nullable String> invalidColumnNullable(String city);
+
+}
@@ -93,6 +93,23 @@ public interface SelectSpec {
     @JdbcSelect("SELECT * FROM db_address WHERE city = :city")
     Stream<DbAddress> selectStreamJdbcMaxRowsMethod(String city);
 
+    // ------------------------------------------------------------------------
+
+    @JdbcExpectedRows(3)
+    @JdbcSelect("SELECT count(*) FROM db_address WHERE city = :city")
+    int selectJdbcExpectedRowsMethod(String city);
+
+    @JdbcExpectedRows(3)
+    @JdbcSelect("SELECT * FROM db_address WHERE city = :city")
+    List<DbAddress> selectListJdbcExpectedRowsMethod(String city);
+
+    @JdbcSelect("SELECT * FROM db_address WHERE city = :city")
+    List<DbAddress> selectListJdbcExpectedRowsParameter(String city, @JdbcExpectedRows int expectedRows);
+
+    @JdbcExpectedRows(3)
+    @JdbcSelect("SELECT * FROM db_address WHERE city = :city")
+    Stream<DbAddress> selectStreamJdbcExpectedRowsMethod(String city);
+
     // util methods ###########################################################
 
 }
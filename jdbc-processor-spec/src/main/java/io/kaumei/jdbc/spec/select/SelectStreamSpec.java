@@ -7,6 +7,7 @@ package io.kaumei.jdbc.spec.select;
 
 import io.kaumei.jdbc.annotation.JdbcName;
 import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.config.JdbcFetchSize;
 import io.kaumei.jdbc.annotation.config.JdbcNoMoreRows;
 import io.kaumei.jdbc.annotation.config.JdbcNoRows;
 import io.kaumei.jdbc.spec.db.DbAddress;
@@ -68,6 +69,15 @@ public interface SelectStreamSpec {
     @JdbcSelect("SELECT 1")
     Stream<String> invalidNoMoreRows();
 
+    // ------------------------------------------------------------
+
+    @JdbcSelect("WITH RECURSIVE r(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM r WHERE n < :count) SELECT n FROM r ORDER BY n")
+    Stream<Integer> numbers(int count);
+
+    @JdbcFetchSize(100)
+    @JdbcSelect("WITH RECURSIVE r(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM r WHERE n < :count) SELECT n FROM r ORDER BY n")
+    Stream<Integer> numbersWithFetchSize(int count);
+
     // util methods ###########################################################
 
 }
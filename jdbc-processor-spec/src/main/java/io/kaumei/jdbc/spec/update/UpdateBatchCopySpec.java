@@ -0,0 +1,51 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.update;
+
+import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcUpdate;
+import io.kaumei.jdbc.annotation.JdbcUpdateBatch;
+import io.kaumei.jdbc.annotation.config.JdbcBatchMode;
+import io.kaumei.jdbc.annotation.config.JdbcBatchSize;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * {@code @JdbcBatchMode(COPY)} on PostgreSQL, every value is sent in the COPY text format.
+ */
+public interface UpdateBatchCopySpec {
+
+    record Types(long id, byte @Nullable [] bytea, @Nullable Boolean bool, @Nullable Date date,
+                 @Nullable Integer number, @Nullable BigDecimal numeric, @Nullable String text,
+                 @Nullable Time time, @Nullable Timestamp timestamp) {
+    }
+
+    interface BatchTypes extends JdbcBatch {
+        @JdbcUpdate("""
+                INSERT INTO db_types (id, col_bytea, col_boolean, col_date, col_int, col_number, col_text, col_time, col_timestamp)
+                VALUES (:id, :bytea, :bool, :date, :number, :numeric, :text, :time, :timestamp)""")
+        void insert(long id, byte @Nullable [] bytea, @Nullable Boolean bool, @Nullable Date date,
+                    @Nullable Integer number, @Nullable BigDecimal numeric, @Nullable String text,
+                    @Nullable Time time, @Nullable Timestamp timestamp);
+    }
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.COPY)
+    @JdbcBatchSize(2)
+    @JdbcUpdateBatch
+    BatchTypes copy();
+
+    @JdbcSelect("""
+            SELECT id, col_bytea AS bytea, col_boolean AS bool, col_date AS date, col_int AS number,
+                   col_number AS numeric, col_text AS text, col_time AS time, col_timestamp AS timestamp
+            FROM db_types ORDER BY id""")
+    List<Types> types();
+}
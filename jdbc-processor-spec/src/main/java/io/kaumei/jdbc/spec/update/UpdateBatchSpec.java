@@ -6,14 +6,22 @@
 package io.kaumei.jdbc.spec.update;
 
 import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.JdbcKeyBatch;
 import io.kaumei.jdbc.annotation.JdbcSelect;
+import io.kaumei.jdbc.annotation.JdbcShardKey;
 import io.kaumei.jdbc.annotation.JdbcToJava;
 import io.kaumei.jdbc.annotation.JdbcUpdate;
 import io.kaumei.jdbc.annotation.JdbcUpdateBatch;
+import io.kaumei.jdbc.annotation.config.JdbcBatchBytes;
+import io.kaumei.jdbc.annotation.config.JdbcBatchLinger;
+import io.kaumei.jdbc.annotation.config.JdbcBatchMode;
+import io.kaumei.jdbc.annotation.config.JdbcBatchShards;
 import io.kaumei.jdbc.annotation.config.JdbcBatchSize;
 import io.kaumei.jdbc.annotation.config.JdbcQueryTimeout;
+import io.kaumei.jdbc.annotation.config.JdbcReturnGeneratedValues;
 import io.kaumei.jdbc.docs.SimpleExample;
 import io.kaumei.jdbc.impl.JdbcBatchImpl;
+import io.kaumei.jdbc.spec.NoJdbcType;
 import io.kaumei.jdbc.spec.db.DbCustomer;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -130,6 +138,147 @@ public interface UpdateBatchSpec {
     @JdbcUpdateBatch
     BatchOne invalidJdbcBatchSizeWithoutValue();
 
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchBytes(64)
+    @JdbcUpdateBatch
+    BatchOne jdbcBatchBytesAnnotationMethod();
+
+    @JdbcUpdateBatch
+    BatchOne jdbcBatchBytesAnnotationParam(@JdbcBatchBytes int batchBytes);
+
+    @JdbcBatchBytes
+    @JdbcUpdateBatch
+    BatchOne invalidJdbcBatchBytesWithoutValue();
+
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchLinger(50)
+    @JdbcUpdateBatch
+    BatchOne jdbcBatchLingerAnnotationMethod();
+
+    @JdbcUpdateBatch
+    BatchOne jdbcBatchLingerAnnotationParam(@JdbcBatchLinger int batchLinger);
+
+    @JdbcBatchLinger
+    @JdbcUpdateBatch
+    BatchOne invalidJdbcBatchLingerWithoutValue();
+
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.MULTI_ROW_INSERT)
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchOne multiRowInsert();
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.MULTI_ROW_INSERT)
+    @JdbcUpdateBatch
+    BatchOne multiRowInsertParam(@JdbcBatchSize int batchSize);
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.MULTI_ROW_INSERT)
+    @JdbcUpdateBatch
+    BatchMultiRowUpdate invalidMultiRowInsertUpdate();
+
+    interface BatchMultiRowUpdate extends JdbcBatch {
+        @JdbcUpdate("UPDATE db_customers SET budge = :budge WHERE name = :name")
+        void update(String name, Integer budge);
+    }
+
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.COPY)
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchOne copy();
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.COPY)
+    @JdbcUpdateBatch
+    BatchMultiRowUpdate invalidCopyUpdate();
+
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.PIPELINED)
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchOne pipelined();
+
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchSize(10)
+    @JdbcUpdateBatch
+    BatchOne recovery();
+
+    // ------------------------------------------------------------------------
+
+    interface BatchKeys extends JdbcKeyBatch<Long> {
+        @JdbcUpdate("INSERT INTO db_customers (name,budge,pricing_plan) values (:name,:budge,:plan)")
+        void insert(String name, Integer budge, SimpleExample.PricingPlan plan);
+    }
+
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchKeys generatedKeys();
+
+    @JdbcBatchMode(JdbcBatchMode.Kind.MULTI_ROW_INSERT)
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchKeys invalidGeneratedKeysMultiRowInsert();
+
+    @JdbcReturnGeneratedValues(JdbcReturnGeneratedValues.Kind.EXECUTE_QUERY)
+    @JdbcUpdateBatch
+    BatchKeys invalidGeneratedKeysExecuteQuery();
+
+    interface InvalidBatchKeysType extends JdbcKeyBatch<NoJdbcType> {
+        @JdbcUpdate("INSERT INTO db_customers (name,budge,pricing_plan) values (:name,:budge,:plan)")
+        void insert(String name, Integer budge, SimpleExample.PricingPlan plan);
+    }
+
+    @JdbcUpdateBatch
+    InvalidBatchKeysType invalidGeneratedKeysType();
+
+    // ------------------------------------------------------------------------
+
+    @JdbcBatchShards(3)
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchOne sharded();
+
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchOne shardedParam(@JdbcBatchShards int shards);
+
+    @JdbcBatchShards(3)
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchSession shardedByKey();
+
+    @JdbcBatchSize(5)
+    @JdbcUpdateBatch
+    BatchSession notShardedWithKey();
+
+    interface BatchSession extends JdbcBatch {
+        // budge is the session of the connection (H2)
+        @JdbcUpdate("INSERT INTO db_customers (name,budge,pricing_plan) values (:name,SESSION_ID(),:plan)")
+        void insert(@JdbcShardKey String name, SimpleExample.PricingPlan plan);
+    }
+
+    @JdbcBatchShards
+    @JdbcUpdateBatch
+    BatchOne invalidJdbcBatchShardsWithoutValue();
+
+    @JdbcBatchShards(0)
+    @JdbcUpdateBatch
+    BatchOne invalidJdbcBatchShardsZero();
+
+    @JdbcBatchShards(2)
+    @JdbcUpdateBatch
+    InvalidBatchTwoShardKeys invalidTwoShardKeys();
+
+    interface InvalidBatchTwoShardKeys extends JdbcBatch {
+        @JdbcUpdate("INSERT INTO db_customers (name,budge,pricing_plan) values (:name,:budge,:plan)")
+        void insert(@JdbcShardKey String name, @JdbcShardKey Integer budge, SimpleExample.PricingPlan plan);
+    }
+
     // util methods ###########################################################
 
 }
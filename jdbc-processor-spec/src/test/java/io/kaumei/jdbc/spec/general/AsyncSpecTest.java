@@ -0,0 +1,208 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
+import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncSpecTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private AsyncSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        service = new AsyncSpecJdbc(() -> {
+            threads.add(Thread.currentThread());
+            return db.getConnection();
+        });
+    }
+
+    // @part:spec -------------------------------------------------------------
+    @Test
+    void update() {
+        assertThat(service.insert("a").join()).isNull();
+        assertThat(service.insert("b").join()).isNull();
+        assertThat(service.updateCount("a", 10).join()).isEqualTo(1);
+        assertThat(service.updated("b", 20).join()).isTrue();
+        assertThat(service.updated("c", 30).join()).isFalse();
+    }
+
+    @Test
+    void select() {
+        service.insert("a").join();
+        service.insert("b").join();
+        service.updateCount("a", 10).join();
+        assertThat(service.count().join()).isEqualTo(2);
+        assertThat(service.budge("a").join()).isEqualTo(10);
+        assertThat(service.budge("b").join()).isNull();
+        assertThat(service.names().join()).containsExactly("a", "b");
+    }
+
+    @Test
+    void fanOut() {
+        service.insert("a").join();
+        var count = service.count();
+        var names = service.names();
+        assertThat(count.thenCombine(names, (c, n) -> c + ":" + n).join()).isEqualTo("1:[a]");
+    }
+
+    @Test
+    void defaultExecutorUsesVirtualThreads() {
+        service.count().join();
+        assertThat(threads).hasSize(1);
+        assertThat(threads.getFirst().isVirtual()).isTrue();
+        assertThat(threads.getFirst()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void executorOfProvider() throws InterruptedException {
+        try (var executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "async-spec"))) {
+            var custom = new AsyncSpecJdbc(new JdbcConnectionProvider() {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    threads.add(Thread.currentThread());
+                    return db.getConnection();
+                }
+
+                @Override
+                public Executor executor() {
+                    return executor;
+                }
+            });
+            assertThat(custom.count().join()).isZero();
+        }
+        assertThat(threads).extracting(Thread::getName).containsExactly("async-spec");
+    }
+
+    @Test
+    void threadBoundConnection() throws SQLException {
+        // like DataSourceUtils: the connection of the thread's transaction, otherwise a new one
+        var bound = new ThreadLocal<Connection>();
+        var unbound = new CopyOnWriteArrayList<Connection>();
+        var custom = new AsyncSpecJdbc(() -> {
+            var con = bound.get();
+            if (con == null) {
+                con = db.dataSource().getConnection();
+                unbound.add(con);
+            }
+            return con;
+        });
+        try (var tx = db.dataSource().getConnection()) {
+            tx.setAutoCommit(false);
+            bound.set(tx);
+            try {
+                custom.insert("a").join();
+                tx.rollback();
+            } finally {
+                bound.remove();
+                for (var con : unbound) {
+                    con.close();
+                }
+            }
+        }
+        // the insert used a connection of the executor thread, the rollback did not undo it
+        assertThat(unbound).hasSize(1);
+        assertThat(service.count().join()).isEqualTo(1);
+    }
+
+    @Test
+    void exceptionsAreJdbcExceptions() {
+        var future = service.invalidSql();
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .cause().isInstanceOf(JdbcException.class);
+    }
+
+    @Test
+    void cancelStatement() throws Exception {
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var custom = new AsyncSpecJdbc(new JdbcConnectionProvider() {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return db.dataSource().getConnection();
+                }
+
+                @Override
+                public Executor executor() {
+                    return executor;
+                }
+            });
+            var future = custom.longRunning();
+            awaitExecuting("WITH RECURSIVE");
+            assertThat(future.cancel(true)).isTrue();
+            assertThatThrownBy(future::join).isInstanceOf(CancellationException.class);
+            executor.shutdown();
+            // the query would run for hours without Statement.cancel()
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    /**
+     * Polls the sessions of H2 until another session executes a statement with the given prefix.
+     */
+    private static void awaitExecuting(String prefix) throws SQLException, InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        try (var stmt = db.getConnection().prepareStatement(
+                "SELECT count(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE EXECUTING_STATEMENT LIKE ?")) {
+            stmt.setString(1, prefix + "%");
+            while (true) {
+                try (var rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        return;
+                    }
+                }
+                assertThat(System.nanoTime()).as("statement is executing").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    void generatedCode() {
+        assertSource(service.getClass())
+                .hasClass("AsyncSpecJdbc")
+                .hasMethod("names")
+                .bodyContains("return JdbcFuture.supplyAsync(this.supplier, (supplier)->");
+    }
+
+    // ------------------------------------------------------------------------
+    @Test
+    void invalidStream() {
+        kaumeiThrows(() -> service.invalidStream())
+                .annotationProcessError("the result set must not outlive the future");
+    }
+
+    @Test
+    void invalidIterable() {
+        kaumeiThrows(() -> service.invalidIterable())
+                .annotationProcessError("the result set must not outlive the future");
+    }
+    // @part:spec -------------------------------------------------------------
+
+}
@@ -0,0 +1,108 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlightRecorderTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private ListenerSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        service = new ListenerSpecJdbc(db::getConnection);
+    }
+
+    private static List<RecordedEvent> events(Recording recording, String name) throws IOException {
+        var file = Files.createTempFile("kaumei", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(name))
+                    .toList();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void callEvent() throws IOException {
+        try (var recording = new Recording()) {
+            recording.enable("io.kaumei.jdbc.Call");
+            recording.start();
+            service.insert("a");
+            service.insert("b");
+            assertThat(service.list()).containsExactly("a", "b");
+            try (var stream = service.stream()) {
+                assertThat(stream).hasSize(2);
+            }
+            recording.stop();
+
+            var events = events(recording, "io.kaumei.jdbc.Call");
+            assertThat(events).extracting(e -> e.getString("method"))
+                    .containsExactly("insert", "insert", "list", "stream");
+            var list = events.get(2);
+            assertThat(list.getClass("type").getName()).isEqualTo(ListenerSpec.class.getName());
+            assertThat(list.getString("sql")).isEqualTo("SELECT name FROM db_customers ORDER BY id");
+            assertThat(list.getLong("rows")).isEqualTo(2);
+            assertThat(list.getString("error")).isNull();
+            var phases = list.getLong("connectionNanos") + list.getLong("prepareNanos") + list.getLong("bindNanos")
+                    + list.getLong("executeNanos") + list.getLong("fetchNanos") + list.getLong("mappingNanos");
+            assertThat(list.getDuration().toNanos()).isGreaterThanOrEqualTo(phases);
+            assertThat(events.get(3).getLong("rows")).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void batchEvent() throws IOException {
+        try (var recording = new Recording()) {
+            recording.enable("io.kaumei.jdbc.Batch");
+            recording.start();
+            try (var batch = service.inserts()) {
+                for (int i = 0; i < 5; i++) {
+                    batch.insert("a");
+                }
+            }
+            recording.stop();
+
+            var events = events(recording, "io.kaumei.jdbc.Batch");
+            assertThat(events).extracting(e -> e.getString("reason"))
+                    .containsExactly("BATCH_SIZE", "BATCH_SIZE", "CLOSE");
+            assertThat(events).extracting(e -> e.getLong("rows")).containsExactly(2L, 2L, 1L);
+            assertThat(events.getFirst().getClass("batch").getName()).contains("Inserts");
+        }
+    }
+
+    @Test
+    void disabledByDefault() throws IOException {
+        try (var recording = new Recording()) {
+            recording.start();
+            service.insert("a");
+            recording.stop();
+            assertThat(events(recording, "io.kaumei.jdbc.Call")).isEmpty();
+        }
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+}
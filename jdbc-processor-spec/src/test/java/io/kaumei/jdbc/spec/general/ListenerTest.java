@@ -0,0 +1,208 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import io.kaumei.jdbc.JdbcListener;
+import io.kaumei.jdbc.JdbcStatementCache;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.kaumei.jdbc.JdbcListener.Phase.*;
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ListenerTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final List<JdbcListener.Event> events = new CopyOnWriteArrayList<>();
+    private ListenerSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        service = new ListenerSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return db.getConnection();
+            }
+
+            @Override
+            public @Nullable JdbcListener listener() {
+                return events::add;
+            }
+        });
+    }
+
+    private List<JdbcListener.Phase> phases() {
+        return events.stream().map(JdbcListener.Event::phase).toList();
+    }
+
+    private JdbcListener.Event last() {
+        return events.getLast();
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void update() {
+        service.insert("a");
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, CLOSE);
+        assertThat(events).allMatch(e -> e.type() == ListenerSpec.class && e.method().equals("insert"));
+        assertThat(events.getFirst().sql()).isNull();
+        assertThat(events.get(1).sql()).isEqualTo("INSERT INTO db_customers (name, pricing_plan) VALUES (?, 'FREE')");
+        assertThat(events.get(3).rows()).isEqualTo(1);
+        assertThat(last().rows()).isEqualTo(1);
+        assertThat(last().error()).isNull();
+
+        service.insert("b");
+        events.clear();
+        assertThat(service.updateAll(5)).isEqualTo(2);
+        assertThat(last().rows()).isEqualTo(2);
+    }
+
+    @Test
+    void updateReturning() {
+        service.insertAndReturnId("a");
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(events.get(3).rows()).isEqualTo(1);
+        assertThat(events.get(4).rows()).isEqualTo(1);
+    }
+
+    @Test
+    void select() {
+        service.insert("a");
+        service.insert("b");
+        events.clear();
+        assertThat(service.count()).isEqualTo(2);
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(events.get(3).rows()).isEqualTo(-1);
+        assertThat(last().rows()).isEqualTo(1);
+
+        events.clear();
+        assertThat(service.list()).containsExactly("a", "b");
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(events.get(4).rows()).isEqualTo(2);
+        assertThat(last().rows()).isEqualTo(2);
+        assertThat(last().sql()).isEqualTo("SELECT name FROM db_customers ORDER BY id");
+    }
+
+    @Test
+    void elapsedTime() {
+        service.count();
+        var phases = events.subList(0, events.size() - 1).stream().mapToLong(JdbcListener.Event::elapsedNanos).sum();
+        assertThat(events).allMatch(e -> e.elapsedNanos() >= 0);
+        assertThat(last().elapsedNanos()).isGreaterThanOrEqualTo(phases);
+    }
+
+    @Test
+    void stream() {
+        service.insert("a");
+        service.insert("b");
+        events.clear();
+        try (var stream = service.stream()) {
+            // the rows are read lazily
+            assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE);
+            assertThat(stream).containsExactly("a", "b");
+        }
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(events.get(4).rows()).isEqualTo(2);
+        assertThat(last().rows()).isEqualTo(2);
+    }
+
+    @Test
+    void streamClosedEarly() {
+        service.insert("a");
+        service.insert("b");
+        events.clear();
+        try (var stream = service.stream()) {
+            assertThat(stream.findFirst()).contains("a");
+        }
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(last().rows()).isEqualTo(1);
+    }
+
+    @Test
+    void primitiveStream() {
+        service.insert("a");
+        service.insert("b");
+        events.clear();
+        try (var stream = service.ids()) {
+            assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE);
+            assertThat(stream.count()).isEqualTo(2);
+        }
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(last().rows()).isEqualTo(2);
+
+        events.clear();
+        try (var stream = service.ids()) {
+            assertThat(stream.findFirst()).isPresent();
+        }
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(last().rows()).isEqualTo(1);
+    }
+
+    @Test
+    void async() {
+        assertThat(service.countAsync().join()).isEqualTo(0);
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+        assertThat(last().method()).isEqualTo("countAsync");
+    }
+
+    @Test
+    void error() {
+        assertThatThrownBy(() -> service.insert("x".repeat(300)))
+                .isInstanceOf(JdbcException.class);
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, CLOSE);
+        assertThat(last().error()).isInstanceOf(SQLException.class);
+        assertThat(last().rows()).isEqualTo(-1);
+    }
+
+    @Test
+    void statementCache() throws SQLException {
+        try (var cache = new JdbcStatementCache(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return db.getConnection();
+            }
+
+            @Override
+            public @Nullable JdbcListener listener() {
+                return events::add;
+            }
+        }, 4)) {
+            new ListenerSpecJdbc(cache).count();
+        }
+        assertThat(phases()).containsExactly(CONNECTION, PREPARE, BIND, EXECUTE, FETCH, CLOSE);
+    }
+
+    @Test
+    void withoutListener() {
+        var plain = new ListenerSpecJdbc(db::getConnection);
+        plain.insert("a");
+        assertThat(plain.count()).isEqualTo(1);
+        assertThat(events).isEmpty();
+        assertSource(ListenerSpecJdbc.class)
+                .hasClass("ListenerSpecJdbc")
+                .hasMethod("count")
+                .bodyContains("JdbcProbe.start(supplier, ListenerSpec.class, \"count\")")
+                .bodyContains("JdbcProbe.closed(probe_jdbc)");
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+}
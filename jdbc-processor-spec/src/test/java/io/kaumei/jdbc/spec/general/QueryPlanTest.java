@@ -0,0 +1,117 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.QueryPlans;
+import io.kaumei.jdbc.spec.types.JdbcTypesAdditionalParamSpec;
+import io.kaumei.jdbc.spec.types.JdbcTypesParamSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueryPlanTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final static Path SNAPSHOT = Path.of("src/test/plans/h2.txt");
+    private final static Path ACTUAL = Path.of("target/plans/h2.txt.actual");
+
+    /**
+     * @return the SQL of the manifest without the SQL, which is invalid on purpose or not supported by H2
+     */
+    static List<QueryPlans.Sql> explainable() {
+        return QueryPlans.manifest().stream()
+                // the types are only bound to a mocked statement
+                .filter(sql -> !sql.type().equals(JdbcTypesParamSpec.class.getName()))
+                .filter(sql -> !sql.type().equals(JdbcTypesAdditionalParamSpec.class.getName()))
+                .filter(sql -> !sql.method().equals("invalidSql"))
+                // RETURNING is PostgreSQL only
+                .filter(sql -> !sql.method().equals("updateExecuteQueryUnspecific"))
+                .toList();
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void snapshot() throws Exception {
+        QueryPlans.assertNoFullScanRegression(db.getConnection(), explainable(), SNAPSHOT, ACTUAL);
+    }
+
+    @Test
+    void manifest() {
+        assertThat(QueryPlans.manifest())
+                .contains(new QueryPlans.Sql("SELECT", ListenerSpec.class.getName(), "count",
+                        "SELECT count(*) FROM db_customers"))
+                .contains(new QueryPlans.Sql("UPDATE", ListenerSpec.class.getName(), "insert",
+                        "INSERT INTO db_customers (name, pricing_plan) VALUES (?, 'FREE')"))
+                .contains(new QueryPlans.Sql("SELECT", SlowQuerySpec.class.getName(), "list",
+                        "SELECT name FROM db_customers WHERE name IN (?) OR name = ? ORDER BY id"))
+                // methods with errors are not part of the manifest
+                .noneMatch(sql -> sql.method().equals("invalidSlowQueryMethod"));
+    }
+
+    @Test
+    void fullScanRegression(@TempDir Path dir) throws Exception {
+        var snapshot = dir.resolve("plans.txt");
+        var actual = dir.resolve("build/plans.txt.actual");
+        QueryPlans.assertNoFullScanRegression(db.getConnection(), explainable(), snapshot, actual);
+        assertThat(snapshot).content().contains("/* PUBLIC.DB_CUSTOMERS.tableScan */");
+        // unchanged plans
+        QueryPlans.assertNoFullScanRegression(db.getConnection(), explainable(), snapshot, actual);
+        assertThat(actual).doesNotExist();
+
+        // pretend the full scans used an index before
+        Files.writeString(snapshot, Files.readString(snapshot).replace(".tableScan */", ".IDX_NAME */"));
+        assertThatThrownBy(() -> QueryPlans.assertNoFullScanRegression(db.getConnection(), explainable(), snapshot, actual))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageStartingWith("Query plans switched to a full scan")
+                .hasMessageContaining(SlowQuerySpec.class.getName() + ".count: SELECT count(*) FROM db_customers WHERE name = ?");
+        assertThat(actual).exists();
+    }
+
+    @Test
+    void fullScanOfJoinedTable(@TempDir Path dir) throws Exception {
+        var sqls = List.of(new QueryPlans.Sql("SELECT", ListenerSpec.class.getName(), "join",
+                "SELECT c.name FROM db_customers c JOIN db_address a ON c.budge = a.length"));
+        var snapshot = dir.resolve("plans.txt");
+        var actual = dir.resolve("plans.txt.actual");
+        QueryPlans.assertNoFullScanRegression(db.getConnection(), sqls, snapshot, actual);
+        assertThat(QueryPlans.explain(db.getConnection(), sqls).getFirst().scannedTables())
+                .containsEntry("PUBLIC.DB_CUSTOMERS", 1)
+                .containsEntry("PUBLIC.DB_ADDRESS", 1);
+
+        // pretend only the customers were scanned before, the statement had a full scan already
+        Files.writeString(snapshot, Files.readString(snapshot).replace("PUBLIC.DB_ADDRESS.tableScan", "PUBLIC.IDX_LENGTH"));
+        assertThatThrownBy(() -> QueryPlans.assertNoFullScanRegression(db.getConnection(), sqls, snapshot, actual))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageStartingWith("Query plans switched to a full scan")
+                .hasMessageContaining("new full scans of [PUBLIC.DB_ADDRESS]");
+    }
+
+    @Test
+    void explainFailed(@TempDir Path dir) {
+        var sqls = List.of(new QueryPlans.Sql("SELECT", ListenerSpec.class.getName(), "unknown",
+                "SELECT unknown_column FROM db_customers"));
+        var snapshot = dir.resolve("plans.txt");
+        assertThatThrownBy(() -> QueryPlans.assertNoFullScanRegression(db.getConnection(), sqls, snapshot, dir.resolve("plans.txt.actual")))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageStartingWith("SQL cannot be explained")
+                .hasMessageContaining(ListenerSpec.class.getName() + ".unknown: SELECT unknown_column FROM db_customers\nEXPLAIN failed: 42S22");
+        assertThat(snapshot).doesNotExist();
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcListener;
+import io.kaumei.jdbc.JdbcRepeatedQueryDetector;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RepeatedQueryTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final static Logger LOGGER = Logger.getLogger(JdbcRepeatedQueryDetector.LOGGER);
+    private final static String COUNT = "SELECT count(*) FROM db_customers";
+
+    private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel() == Level.WARNING) {
+                records.add(record);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private final JdbcRepeatedQueryDetector detector = new JdbcRepeatedQueryDetector(3);
+    private ListenerSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        LOGGER.addHandler(handler);
+        service = new ListenerSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return db.getConnection();
+            }
+
+            @Override
+            public @Nullable JdbcListener listener() {
+                return detector;
+            }
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        LOGGER.removeHandler(handler);
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void repeatedInScope() {
+        detector.run(() -> {
+            for (int i = 0; i < 5; i++) {
+                service.count();
+            }
+            assertThat(detector.count(COUNT)).isEqualTo(5);
+        });
+        // reported once, when the threshold is reached
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.getMessage())
+                    .startsWith("Repeated query ListenerSpec.count executed 3 times in one scope, sql: " + COUNT)
+                    .contains("IN (:values)");
+            assertThat(record.getThrown().getStackTrace())
+                    .anyMatch(e -> e.getClassName().equals(RepeatedQueryTest.class.getName()));
+        });
+    }
+
+    @Test
+    void belowThreshold() {
+        var result = detector.call(() -> {
+            service.count();
+            service.list();
+            return service.count();
+        });
+        assertThat(result).isZero();
+        assertThat(records).isEmpty();
+    }
+
+    @Test
+    void scopesAreSeparate() {
+        for (int i = 0; i < 2; i++) {
+            detector.run(() -> {
+                service.count();
+                service.count();
+            });
+        }
+        assertThat(records).isEmpty();
+    }
+
+    @Test
+    void outsideOfScope() {
+        for (int i = 0; i < 5; i++) {
+            service.count();
+        }
+        assertThat(detector.count(COUNT)).isZero();
+        assertThat(records).isEmpty();
+    }
+
+    @Test
+    void invalidThreshold() {
+        assertThatThrownBy(() -> new JdbcRepeatedQueryDetector(1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("threshold must be at least 2: 1");
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+}
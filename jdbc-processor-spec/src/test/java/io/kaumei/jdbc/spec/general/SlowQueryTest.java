@@ -0,0 +1,218 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.annotation.config.JdbcSlowQuery;
+import io.kaumei.jdbc.annotation.config.JdbcSlowQueryExplain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
+import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowQueryTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final static Logger LOGGER = Logger.getLogger("io.kaumei.jdbc.SlowQuery");
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel() == Level.WARNING) {
+                messages.add(record.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private SlowQuerySpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        LOGGER.addHandler(handler);
+        service = new SlowQuerySpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() {
+                return db.getConnection();
+            }
+
+            @Override
+            public DataSource ownedConnections() {
+                return db.dataSource();
+            }
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        LOGGER.removeHandler(handler);
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void update() {
+        service.insert("a");
+        assertThat(messages).singleElement().asString()
+                .startsWith("Slow query SlowQuerySpec.insert took ")
+                .contains("rows: 1")
+                .contains("sql: INSERT INTO db_customers (name, pricing_plan) VALUES (?, 'FREE')")
+                .endsWith("parameters: [name=a]");
+    }
+
+    @Test
+    void select() {
+        service.insert("a");
+        service.insert("b");
+        messages.clear();
+        assertThat(service.list(List.of("a", "b"), "c")).containsExactly("a", "b");
+        assertThat(messages).singleElement().asString()
+                .contains("rows: 2")
+                .endsWith("parameters: [names=[a, b], name=c]");
+        assertSource(SlowQuerySpecJdbc.class)
+                .hasClass("SlowQuerySpecJdbc")
+                .hasMethod("list")
+                .bodyContains("JdbcProbe.start(supplier, SlowQuerySpec.class, \"list\", 0)")
+                .bodyContains("if (JdbcProbe.capture(probe_jdbc))")
+                .bodyContains("probe_jdbc.parameters(\"names,name\", new Object[]{names, name})");
+    }
+
+    @Test
+    void parameter() {
+        assertThat(service.countParameter(0, "a")).isZero();
+        assertThat(messages).singleElement().asString()
+                .contains("sql: SELECT count(*) FROM db_customers WHERE name = ?")
+                .endsWith("parameters: [name=a]");
+
+        messages.clear();
+        assertThat(service.countParameter(60_000, "a")).isZero();
+        assertThat(messages).isEmpty();
+
+        kaumeiThrows(() -> service.countParameter(-1, "a"))
+                .illegalArgumentException("Invalid value for threshold");
+    }
+
+    @Test
+    void parameterFormat() {
+        assertThat(service.countArray(new String[]{"a", "b"}, "x".repeat(120))).isZero();
+        assertThat(messages).singleElement().asString()
+                .endsWith("parameters: [names=[a, b], name=" + "x".repeat(100) + "...]");
+        assertSource(SlowQuerySpecJdbc.class)
+                .hasClass("SlowQuerySpecJdbc")
+                .hasMethod("countArray")
+                .bodyContains("probe_jdbc.parameters(\"names,name\", new Object[]{names, name})");
+    }
+
+    @Test
+    void withoutThreshold() {
+        assertThat(service.count("a")).isZero();
+        assertThat(messages).isEmpty();
+        assertSource(SlowQuerySpecJdbc.class)
+                .hasClass("SlowQuerySpecJdbc")
+                .hasMethod("count")
+                .bodyContains("JdbcProbe.start(supplier, SlowQuerySpec.class, \"count\")")
+                .bodyDoesNotContain("JdbcProbe.capture");
+    }
+
+    @Test
+    void invalidSlowQueryMethod() {
+        kaumeiThrows(() -> service.invalidSlowQueryMethod())
+                .unusedMethodAnnotations(JdbcSlowQuery.class);
+    }
+
+    @Test
+    void explain() throws Exception {
+        service.insert("a");
+        messages.clear();
+        assertThat(service.explain(List.of("a", "b"))).containsExactly("a");
+        awaitMessages(2);
+        assertThat(messages).hasSize(2);
+        assertThat(messages.get(0)).endsWith("parameters: [names=[a, b]]");
+        assertThat(messages.get(1))
+                .startsWith("Plan of slow query SlowQuerySpec.explain, sql: SELECT name FROM db_customers")
+                .contains(", plan:\n")
+                .containsIgnoringCase("db_customers");
+        // the plan uses an owned connection, the connection of the provider stays open
+        assertThat(db.getConnection().isClosed()).isFalse();
+        assertSource(SlowQuerySpecJdbc.class)
+                .hasClass("SlowQuerySpecJdbc")
+                .hasMethod("explain")
+                .bodyContains("JdbcProbe.explain(probe_jdbc, supplier.prepareStatement(con, sql), 0)");
+    }
+
+    @Test
+    void explainWithoutOwnedConnections() throws Exception {
+        var plain = new SlowQuerySpecJdbc(db::getConnection);
+        assertThat(plain.explain(List.of("x", "y"))).isEmpty();
+        awaitMessages(2);
+        assertThat(messages).hasSize(2);
+        assertThat(messages.get(1))
+                .endsWith("plan:\nEXPLAIN not possible without JdbcConnectionProvider.ownedConnections()");
+        assertThat(db.getConnection().isClosed()).isFalse();
+    }
+
+    @Test
+    void explainRateLimited() throws InterruptedException {
+        service.explainRateLimited("a");
+        service.explainRateLimited("b");
+        awaitMessages(3);
+        // the same SQL is explained once per interval
+        assertThat(messages).hasSize(3);
+        assertThat(messages).filteredOn(m -> m.startsWith("Slow query ")).hasSize(2);
+        assertThat(messages).filteredOn(m -> m.startsWith("Plan of slow query ")).hasSize(1);
+    }
+
+    @Test
+    void explainWithoutThreshold() {
+        assertSource(SlowQuerySpecJdbc.class)
+                .hasClass("SlowQuerySpecJdbc")
+                .hasMethod("count")
+                .bodyDoesNotContain("JdbcProbe.explain");
+    }
+
+    @Test
+    void invalidExplainUpdate() {
+        kaumeiThrows(() -> service.invalidExplainUpdate("a"))
+                .unusedMethodAnnotations(JdbcSlowQueryExplain.class);
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    /**
+     * The plan is logged by the executor of the provider.
+     */
+    private void awaitMessages(int count) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (messages.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcStatementCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StatementCacheTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private JdbcStatementCache cache;
+    private StatementCacheSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new JdbcStatementCache(db::getConnection, 2);
+        service = new StatementCacheSpecJdbc(cache);
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        cache.close();
+    }
+
+    @Test
+    void reuseStatement() {
+        assertThat(service.insert("a")).isEqualTo(1);
+        assertThat(service.insert("b")).isEqualTo(1);
+        assertThat(service.insert("c")).isEqualTo(1);
+        assertThat(service.count()).isEqualTo(3);
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void statementInUseIsNotShared() {
+        service.insert("a");
+        service.insert("b");
+        try (var stream = service.stream()) {
+            var iter = stream.iterator();
+            assertThat(iter.next()).isEqualTo("a");
+            try (var inner = service.stream()) {
+                assertThat(inner).containsExactly("a", "b");
+            }
+            assertThat(iter.next()).isEqualTo("b");
+        }
+        try (var stream = service.stream()) {
+            assertThat(stream).containsExactly("a", "b");
+        }
+        // insert: miss + hit, outer stream: miss, inner stream: uncached miss, last stream: hit
+        assertThat(cache.misses()).isEqualTo(3);
+        assertThat(cache.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void settingsAreReset() {
+        service.insert("a");
+        service.insert("b");
+        assertThat(service.listOne()).containsExactly("a");
+        assertThat(service.listAll()).containsExactly("a", "b");
+        assertThat(cache.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void pendingBatchIsCleared() throws SQLException {
+        var con = db.getConnection();
+        var sql = "INSERT INTO db_customers (name, pricing_plan) VALUES (?, 'FREE')";
+        try (var stmt = cache.prepareStatement(con, sql)) {
+            // released without executeBatch, e.g. after an exception
+            stmt.setString(1, "lost");
+            stmt.addBatch();
+        }
+        try (var stmt = cache.prepareStatement(con, sql)) {
+            stmt.setString(1, "a");
+            stmt.addBatch();
+            assertThat(stmt.executeBatch()).containsExactly(1);
+        }
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(service.listAll()).containsExactly("a");
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        service.insert("a");
+        service.count();
+        service.listAll();
+        assertThat(cache.misses()).isEqualTo(3);
+        service.count();
+        service.listAll();
+        assertThat(cache.hits()).isEqualTo(2);
+        service.insert("b");
+        assertThat(cache.misses()).isEqualTo(4);
+    }
+
+    @Test
+    void closedStatementCanNotBeUsed() throws SQLException {
+        var con = db.getConnection();
+        var stmt = cache.prepareStatement(con, "SELECT 1");
+        stmt.close();
+        assertThat(stmt.isClosed()).isTrue();
+        assertThatThrownBy(stmt::executeQuery)
+                .isInstanceOf(SQLException.class)
+                .hasMessage("Statement is closed");
+        stmt.close(); // close twice is allowed
+    }
+
+    @Test
+    void invalidateConnection() throws SQLException {
+        service.insert("a");
+        cache.invalidate(db.getConnection());
+        service.insert("b");
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.hits()).isEqualTo(0);
+    }
+
+    @Test
+    void closedConnection() throws SQLException {
+        service.insert("a");
+        db.getConnection().close();
+        service.insert("b");
+        assertThat(service.count()).isEqualTo(2);
+        assertThat(cache.misses()).isEqualTo(3);
+    }
+}
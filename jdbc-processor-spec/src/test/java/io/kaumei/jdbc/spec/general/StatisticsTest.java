@@ -0,0 +1,140 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.general;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import io.kaumei.jdbc.JdbcListener;
+import io.kaumei.jdbc.JdbcStatistics;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StatisticsTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final JdbcStatistics statistics = new JdbcStatistics();
+    private ListenerSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        service = new ListenerSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return db.getConnection();
+            }
+
+            @Override
+            public @Nullable JdbcListener listener() {
+                return statistics;
+            }
+        });
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void snapshot() {
+        service.insert("a");
+        service.insert("b");
+        assertThat(service.list()).containsExactly("a", "b");
+        assertThatThrownBy(() -> service.insert("x".repeat(300)))
+                .isInstanceOf(JdbcException.class);
+
+        assertThat(statistics.snapshot()).hasSize(2);
+        var insert = statistics.snapshot().get(0);
+        assertThat(insert.type()).isEqualTo(ListenerSpec.class);
+        assertThat(insert.method()).isEqualTo("insert");
+        assertThat(insert.calls()).isEqualTo(3);
+        assertThat(insert.errors()).isEqualTo(1);
+        assertThat(insert.rows()).isEqualTo(2);
+        assertThat(insert.minNanos()).isPositive().isLessThanOrEqualTo(insert.maxNanos());
+        assertThat(insert.totalNanos()).isGreaterThanOrEqualTo(insert.maxNanos());
+        assertThat(insert.buckets()).hasSize(JdbcStatistics.BUCKET_BOUNDS.size() + 1);
+        assertThat(insert.buckets().stream().mapToLong(Long::longValue).sum()).isEqualTo(3);
+
+        var list = statistics.snapshot().get(1);
+        assertThat(list.method()).isEqualTo("list");
+        assertThat(list.calls()).isEqualTo(1);
+        assertThat(list.rows()).isEqualTo(2);
+
+        statistics.reset();
+        assertThat(statistics.snapshot()).isEmpty();
+    }
+
+    @Test
+    void concurrent() throws Exception {
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> service.count());
+            }
+        }
+        assertThat(statistics.snapshot()).singleElement()
+                .satisfies(e -> assertThat(e.calls()).isEqualTo(200))
+                .satisfies(e -> assertThat(e.rows()).isEqualTo(200));
+    }
+
+    @Test
+    void prometheus() {
+        service.insert("a");
+        var text = statistics.toPrometheus();
+        var labels = "type=\"io.kaumei.jdbc.spec.general.ListenerSpec\",method=\"insert\"";
+        assertThat(text)
+                .contains("# TYPE kaumei_jdbc_call_seconds histogram\n")
+                .contains("kaumei_jdbc_call_seconds_bucket{" + labels + ",le=\"1.0E-4\"} ")
+                .contains("kaumei_jdbc_call_seconds_bucket{" + labels + ",le=\"+Inf\"} 1\n")
+                .contains("kaumei_jdbc_call_seconds_count{" + labels + "} 1\n")
+                .contains("kaumei_jdbc_call_errors_total{" + labels + "} 0\n")
+                .contains("kaumei_jdbc_call_rows_total{" + labels + "} 1\n")
+                .doesNotContain("sql=");
+    }
+
+    @Test
+    void expandedCollectionsShareOneEntry() {
+        for (int i = 1; i <= 20; i++) {
+            assertThat(service.countIn(Collections.nCopies(i, "a"))).isZero();
+        }
+        assertThat(statistics.snapshot()).singleElement()
+                .satisfies(e -> assertThat(e.method()).isEqualTo("countIn"))
+                .satisfies(e -> assertThat(e.calls()).isEqualTo(20));
+    }
+
+    @Test
+    void httpServer() throws Exception {
+        service.count();
+        var server = statistics.startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try (var client = HttpClient.newHttpClient()) {
+            var uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/metrics");
+            var response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Type")).contains("text/plain; version=0.0.4; charset=utf-8");
+            assertThat(response.body()).contains("method=\"count\"");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
 import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
 import static io.kaumei.jdbc.spec.jdbc2java.RowFromObjectsSpec.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,6 +62,90 @@ class RowFromObjectsSpecTest {
                 .annotationProcessError("@JdbcSelect incompatible: THROW_EXCEPTION and 'Optional<.>'");
     }
 
+    @Test
+    void stringIntList() {
+        db.executeSqls(
+                "INSERT INTO db_types (col_varchar,col_int) VALUES(null,     1)",
+                "INSERT INTO db_types (col_varchar,col_int) VALUES('foobar', 2)");
+        // when ... then
+        assertThat(service.stringIntList()).containsExactly(new StringInt2(null, 1), new StringInt2("foobar", 2));
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("stringIntList")
+                .bodyContains("index_jdbc0 = resultSet.findColumn(\"value1\")")
+                .bodyContains("index_jdbc1 = resultSet.findColumn(\"value2\")");
+        // and a null value names the column
+        db.executeSqls("INSERT INTO db_types (col_varchar,col_int) VALUES('foobar', null)");
+        kaumeiThrows(() -> service.stringIntList())
+                .resultColumnWasNullOnName("value2");
+    }
+
+    @Test
+    void stringIntStream() {
+        db.executeSqls(
+                "INSERT INTO db_types (col_varchar,col_int) VALUES(null,     1)",
+                "INSERT INTO db_types (col_varchar,col_int) VALUES('foobar', 2)");
+        // when ... then
+        try (var stream = service.stringIntStream()) {
+            assertThat(stream).containsExactly(new StringInt2(null, 1), new StringInt2("foobar", 2));
+        }
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("stringIntStream")
+                .bodyContains("index_jdbc0 = resultSet.findColumn(\"value1\")")
+                .bodyContains("index_jdbc1 = resultSet.findColumn(\"value2\")");
+    }
+
+    @Test
+    void stringIntByOrdinal() {
+        assertThat(service.stringIntByOrdinal("foobar", 1)).isEqualTo(new StringInt2("foobar", 1));
+        kaumeiThrows(() -> service.stringIntByOrdinal("foobar", null))
+                .resultColumnWasNullOnName("value2");
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("stringIntByOrdinal")
+                .bodyContains("rs.getString(1)")
+                .bodyContains("rs.getInt(2)")
+                .bodyDoesNotContain("findColumn");
+    }
+
+    @Test
+    void stringIntListByOrdinal() {
+        db.executeSqls(
+                "INSERT INTO db_types (col_varchar,col_int) VALUES(null,     1)",
+                "INSERT INTO db_types (col_varchar,col_int) VALUES('foobar', 2)");
+        // when ... then
+        assertThat(service.stringIntListByOrdinal()).containsExactly(new StringInt2(null, 1), new StringInt2("foobar", 2));
+        try (var stream = service.stringIntStreamByOrdinal()) {
+            assertThat(stream).containsExactly(new StringInt2(null, 1), new StringInt2("foobar", 2));
+        }
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("stringIntListByOrdinal")
+                .bodyContains("rs.getInt(1)")
+                .bodyContains("rs.getString(2)")
+                .bodyDoesNotContain("findColumn");
+    }
+
+    @Test
+    void stringIntListByOrdinalSelectAll() {
+        db.executeSqls(
+                "INSERT INTO db_types (col_varchar,col_int) VALUES(null,     1)",
+                "INSERT INTO db_types (col_varchar,col_int) VALUES('foobar', 2)");
+        // when ... then
+        assertThat(service.stringIntListByOrdinalSelectAll()).containsExactly(new StringInt2(null, 1), new StringInt2("foobar", 2));
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("stringIntListByOrdinalSelectAll")
+                .bodyContains("resultSet.findColumn(\"value1\")");
+    }
+
+    @Test
+    void stringIntListByOrdinalInvalid() {
+        kaumeiThrows(() -> service.stringIntListByOrdinalInvalid())
+                .annotationProcessError("Column 'value2' not found in select list: \\[value1, value3\\]");
+    }
+
     // ------------------------------------------------------------------------
     @Test
     void stringIntNullable() {
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.select;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.spec.db.DbAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Spliterator;
+
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
+import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SelectPrimitiveSpecTest {
+
+    static final String EMPTY = DbAddress.UNKNOWN.city();
+    static final String NO_NULLS = DbAddress.HAMBURG_1.city();
+    static final String WITH_NULLS = DbAddress.BERLIN_1.city();
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private SelectPrimitiveSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        DbAddress.init(db.dataSource());
+        service = new SelectPrimitiveSpecJdbc(db::getConnection);
+    }
+
+    // @part:spec -------------------------------------------------------------
+    @Test
+    void longArray() {
+        assertThat(service.longArray()).containsExactly(DbAddress.ALL_ID_ARRAY);
+        assertThat(service.longArrayByCity(EMPTY)).isEmpty();
+        assertThat(service.longArrayByCity(WITH_NULLS)).containsExactly(DbAddress.BERLIN_ID_ARRAY);
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("longArray")
+                .bodyContains("ResultSetUtils.toLongArray(resultSet, 0, ")
+                .bodyContains("rs.getLong(1)");
+    }
+
+    @Test
+    void intArray() {
+        assertThat(service.intArray(EMPTY)).isEmpty();
+        assertThat(service.intArray(NO_NULLS)).containsExactly(930, 800, 600);
+        kaumeiThrows(() -> service.intArray(WITH_NULLS))
+                .resultColumnWasNullOnIndex("1");
+    }
+
+    @Test
+    void doubleArray() {
+        assertThat(service.doubleArray(EMPTY)).isEmpty();
+        assertThat(service.doubleArray(NO_NULLS)).containsExactly(93.0, 80.0, 60.0);
+        kaumeiThrows(() -> service.doubleArray(WITH_NULLS))
+                .resultColumnWasNullOnIndex("1");
+    }
+
+    @Test
+    void longArrayCapacityHint() {
+        assertThat(service.longArrayMaxRows()).containsExactly(0L, 1L);
+        assertThat(service.longArrayFetchSize()).containsExactly(DbAddress.ALL_ID_ARRAY);
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("longArrayMaxRows")
+                .bodyContains("ResultSetUtils.toLongArray(resultSet, ResultSetUtils.limitCapacityHint(2), ");
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("longArrayFetchSize")
+                .bodyContains("ResultSetUtils.toLongArray(resultSet, ResultSetUtils.limitCapacityHint(3), ");
+    }
+
+    @Test
+    void invalidStringArray() {
+        kaumeiThrows(() -> service.invalidStringArray())
+                .returnTypNotSupported("java.lang.String\\[\\]", "only int\\[\\], long\\[\\] and double\\[\\] are supported");
+    }
+
+    // ------------------------------------------------------------------------
+    @Test
+    void longStream() {
+        try (var stream = service.longStream()) {
+            assertThat(stream.toArray()).containsExactly(DbAddress.ALL_ID_ARRAY);
+        }
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("longStream")
+                .bodyContains("ResultSetUtils.toLongStream(stmt, resultSet, probe_jdbc, ");
+    }
+
+    @Test
+    void parallelStreamsAreOrdered() {
+        try (var stream = service.longStream()) {
+            assertThat(stream.spliterator().hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        }
+        try (var stream = service.intStream(NO_NULLS)) {
+            assertThat(stream.spliterator().hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        }
+        try (var stream = service.doubleStream(NO_NULLS)) {
+            assertThat(stream.spliterator().hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        }
+        try (var stream = service.longStream()) {
+            assertThat(stream.parallel().limit(3).toArray())
+                    .containsExactly(DbAddress.ALL_ID_ARRAY[0], DbAddress.ALL_ID_ARRAY[1], DbAddress.ALL_ID_ARRAY[2]);
+        }
+        try (var stream = service.intStream(NO_NULLS)) {
+            assertThat(stream.parallel().findFirst()).hasValue(930);
+        }
+    }
+
+    @Test
+    void intStream() {
+        try (var stream = service.intStream(NO_NULLS)) {
+            assertThat(stream.sum()).isEqualTo(930 + 800 + 600);
+        }
+        try (var stream = service.intStream(EMPTY)) {
+            assertThat(stream.toArray()).isEmpty();
+        }
+        try (var stream = service.intStream(WITH_NULLS)) {
+            kaumeiThrows(stream::toArray)
+                    .resultColumnWasNullOnIndex("1");
+        }
+    }
+
+    @Test
+    void doubleStream() {
+        try (var stream = service.doubleStream(NO_NULLS)) {
+            assertThat(stream.toArray()).containsExactly(93.0, 80.0, 60.0);
+        }
+    }
+
+}
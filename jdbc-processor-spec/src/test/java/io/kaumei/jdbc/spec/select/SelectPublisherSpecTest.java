@@ -0,0 +1,249 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.select;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import io.kaumei.jdbc.spec.db.DbAddress;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
+import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
+import static io.kaumei.jdbc.spec.select.SelectListSpecTest.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.Objects.requireNonNull;
+
+class SelectPublisherSpecTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension();
+
+    private final List<PreparedStatement> statements = new ArrayList<>();
+    private SelectPublisherSpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        DbAddress.init(db.dataSource());
+        service = new SelectPublisherSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return db.getConnection();
+            }
+
+            @Override
+            public PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+                var stmt = con.prepareStatement(sql);
+                statements.add(stmt);
+                return stmt;
+            }
+        });
+    }
+
+    /**
+     * Requests {@code batch} rows on subscribe and after the last row of each batch, 0 requests nothing.
+     */
+    static class TestSubscriber<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        final long batch;
+        final int cancelAfter;
+        Flow.@Nullable Subscription subscription;
+        @Nullable Throwable error;
+        boolean completed;
+
+        TestSubscriber(long batch, int cancelAfter) {
+            this.batch = batch;
+            this.cancelAfter = cancelAfter;
+        }
+
+        TestSubscriber(long batch) {
+            this(batch, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (this.batch != 0) {
+                subscription.request(this.batch);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            this.items.add(item);
+            if (this.items.size() == this.cancelAfter) {
+                this.subscription.cancel();
+            } else if (this.batch != 0 && this.items.size() % this.batch == 0) {
+                this.subscription.request(this.batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+
+    // @part:spec -------------------------------------------------------------
+    @Test
+    void columnUnspecific() {
+        var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+        service.columnUnspecific(NO_NULLS).subscribe(subscriber);
+        assertThat(subscriber.items).containsExactly(NO_NULLS_STRING);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(subscriber.error).isNull();
+
+        subscriber = new TestSubscriber<>(Long.MAX_VALUE);
+        service.columnUnspecific(EMPTY).subscribe(subscriber);
+        assertThat(subscriber.items).isEmpty();
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    void columnOptional() {
+        var subscriber = new TestSubscriber<Optional<String>>(1);
+        service.columnOptional(WITH_NULLS).subscribe(subscriber);
+        assertThat(subscriber.items).containsExactly(WITH_NULLS_STRING_OPTIONAL);
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    void rowUnspecific() {
+        var subscriber = new TestSubscriber<DbAddress>(2);
+        service.rowUnspecific(NO_NULLS).subscribe(subscriber);
+        assertThat(subscriber.items).containsExactly(NO_NULLS_ADDRESS);
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    void queryIsExecutedOnFirstRequest() {
+        var publisher = service.columnUnspecific(NO_NULLS);
+        assertThat(statements).isEmpty();
+        var subscriber = new TestSubscriber<String>(0);
+        publisher.subscribe(subscriber);
+        assertThat(statements).isEmpty();
+        subscriber.subscription.request(1);
+        assertThat(statements).hasSize(1);
+        assertThat(subscriber.items).containsExactly(NO_NULLS_STRING[0]);
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void demandIsFetchSize() throws SQLException {
+        var subscriber = new TestSubscriber<String>(0);
+        service.columnUnspecific(NO_NULLS).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        assertThat(statements.getFirst().getFetchSize()).isEqualTo(64);
+        // a small demand uses the minimal fetch size, a large one the maximal
+        assertThat(fetchSizeOnFirstRow(100)).isEqualTo(100);
+        assertThat(fetchSizeOnFirstRow(Long.MAX_VALUE)).isEqualTo(1024);
+        assertSource(service.getClass())
+                .hasClass("SelectPublisherSpecJdbc")
+                .hasMethod("columnUnspecific")
+                .bodyContains("stmt.setFetchSize(fetchSize_jdbc)");
+        assertSource(service.getClass())
+                .hasClass("SelectPublisherSpecJdbc")
+                .hasMethod("columnWithFetchSize")
+                .bodyContains("stmt.setFetchSize(2)")
+                .bodyDoesNotContain("stmt.setFetchSize(fetchSize_jdbc)");
+    }
+
+    @Test
+    void closeOnComplete() throws SQLException {
+        var subscriber = new TestSubscriber<String>(1);
+        service.columnWithFetchSize(NO_NULLS).subscribe(subscriber);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(statements.getFirst().isClosed()).isTrue();
+    }
+
+    @Test
+    void closeOnCancel() throws SQLException {
+        var subscriber = new TestSubscriber<String>(1, 2);
+        service.columnUnspecific(NO_NULLS).subscribe(subscriber);
+        assertThat(subscriber.items).containsExactly(NO_NULLS_STRING[0], NO_NULLS_STRING[1]);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(statements.getFirst().isClosed()).isTrue();
+    }
+
+    @Test
+    void closeOnError() {
+        var subscriber = new TestSubscriber<String>(1);
+        service.invalidSql().subscribe(subscriber);
+        assertThat(subscriber.error).isInstanceOf(JdbcException.class);
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void invalidRequest() throws SQLException {
+        var subscriber = new TestSubscriber<String>(0);
+        service.columnUnspecific(NO_NULLS).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.request(0);
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(statements.getFirst().isClosed()).isTrue();
+    }
+
+    // ------------------------------------------------------------------------
+    @Test
+    void invalidColumnNullable() {
+        kaumeiThrows(() -> service.invalidColumnNullable(NO_NULLS))
+                .annotationProcessError("Component of Flow.Publisher must be 'non-null' or 'unspecific'");
+    }
+    // @part:spec -------------------------------------------------------------
+
+    /**
+     * @return the fetch size of the statement while the first row is published, the statement is closed afterward
+     */
+    private int fetchSizeOnFirstRow(long demand) {
+        var fetchSize = new int[1];
+        service.columnUnspecific(NO_NULLS).subscribe(new Flow.Subscriber<>() {
+            Flow.@Nullable Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(demand);
+            }
+
+            @Override
+            public void onNext(String item) {
+                if (fetchSize[0] == 0) {
+                    try {
+                        fetchSize[0] = statements.getLast().getFetchSize();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    requireNonNull(this.subscription).cancel();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return fetchSize[0];
+    }
+}
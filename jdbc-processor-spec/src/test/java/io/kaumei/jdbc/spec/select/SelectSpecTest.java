@@ -17,6 +17,7 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import static io.kaumei.jdbc.KaumeiAssert.assertSource;
 import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SelectSpecTest {
 
@@ -174,6 +175,49 @@ class SelectSpecTest {
                 .bodyContains("stmt.setMaxRows(10)");
     }
 
+    // ------------------------------------------------------------------------
+    @Test
+    void selectJdbcExpectedRowsMethod() {
+        kaumeiThrows(() -> service.selectJdbcExpectedRowsMethod(CITY))
+                .unusedMethodAnnotations(JdbcExpectedRows.class);
+    }
+
+    @Test
+    void selectListJdbcExpectedRowsMethod() {
+        var list = service.selectListJdbcExpectedRowsMethod(CITY);
+        assertThat(list).hasSize(3);
+        assertThatThrownBy(() -> list.add(DbAddress.NULL)).isInstanceOf(UnsupportedOperationException.class);
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("selectListJdbcExpectedRowsMethod")
+                .bodyContains("ResultSetUtils.toList(resultSet, 3, ");
+    }
+
+    @Test
+    void selectListJdbcExpectedRowsParameter() {
+        assertThat(service.selectListJdbcExpectedRowsParameter(CITY, 1)).hasSize(3);
+        assertThat(service.selectListJdbcExpectedRowsParameter(CITY, 0)).hasSize(3);
+        var large = service.selectListJdbcExpectedRowsParameter(CITY, 100_000);
+        assertThat(large).hasSize(3).isEqualTo(service.selectListJdbcExpectedRowsParameter(CITY, 3));
+        assertThat(large.toArray()).hasSize(3);
+        assertThatThrownBy(() -> large.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        // the hint is capped, it allocates no array of this size
+        assertThat(service.selectListJdbcExpectedRowsParameter(CITY, Integer.MAX_VALUE)).hasSize(3);
+        assertThatThrownBy(() -> service.selectListJdbcExpectedRowsParameter(CITY, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid value for expectedRows: -1");
+        assertSource(service.getClass())
+                .hasClass(service.getClass().getSimpleName())
+                .hasMethod("selectListJdbcExpectedRowsParameter")
+                .bodyContains("ResultSetUtils.toList(resultSet, expectedRows, ");
+    }
+
+    @Test
+    void selectStreamJdbcExpectedRowsMethod() {
+        kaumeiThrows(() -> service.selectStreamJdbcExpectedRowsMethod(CITY))
+                .unusedMethodAnnotations(JdbcExpectedRows.class);
+    }
+
     // @part:spec -------------------------------------------------------------
 
 }
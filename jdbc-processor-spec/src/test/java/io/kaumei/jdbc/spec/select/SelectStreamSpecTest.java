@@ -15,10 +15,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.util.Spliterator;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static io.kaumei.jdbc.KaumeiAssert.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static io.kaumei.jdbc.spec.select.SelectListSpecTest.*;
 
 class SelectStreamSpecTest {
@@ -128,6 +132,44 @@ class SelectStreamSpecTest {
                 .unusedMethodAnnotations(JdbcNoMoreRows.class);
     }
 
+    // ------------------------------------------------------------------------
+    @Test
+    void parallel() {
+        var expected = IntStream.rangeClosed(1, 5000).map(i -> i * 2).boxed().toList();
+        try (var stream = service.numbers(5000)) {
+            assertThat(stream.parallel().map(i -> i * 2).toList()).isEqualTo(expected);
+        }
+        try (var stream = service.numbersWithFetchSize(5000)) {
+            assertThat(stream.parallel().mapToLong(i -> i).sum()).isEqualTo(5000L * 5001 / 2);
+        }
+    }
+
+    @Test
+    void parallelSplitsByFetchSize() {
+        try (var stream = service.numbersWithFetchSize(250)) {
+            var split = stream.spliterator();
+            assertThat(split.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+            var chunk1 = split.trySplit();
+            var chunk2 = split.trySplit();
+            var chunk3 = split.trySplit();
+            assertThat(chunk1.estimateSize()).isEqualTo(100);
+            assertThat(chunk2.estimateSize()).isEqualTo(100);
+            assertThat(chunk3.estimateSize()).isEqualTo(50);
+            assertThat(split.trySplit()).isNull();
+            assertThat(split.estimateSize()).isZero();
+            chunk2.tryAdvance(i -> assertThat(i).isEqualTo(101));
+        }
+    }
+
+    @Test
+    void parallelClose() {
+        var stream = service.numbers(10).parallel();
+        var closed = new boolean[1];
+        stream.onClose(() -> closed[0] = true).close();
+        assertThat(closed[0]).isTrue();
+        assertThatThrownBy(() -> stream.toList()).isInstanceOf(IllegalStateException.class);
+    }
+
     // @part:spec -------------------------------------------------------------
 
 }
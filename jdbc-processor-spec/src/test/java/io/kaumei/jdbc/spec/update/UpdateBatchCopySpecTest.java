@@ -0,0 +1,78 @@
+/*
+ * SPDX-FileCopyrightText: 2025 kaumei.io
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.kaumei.jdbc.spec.update;
+
+import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcTestOnPostgreSql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTestOnPostgreSql
+class UpdateBatchCopySpecTest {
+
+    @RegisterExtension
+    final static DatasourceExtension db = new DatasourceExtension(DatasourceExtension.DBType.Postgres);
+
+    private UpdateBatchCopySpec service;
+
+    @BeforeEach
+    void beforeEach() {
+        service = new UpdateBatchCopySpecJdbc(db::getConnection);
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+    @Test
+    void copy() {
+        // given
+        var date = Date.valueOf(LocalDate.of(2024, 2, 29));
+        var time = Time.valueOf(LocalTime.of(13, 45, 7));
+        var timestamp = Timestamp.valueOf(LocalDateTime.of(2024, 2, 29, 13, 45, 7, 123_456_000));
+        var text = "tab\tnewline\nbackslash\\ \\N";
+        // when
+        try (var batch = service.copy()) {
+            batch.insert(1, new byte[]{0x00, 0x0a, (byte) 0xff}, true, date, 42, new BigDecimal("12.34500"),
+                    text, time, timestamp);
+            batch.insert(2, null, null, null, null, null, null, null, null);
+            assertThat(batch.countAll()).isEqualTo(2);
+            batch.insert(3, new byte[0], false, date, -1, BigDecimal.ZERO, "", time, timestamp);
+        }
+        // then
+        var rows = service.types();
+        assertThat(rows).hasSize(3);
+        var row = rows.getFirst();
+        assertThat(row.id()).isEqualTo(1);
+        assertThat(row.bytea()).containsExactly(0x00, 0x0a, 0xff);
+        assertThat(row.bool()).isTrue();
+        assertThat(row.date()).isEqualTo(date);
+        assertThat(row.number()).isEqualTo(42);
+        assertThat(row.numeric()).isEqualByComparingTo("12.345");
+        assertThat(row.text()).isEqualTo(text).contains("\t", "\n", "\\N");
+        assertThat(row.time()).isEqualTo(time);
+        assertThat(row.timestamp()).isEqualTo(timestamp);
+
+        assertThat(rows.get(1)).isEqualTo(new UpdateBatchCopySpec.Types(2, null, null, null, null, null, null, null, null));
+
+        row = rows.get(2);
+        assertThat(row.bytea()).isEmpty();
+        assertThat(row.bool()).isFalse();
+        assertThat(row.text()).isEmpty();
+    }
+
+    // @part:spec -------------------------------------------------------------
+
+}
@@ -6,15 +6,34 @@
 package io.kaumei.jdbc.spec.update;
 
 import io.kaumei.jdbc.DatasourceExtension;
+import io.kaumei.jdbc.JdbcBatch;
+import io.kaumei.jdbc.JdbcConnectionProvider;
+import io.kaumei.jdbc.JdbcException;
+import io.kaumei.jdbc.annotation.config.JdbcBatchBytes;
+import io.kaumei.jdbc.annotation.config.JdbcBatchLinger;
 import io.kaumei.jdbc.annotation.config.JdbcBatchSize;
 import io.kaumei.jdbc.annotation.config.JdbcQueryTimeout;
 import io.kaumei.jdbc.docs.SimpleExample;
+import io.kaumei.jdbc.spec.db.DbCustomer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static io.kaumei.jdbc.KaumeiAssert.assertSource;
 import static io.kaumei.jdbc.KaumeiAssert.kaumeiThrows;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class UpdateBatchSpecTest {
 
@@ -22,10 +41,22 @@ class UpdateBatchSpecTest {
     final static DatasourceExtension db = new DatasourceExtension();
 
     private UpdateBatchSpec service;
+    private UpdateBatchSpec owned;
 
     @BeforeEach
     void beforeEach() {
         service = new UpdateBatchSpecJdbc(db::getConnection);
+        owned = new UpdateBatchSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return db.getConnection();
+            }
+
+            @Override
+            public DataSource ownedConnections() {
+                return db.dataSource();
+            }
+        });
     }
 
     // @part:spec -------------------------------------------------------------
@@ -34,15 +65,27 @@ class UpdateBatchSpecTest {
     void batchUnspecific() {
         try (var batch = service.batchUnspecific()) {
             assertThat(batch.bachSize()).isEqualTo(1000);
+            assertThat(batch.batchBytes()).isEqualTo(-1);
+            assertThat(batch.batchLingerMillis()).isEqualTo(-1);
             assertThat(batch.countBatch()).isEqualTo(0);
             assertThat(batch.countAll()).isEqualTo(0);
+            assertThat(batch.lastFlushReason()).isNull();
 
             for (int i = 1; i < batch.bachSize(); i++) {
                 batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
             }
             assertThat(service.customers("a")).hasSize(0);
+            assertThat(batch.pendingBytes()).isEqualTo(0);
             batch.insertAndReturnVoid("a", 0, SimpleExample.PricingPlan.FREE);
             assertThat(service.customers("a")).hasSize(batch.bachSize());
+            assertThat(batch.lastFlushReason()).isEqualTo(JdbcBatch.FlushReason.BATCH_SIZE);
+            assertThat(batch.countFlushes(JdbcBatch.FlushReason.BATCH_SIZE)).isEqualTo(1);
+
+            batch.insertAndReturnVoid("a", 0, SimpleExample.PricingPlan.FREE);
+            batch.executeBatch();
+            assertThat(service.customers("a")).hasSize(batch.bachSize() + 1);
+            assertThat(batch.lastFlushReason()).isEqualTo(JdbcBatch.FlushReason.EXECUTE);
+            assertThat(batch.countFlushes(JdbcBatch.FlushReason.EXECUTE)).isEqualTo(1);
         }
     }
 
@@ -164,6 +207,510 @@ class UpdateBatchSpecTest {
                 .unusedMethodAnnotations(JdbcBatchSize.class);
     }
 
+    // ------------------------------------------------------------------------
+
+    @Test
+    void jdbcBatchBytesAnnotationMethod() {
+        try (var batch = service.jdbcBatchBytesAnnotationMethod()) {
+            assertThat(batch.batchBytes()).isEqualTo(64);
+            assertBatchBytes(batch);
+        }
+    }
+
+    @Test
+    void jdbcBatchBytesAnnotationParam() {
+        try (var batch = service.jdbcBatchBytesAnnotationParam(64)) {
+            assertThat(batch.batchBytes()).isEqualTo(64);
+            assertBatchBytes(batch);
+        }
+    }
+
+    private void assertBatchBytes(UpdateBatchSpec.BatchOne batch) {
+        batch.insertAndReturnVoid("a", 1, SimpleExample.PricingPlan.FREE);
+        var rowBytes = batch.pendingBytes();
+        assertThat(rowBytes).isBetween(1L, 63L);
+        var rows = (int) ((batch.batchBytes() + rowBytes - 1) / rowBytes);
+        for (int i = 2; i < rows; i++) {
+            batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+        }
+        assertThat(service.customers("a")).hasSize(0);
+        assertThat(batch.pendingBytes()).isEqualTo(rowBytes * (rows - 1));
+        batch.insertAndReturnVoid("a", 0, SimpleExample.PricingPlan.FREE);
+        assertThat(service.customers("a")).hasSize(rows);
+        assertThat(batch.pendingBytes()).isEqualTo(0);
+        assertThat(batch.lastFlushReason()).isEqualTo(JdbcBatch.FlushReason.BATCH_BYTES);
+        assertThat(batch.countFlushes(JdbcBatch.FlushReason.BATCH_BYTES)).isEqualTo(1);
+    }
+
+    @Test
+    void invalidJdbcBatchBytesWithoutValue() {
+        kaumeiThrows(() -> service.invalidJdbcBatchBytesWithoutValue())
+                .unusedMethodAnnotations(JdbcBatchBytes.class);
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    void jdbcBatchLingerAnnotationMethod() throws InterruptedException {
+        try (var batch = service.jdbcBatchLingerAnnotationMethod()) {
+            assertThat(batch.batchLingerMillis()).isEqualTo(50);
+            assertBatchLinger(batch);
+        }
+    }
+
+    @Test
+    void jdbcBatchLingerAnnotationParam() throws InterruptedException {
+        try (var batch = service.jdbcBatchLingerAnnotationParam(50)) {
+            assertThat(batch.batchLingerMillis()).isEqualTo(50);
+            assertBatchLinger(batch);
+        }
+    }
+
+    private void assertBatchLinger(UpdateBatchSpec.BatchOne batch) throws InterruptedException {
+        batch.insertAndReturnVoid("a", 1, SimpleExample.PricingPlan.FREE);
+        Thread.sleep(batch.batchLingerMillis() + 10);
+        assertThat(service.customers("a")).hasSize(0);
+        batch.insertAndReturnVoid("a", 2, SimpleExample.PricingPlan.FREE);
+        assertThat(service.customers("a")).hasSize(2);
+        assertThat(batch.countBatch()).isEqualTo(0);
+        assertThat(batch.lastFlushReason()).isEqualTo(JdbcBatch.FlushReason.LINGER);
+        assertThat(batch.countFlushes(JdbcBatch.FlushReason.LINGER)).isEqualTo(1);
+    }
+
+    @Test
+    void invalidJdbcBatchLingerWithoutValue() {
+        kaumeiThrows(() -> service.invalidJdbcBatchLingerWithoutValue())
+                .unusedMethodAnnotations(JdbcBatchLinger.class);
+    }
+
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    void multiRowInsert() {
+        var sqls = new ArrayList<String>();
+        service = new UpdateBatchSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() {
+                return db.getConnection();
+            }
+
+            @Override
+            public PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+                sqls.add(sql);
+                return con.prepareStatement(sql);
+            }
+        });
+        try (var batch = service.multiRowInsert()) {
+            assertThat(batch.bachSize()).isEqualTo(5);
+            for (int i = 1; i < batch.bachSize(); i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            assertThat(service.customers("a")).hasSize(0);
+            batch.insertAndReturnVoid("a", 0, SimpleExample.PricingPlan.FREE);
+            assertThat(service.customers("a")).hasSize(5);
+            for (int i = 0; i < 7; i++) {
+                batch.insertAndReturnVoid("b", i, SimpleExample.PricingPlan.PRO);
+            }
+            assertThat(batch.executeBatch()).containsOnly(1).hasSize(2);
+        }
+        assertThat(service.customers("a")).extracting(DbCustomer::budge).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+        assertThat(service.customers("b")).hasSize(7);
+        // one statement per row count: 5, 2
+        assertThat(sqls).filteredOn(sql -> sql.startsWith("INSERT"))
+                .extracting(sql -> sql.split("\\),\\(").length)
+                .containsExactly(5, 2);
+        assertSource(UpdateBatchSpecJdbc.class)
+                .hasClass("UpdateBatchSpecJdbc")
+                .hasMethod("multiRowInsert")
+                .bodyContains("new MultiRowInsert(supplier, con,");
+    }
+
+    @Test
+    void multiRowInsertParam() {
+        try (var batch = service.multiRowInsertParam(3)) {
+            for (int i = 0; i < 8; i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            assertThat(service.customers("a")).hasSize(6);
+        }
+        assertThat(service.customers("a")).hasSize(8);
+    }
+
+    @Test
+    void multiRowInsertError() {
+        var batch = service.multiRowInsertParam(8);
+        for (int i = 0; i < 7; i++) {
+            batch.insertAndReturnVoid(i == 5 ? "x".repeat(300) : "a", i, SimpleExample.PricingPlan.FREE);
+        }
+        // the chunks have 4, 2 and 1 rows, the second one fails
+        assertThatThrownBy(batch::executeBatch)
+                .isInstanceOf(JdbcException.class)
+                .cause().isInstanceOfSatisfying(BatchUpdateException.class,
+                        e -> assertThat(e.getUpdateCounts()).containsExactly(1, 1, 1, 1));
+        batch.close();
+        assertThat(service.customers("a")).hasSize(4);
+    }
+
+    @Test
+    void invalidMultiRowInsertUpdate() {
+        kaumeiThrows(() -> service.invalidMultiRowInsertUpdate())
+                .annotationProcessError("@JdbcBatchMode\\(MULTI_ROW_INSERT\\): SQL must be an INSERT with one VALUES row, which contains all parameters");
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    void copy() {
+        // H2 has no COPY, the batch falls back to a plain JDBC batch
+        try (var batch = service.copy()) {
+            assertThat(batch.bachSize()).isEqualTo(5);
+            for (int i = 1; i < batch.bachSize(); i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            assertThat(service.customers("a")).hasSize(0);
+            assertThat(batch.countBatch()).isEqualTo(4);
+            batch.insertAndReturnVoid("a", 0, SimpleExample.PricingPlan.FREE);
+            assertThat(service.customers("a")).hasSize(5);
+            assertThat(batch.countAll()).isEqualTo(5);
+            batch.insertAndReturnVoid("a", 5, SimpleExample.PricingPlan.FREE);
+        }
+        assertThat(service.customers("a")).hasSize(6);
+        assertSource(UpdateBatchSpecJdbc.class)
+                .hasClass("UpdateBatchSpecJdbc")
+                .hasMethod("copy")
+                .bodyContains("CopyInsert.prepare(supplier, con, \"COPY db_customers (name,budge,pricing_plan) FROM STDIN\",");
+    }
+
+    @Test
+    void invalidCopyUpdate() {
+        kaumeiThrows(() -> service.invalidCopyUpdate())
+                .annotationProcessError("@JdbcBatchMode\\(COPY\\): SQL must be an INSERT INTO table \\(columns\\) VALUES with one parameter per column");
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    void pipelined() {
+        try (var batch = owned.pipelined()) {
+            for (int i = 0; i < 12; i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            // the second batch is counted, when it is completed
+            assertThat(batch.countAll()).isIn(5, 10);
+            assertThat(batch.countBatch()).isEqualTo(2);
+            batch.executeBatch();
+            assertThat(batch.countAll()).isEqualTo(12);
+            assertThat(service.customers("a")).hasSize(12);
+            assertThat(batch.countFlushes(JdbcBatch.FlushReason.BATCH_SIZE)).isEqualTo(2);
+            batch.insertAndReturnVoid("a", 12, SimpleExample.PricingPlan.FREE);
+        }
+        assertThat(service.customers("a")).hasSize(13);
+        assertSource(UpdateBatchSpecJdbc.class)
+                .hasClass("UpdateBatchSpecJdbc")
+                .hasMethod("pipelined")
+                .bodyContains("new PipelinedStatement(supplier, \"INSERT");
+    }
+
+    @Test
+    void pipelinedOwnConnection() {
+        // the connection of the provider is never used, the batches are not part of its transaction
+        var pipelined = new UpdateBatchSpecJdbc(new JdbcConnectionProvider() {
+            @Override
+            public Connection getConnection() {
+                throw new UnsupportedOperationException("the provider connection is not used");
+            }
+
+            @Override
+            public DataSource ownedConnections() {
+                return db.dataSource();
+            }
+        });
+        try (var batch = pipelined.pipelined()) {
+            for (int i = 0; i < 7; i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+        }
+        assertThat(service.customers("a")).hasSize(7);
+    }
+
+    @Test
+    void pipelinedWithoutOwnedConnections() {
+        assertThatThrownBy(() -> service.pipelined())
+                .isInstanceOf(JdbcException.class)
+                .hasMessageStartingWith("@JdbcBatchMode(PIPELINED) needs a connection of its own");
+    }
+
+    @Test
+    void pipelinedError() {
+        var batch = owned.pipelined();
+        for (int i = 0; i < 4; i++) {
+            batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+        }
+        // the name is too long, the batch fails in the background
+        batch.insertAndReturnVoid("x".repeat(300), 4, SimpleExample.PricingPlan.FREE);
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 5; i++) {
+                batch.insertAndReturnVoid("b", i, SimpleExample.PricingPlan.FREE);
+            }
+            batch.close();
+        }).isInstanceOf(JdbcException.class)
+                .hasMessageContaining("Pipelined batch failed");
+        // the rows of the failed batch are not counted
+        assertThat(batch.countAll()).isZero();
+        batch.close();
+    }
+
+    @Test
+    void recoveryAutoCommit() {
+        var failed = new ArrayList<JdbcBatch.FailedRow>();
+        try (var batch = service.recovery()) {
+            batch.recoverFailedRows(failed::add);
+            insertWithFailures(batch);
+            assertThat(batch.countFailedRows()).isEqualTo(2);
+        }
+        assertRecovery(failed);
+    }
+
+    @Test
+    void recoveryTransaction() throws SQLException {
+        var failed = new ArrayList<JdbcBatch.FailedRow>();
+        try (var con = db.dataSource().getConnection()) {
+            con.setAutoCommit(false);
+            service = new UpdateBatchSpecJdbc(() -> con);
+            try (var batch = service.recovery()) {
+                batch.recoverFailedRows(failed::add);
+                insertWithFailures(batch);
+                batch.insertAndReturnVoid("x".repeat(300), 25, SimpleExample.PricingPlan.FREE);
+                batch.insertAndReturnVoid("a", 26, SimpleExample.PricingPlan.FREE);
+                var counts = batch.executeBatch();
+                assertThat(counts).containsExactly(1, 1, 1, 1, 1, Statement.EXECUTE_FAILED, 1);
+            }
+            con.commit();
+        }
+        service = new UpdateBatchSpecJdbc(db::getConnection);
+        assertThat(failed).hasSize(3);
+        assertThat(service.customers("a")).hasSize(24);
+    }
+
+    private void insertWithFailures(UpdateBatchSpec.BatchOne batch) {
+        for (int i = 0; i < 25; i++) {
+            var name = i == 3 || i == 17 ? "x".repeat(300) : "a";
+            batch.insertAndReturnVoid(name, i, SimpleExample.PricingPlan.FREE);
+        }
+    }
+
+    private void assertRecovery(List<JdbcBatch.FailedRow> failed) {
+        assertThat(service.customers("a")).hasSize(23);
+        assertThat(failed).extracting(row -> row.parameters().get(1)).containsExactly(3, 17);
+        assertThat(failed).allSatisfy(row -> {
+            assertThat(row.parameters()).hasSize(3);
+            assertThat(row.error().getMessage()).isNotEmpty();
+        });
+    }
+
+    @Test
+    void recoveryAfterFirstRow() {
+        try (var batch = service.recovery()) {
+            batch.insertAndReturnVoid("a", 0, SimpleExample.PricingPlan.FREE);
+            assertThatThrownBy(() -> batch.recoverFailedRows(row -> {
+            })).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void recoverySharded() {
+        var failed = new ConcurrentLinkedQueue<JdbcBatch.FailedRow>();
+        try (var batch = owned.sharded()) {
+            batch.recoverFailedRows(failed::add);
+            insertWithFailures(batch);
+        }
+        assertThat(service.customers("a")).hasSize(23);
+        assertThat(failed).hasSize(2);
+    }
+
+    @Test
+    void generatedKeys() {
+        try (var batch = service.generatedKeys()) {
+            for (int i = 0; i < 12; i++) {
+                batch.insert("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            var keys = batch.takeGeneratedKeysAsLong();
+            assertThat(keys).hasSize(10);
+            assertThat(batch.takeGeneratedKeys()).isEmpty();
+            batch.executeBatch();
+            var last = batch.takeGeneratedKeys();
+            assertThat(last).hasSize(2);
+            var ids = service.customers("a").stream().map(DbCustomer::id).toList();
+            assertThat(ids).containsExactlyInAnyOrder(
+                    keys[0], keys[1], keys[2], keys[3], keys[4], keys[5], keys[6], keys[7], keys[8], keys[9],
+                    last.get(0), last.get(1));
+        }
+        assertSource(UpdateBatchSpecJdbc.class)
+                .hasClass("UpdateBatchSpecJdbc")
+                .hasMethod("generatedKeys")
+                .bodyContains("Statement.RETURN_GENERATED_KEYS")
+                // the unboxed converter of the collected keys
+                .bodyContains("row = rs.getLong(1);");
+    }
+
+    @Test
+    void generatedKeysConsumer() {
+        var flushes = new ArrayList<List<Long>>();
+        try (var batch = service.generatedKeys()) {
+            batch.onGeneratedKeys(flushes::add);
+            for (int i = 0; i < 12; i++) {
+                batch.insert("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            assertThat(flushes).hasSize(2);
+            assertThat(batch.takeGeneratedKeys()).isEmpty();
+        }
+        assertThat(flushes).extracting(List::size).containsExactly(5, 5, 2);
+        assertThat(flushes.get(1).getFirst()).isGreaterThan(flushes.get(0).getLast());
+    }
+
+    @Test
+    void generatedKeysWithoutRecovery() {
+        try (var batch = service.generatedKeys()) {
+            assertThatThrownBy(() -> batch.recoverFailedRows(row -> {
+            })).isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Recovery mode does not support generated keys");
+        }
+    }
+
+    @Test
+    void invalidGeneratedKeysMultiRowInsert() {
+        kaumeiThrows(() -> service.invalidGeneratedKeysMultiRowInsert())
+                .annotationProcessError("JdbcKeyBatch: generated keys are only supported with @JdbcBatchMode\\(JDBC_BATCH\\)");
+    }
+
+    @Test
+    void invalidGeneratedKeysExecuteQuery() {
+        kaumeiThrows(() -> service.invalidGeneratedKeysExecuteQuery())
+                .annotationProcessError("JdbcKeyBatch: only @JdbcReturnGeneratedValues\\(GENERATED_KEYS\\) is supported");
+    }
+
+    @Test
+    void invalidGeneratedKeysType() {
+        kaumeiThrows(() -> service.invalidGeneratedKeysType())
+                .annotationProcessError("return type not supported. \\[type=io.kaumei.jdbc.spec.NoJdbcType, reason=no converter for the generated keys\\]");
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    void sharded() {
+        // every shard opens and closes its own connection
+        try (var batch = owned.sharded()) {
+            assertThat(batch.bachSize()).isEqualTo(5);
+            for (int i = 0; i < 30; i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+            assertThat(batch.countAll() + batch.countBatch()).isEqualTo(30);
+            var counts = batch.executeBatch();
+            assertThat(batch.countAll()).isEqualTo(30);
+            assertThat(batch.countBatch()).isEqualTo(0);
+            assertThat(counts.length + batch.countFlushes(JdbcBatch.FlushReason.BATCH_SIZE) * 5).isEqualTo(30);
+            assertThat(service.customers("a")).hasSize(30);
+            batch.insertAndReturnVoid("a", 30, SimpleExample.PricingPlan.FREE);
+        }
+        assertThat(service.customers("a")).hasSize(31);
+        assertSource(UpdateBatchSpecJdbc.class)
+                .hasClass("UpdateBatchSpecJdbc")
+                .hasMethod("sharded")
+                .bodyContains("return new BatchOneJdbcSharded(supplier, 3,");
+    }
+
+    @Test
+    void shardedParam() {
+        try (var batch = owned.shardedParam(2)) {
+            for (int i = 0; i < 7; i++) {
+                batch.insertAndReturnVoid("a", i, SimpleExample.PricingPlan.FREE);
+            }
+        }
+        assertThat(service.customers("a")).hasSize(7);
+    }
+
+    @Test
+    void shardedByKey() {
+        var names = new String[]{"a", "b", "c", "d", "e", "f", "g", "h"};
+        try (var batch = owned.shardedByKey()) {
+            for (int i = 0; i < 40; i++) {
+                batch.insert(names[i % names.length], SimpleExample.PricingPlan.FREE);
+            }
+        }
+        // all rows of a name are written by the same connection
+        var sessions = new HashSet<Integer>();
+        for (var name : names) {
+            var customers = service.customers(name);
+            assertThat(customers).hasSize(5);
+            var session = customers.getFirst().budge();
+            assertThat(customers).allMatch(c -> c.budge().equals(session));
+            sessions.add(session);
+        }
+        assertThat(sessions).hasSizeBetween(2, 3);
+        assertSource(UpdateBatchSpecJdbc.class)
+                .hasClass("BatchSessionJdbcSharded")
+                .hasMethod("insert")
+                .bodyContains("this.submit(name,");
+    }
+
+    @Test
+    void notShardedWithKey() {
+        try (var batch = service.notShardedWithKey()) {
+            batch.insert("a", SimpleExample.PricingPlan.FREE);
+        }
+        assertThat(service.customers("a")).hasSize(1);
+    }
+
+    @Test
+    void shardedError() {
+        var batch = owned.sharded();
+        // the name is too long, the shard fails in the background
+        batch.insertAndReturnVoid("x".repeat(300), 0, SimpleExample.PricingPlan.FREE);
+        assertThatThrownBy(batch::executeBatch)
+                .isInstanceOf(JdbcException.class)
+                .hasMessageContaining("Shard 0 failed");
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 3; i++) {
+                batch.insertAndReturnVoid("b", i, SimpleExample.PricingPlan.FREE);
+            }
+        }).isInstanceOf(JdbcException.class)
+                .hasMessageContaining("Shard 0 failed");
+        assertThatThrownBy(batch::close)
+                .isInstanceOf(JdbcException.class)
+                .hasMessageContaining("Shard 0 failed");
+        batch.close();
+        // the other shards are not affected
+        assertThat(service.customers("b")).hasSize(2);
+    }
+
+    @Test
+    void shardedWithoutOwnedConnections() throws SQLException {
+        // the connection of the provider is never used by the shards
+        assertThatThrownBy(() -> service.sharded())
+                .isInstanceOf(JdbcException.class)
+                .hasMessageStartingWith("@JdbcBatchShards needs connections of its own");
+        assertThat(db.getConnection().isClosed()).isFalse();
+    }
+
+    @Test
+    void invalidJdbcBatchShardsWithoutValue() {
+        kaumeiThrows(() -> service.invalidJdbcBatchShardsWithoutValue())
+                .annotationProcessError("@JdbcBatchShards: the number of shards must be set");
+    }
+
+    @Test
+    void invalidJdbcBatchShardsZero() {
+        kaumeiThrows(() -> service.invalidJdbcBatchShardsZero())
+                .annotationProcessError("@JdbcBatchShards: the number of shards must be positive");
+    }
+
+    @Test
+    void invalidTwoShardKeys() {
+        kaumeiThrows(() -> service.invalidTwoShardKeys())
+                .annotationProcessError("@JdbcShardKey: only one parameter can be the shard key");
+    }
 
     // @part:spec -------------------------------------------------------------
 
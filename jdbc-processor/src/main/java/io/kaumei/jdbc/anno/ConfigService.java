@@ -7,6 +7,8 @@ package io.kaumei.jdbc.anno;
 
 import io.kaumei.jdbc.anno.annotool.Anno;
 import io.kaumei.jdbc.anno.annotool.KaumeiAnno;
+import io.kaumei.jdbc.annotation.config.JdbcBatchMode;
+import io.kaumei.jdbc.annotation.config.JdbcColumnMapping;
 import io.kaumei.jdbc.annotation.config.JdbcNoMoreRows;
 import io.kaumei.jdbc.annotation.config.JdbcNoRows;
 import io.kaumei.jdbc.annotation.config.JdbcReturnGeneratedValues;
@@ -24,6 +26,7 @@ import java.util.Set;
 
 import static io.kaumei.jdbc.anno.Processor.OPTION_KEY_CONFIG;
 import static io.kaumei.jdbc.anno.Processor.OPTION_KEY_DEBUG_FOLDER;
+import static io.kaumei.jdbc.anno.Processor.OPTION_KEY_SQL_MANIFEST;
 import static io.kaumei.jdbc.anno.annotool.Anno.*;
 import static java.util.Objects.requireNonNull;
 
@@ -36,6 +39,7 @@ public class ConfigService implements ProcessorSteps {
     // ----- state
     private final @Nullable String config;
     private final @Nullable String debugFolder;
+    private final boolean sqlManifest;
 
     private final Map<WithConfigValue<?, ?>, Object> anno2value = new HashMap<>();
     private final Set<Element> jdbcToJava = new HashSet<>();
@@ -48,6 +52,7 @@ public class ConfigService implements ProcessorSteps {
         this.elements = elements;
         this.config = options.get(OPTION_KEY_CONFIG);
         this.debugFolder = options.get(OPTION_KEY_DEBUG_FOLDER);
+        this.sqlManifest = Boolean.parseBoolean(options.get(OPTION_KEY_SQL_MANIFEST));
     }
 
     // ------------------------------------------------------------------------
@@ -71,7 +76,9 @@ public class ConfigService implements ProcessorSteps {
 
     private void loadConfig(@Nullable TypeElement jdbcConfig) {
         // ----- put the default values
+        anno2value.put(JDBC_BATCH_MODE, JdbcBatchMode.Kind.JDBC_BATCH);
         anno2value.put(JDBC_BATCH_SIZE, 1000);
+        anno2value.put(JDBC_COLUMN_MAPPING, JdbcColumnMapping.Kind.BY_NAME);
         anno2value.put(JDBC_NO_MORE_ROWS, JdbcNoMoreRows.Kind.THROW_EXCEPTION);
         anno2value.put(JDBC_NO_ROWS, JdbcNoRows.Kind.THROW_EXCEPTION);
         anno2value.put(JDBC_RETURN_GENERATED_VALUES, JdbcReturnGeneratedValues.Kind.GENERATED_KEYS);
@@ -98,7 +105,13 @@ public class ConfigService implements ProcessorSteps {
             processConverter(converterType);
         }
 
+        processAnno(anno, JDBC_BATCH_BYTES);
+        processAnno(anno, JDBC_BATCH_LINGER);
+        processAnno(anno, JDBC_BATCH_MODE);
+        processAnno(anno, JDBC_BATCH_SHARDS);
         processAnno(anno, JDBC_BATCH_SIZE);
+        processAnno(anno, JDBC_COLUMN_MAPPING);
+        processAnno(anno, JDBC_EXPECTED_ROWS);
         processAnno(anno, JDBC_FETCH_DIRECTION);
         processAnno(anno, JDBC_FETCH_SIZE);
         processAnno(anno, JDBC_MAX_ROWS);
@@ -108,6 +121,8 @@ public class ConfigService implements ProcessorSteps {
         processAnno(anno, JDBC_RESULT_SET_CONCURRENCY);
         processAnno(anno, JDBC_RESULT_SET_TYPE);
         processAnno(anno, JDBC_RETURN_GENERATED_VALUES);
+        processAnno(anno, JDBC_SLOW_QUERY);
+        processAnno(anno, JDBC_SLOW_QUERY_EXPLAIN);
     }
 
 
@@ -186,6 +201,13 @@ public class ConfigService implements ProcessorSteps {
         return Path.of(requireNonNull(debugFolder));
     }
 
+    /**
+     * @return true, if the SQL of all generated methods is written to {@link Processor#SQL_MANIFEST}
+     */
+    public boolean sqlManifest() {
+        return sqlManifest;
+    }
+
     <A extends Annotation, T> T getConfigValue(WithConfigValue<A, T> anno) {
         var value = anno2value.get(anno);
         if(value != null) {
@@ -10,6 +10,7 @@ import com.palantir.javapoet.TypeSpec;
 
 import javax.annotation.processing.Filer;
 import javax.lang.model.element.TypeElement;
+import javax.tools.StandardLocation;
 import java.io.IOException;
 
 public final class JavaAnnoFiler {
@@ -35,4 +36,15 @@ public final class JavaAnnoFiler {
             this.logger.error(elem, "Failed to write generated file: " + javaFile.toJavaFileObject().getName()); // sanity-check
         }
     }
+
+    public void writeResource(String relativeName, String content) {
+        try {
+            var file = this.filer.createResource(StandardLocation.CLASS_OUTPUT, "", relativeName);
+            try (var writer = file.openWriter()) {
+                writer.write(content);
+            }
+        } catch (IOException e) { // sanity-check
+            this.logger.error("Failed to write resource: " + relativeName + ": " + e.getMessage()); // sanity-check
+        }
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ package io.kaumei.jdbc.anno;
 
 import io.kaumei.jdbc.JdbcBatch;
 import io.kaumei.jdbc.JdbcIterable;
+import io.kaumei.jdbc.JdbcKeyBatch;
 import io.kaumei.jdbc.JdbcResultSet;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.NullMarked;
@@ -24,8 +25,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -38,7 +44,12 @@ public final class JavaAnnoTypes {
     private final Elements elements;
 
     // ----- state
+    final TypeMirror JAVA_CompletableFuture;
+    final TypeMirror JAVA_DoubleStream;
+    final TypeMirror JAVA_FlowPublisher;
+    final TypeMirror JAVA_IntStream;
     public final TypeMirror JAVA_List;
+    final TypeMirror JAVA_LongStream;
     final TypeMirror JAVA_Optional;
     final TypeMirror JAVA_RuntimeException;
     final TypeMirror JAVA_SQL_Connection;
@@ -55,13 +66,19 @@ public final class JavaAnnoTypes {
     private final BiFunction<Element, TypeMirror, OptionalFlag> jspecifyCheck;
     private final TypeMirror KAUMEI_JDBC_JdbcBatch;
     private final TypeMirror KAUMEI_JDBC_JdbcIterable;
+    private final @Nullable TypeMirror KAUMEI_JDBC_JdbcKeyBatch;
     private final TypeMirror KAUMEI_JDBC_JdbcResultSet;
 
     public JavaAnnoTypes(Types types, Elements elements) {
         this.types = types;
         this.elements = elements;
 
+        this.JAVA_CompletableFuture = requireNonNull(this.erasure(this.typeMirror(CompletableFuture.class)));
+        this.JAVA_DoubleStream = requireNonNull(this.typeMirror(DoubleStream.class));
+        this.JAVA_FlowPublisher = requireNonNull(this.erasure(this.typeMirror(Flow.Publisher.class)));
+        this.JAVA_IntStream = requireNonNull(this.typeMirror(IntStream.class));
         this.JAVA_List = requireNonNull(this.erasure(typeMirror(List.class)));
+        this.JAVA_LongStream = requireNonNull(this.typeMirror(LongStream.class));
         this.JAVA_Optional = requireNonNull(this.erasure(this.typeMirror(Optional.class)));
         this.JAVA_RuntimeException = requireNonNull(this.typeMirror(RuntimeException.class));
         this.JAVA_SQL_Connection = requireNonNull(this.typeMirror(Connection.class));
@@ -84,6 +101,7 @@ public final class JavaAnnoTypes {
         }
         this.KAUMEI_JDBC_JdbcBatch = JdbcBatch;
         this.KAUMEI_JDBC_JdbcIterable = JdbcIterable;
+        this.KAUMEI_JDBC_JdbcKeyBatch = typeMirrorOpt(types, elements, JdbcKeyBatch.class);
         this.KAUMEI_JDBC_JdbcResultSet = JdbcResultSet;
     }
 
@@ -150,10 +168,56 @@ public final class JavaAnnoTypes {
         return this.types.isSubtype(type, KAUMEI_JDBC_JdbcBatch);
     }
 
+    /**
+     * @return K of a type which extends {@code JdbcKeyBatch<K>}, or null
+     */
+    public @Nullable TypeMirror jdbcKeyBatchKeyType(TypeMirror type) {
+        var keyBatch = this.KAUMEI_JDBC_JdbcKeyBatch;
+        if (keyBatch == null || !this.types.isSubtype(type, keyBatch)) {
+            return null;
+        }
+        return this.visitTypeHierarchy(type, t -> t instanceof DeclaredType declaredType
+                && this.types.isSameType(this.types.erasure(t), keyBatch)
+                && declaredType.getTypeArguments().size() == 1
+                ? declaredType.getTypeArguments().getFirst() : null);
+    }
+
     public boolean isOptionalType(TypeMirror type) {
         return this.types.isSameType(this.types.erasure(type), JAVA_Optional);
     }
 
+    /**
+     * @return the primitive kind of a boxed type, e.g. INT for Integer, otherwise the kind of the type
+     */
+    public TypeKind unboxedKind(TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED) {
+            try {
+                return this.types.unboxedType(type).getKind();
+            } catch (IllegalArgumentException e) {
+                // not a boxed type
+            }
+        }
+        return type.getKind();
+    }
+
+    /**
+     * @return T of {@code CompletableFuture<T>}, void for {@code CompletableFuture<Void>}
+     * or null if the type is not a CompletableFuture
+     */
+    public @Nullable TypeMirror futureResultType(TypeMirror type) {
+        if (type instanceof DeclaredType declaredType
+                && this.types.isSameType(this.types.erasure(type), JAVA_CompletableFuture)
+                && declaredType.getTypeArguments().size() == 1) {
+            var result = declaredType.getTypeArguments().getFirst();
+            if (result.getKind() == TypeKind.DECLARED
+                    && this.getFqn(result).equals(Void.class.getCanonicalName())) {
+                return this.types.getNoType(TypeKind.VOID);
+            }
+            return result;
+        }
+        return null;
+    }
+
     /**
      * Tests whether t1 is a subtype of one in list.
      * Any type is considered to be a subtype of itself.
@@ -210,6 +274,15 @@ public final class JavaAnnoTypes {
             } else if (this.isSameType(type0, this.JAVA_Stream)) {
                 var component = declared.getTypeArguments().getFirst();
                 return new AnalyseResult(JdbcTypeKind.STREAM, type0, component);
+            } else if (this.isSameType(type0, this.JAVA_IntStream)) {
+                return new AnalyseResult(JdbcTypeKind.STREAM, type0, this.typeMirror(TypeKind.INT));
+            } else if (this.isSameType(type0, this.JAVA_LongStream)) {
+                return new AnalyseResult(JdbcTypeKind.STREAM, type0, this.typeMirror(TypeKind.LONG));
+            } else if (this.isSameType(type0, this.JAVA_DoubleStream)) {
+                return new AnalyseResult(JdbcTypeKind.STREAM, type0, this.typeMirror(TypeKind.DOUBLE));
+            } else if (this.isSameType(type0, this.JAVA_FlowPublisher)) {
+                var component = declared.getTypeArguments().getFirst();
+                return new AnalyseResult(JdbcTypeKind.FLOW_PUBLISHER, type0, component);
             } else if (this.isSameType(type0, this.KAUMEI_JDBC_JdbcIterable)) {
                 var component = declared.getTypeArguments().getFirst();
                 return new AnalyseResult(JdbcTypeKind.KAUMEI_JDBC_ITERABLE, type0, component);
@@ -13,6 +13,7 @@ public enum JdbcTypeKind {
     ARRAY,
     LIST,
     STREAM,
+    FLOW_PUBLISHER,
     KAUMEI_JDBC_ITERABLE,
     KAUMEI_JDBC_RESULT_SET,
     KAUMEI_JDBC_BATCH;
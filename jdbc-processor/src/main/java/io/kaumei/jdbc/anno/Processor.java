@@ -24,6 +24,7 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static javax.lang.model.SourceVersion.RELEASE_25;
 
@@ -38,6 +39,7 @@ import static javax.lang.model.SourceVersion.RELEASE_25;
         Processor.OPTION_KEY_DEBUG_FOLDER,
         Processor.OPTION_KEY_CONFIG,
         Processor.OPTION_KEY_LOG_LEVEL,
+        Processor.OPTION_KEY_SQL_MANIFEST,
 })
 @SupportedSourceVersion(RELEASE_25)
 public final class Processor extends AbstractProcessor {
@@ -52,6 +54,9 @@ public final class Processor extends AbstractProcessor {
     public static final String OPTION_KEY_CONFIG         = "io.kaumei.jdbc.processor.config";
     public static final String OPTION_KEY_DEBUG_FOLDER   = "io.kaumei.jdbc.processor.debugfolder";
     public static final String OPTION_KEY_LOG_LEVEL      = "io.kaumei.jdbc.processor.loglevel";
+    public static final String OPTION_KEY_SQL_MANIFEST   = "io.kaumei.jdbc.processor.sqlmanifest";
+
+    public static final String SQL_MANIFEST              = "META-INF/io.kaumei.jdbc/sql-manifest.tsv";
     // @formatter:on
 
     // ------------------------------------------------------------------------
@@ -80,8 +85,21 @@ public final class Processor extends AbstractProcessor {
     private @Nullable GenerateService jdbcGeneratorService;
     // ---- state
     private long timeInMillis;
+    private long configNanos;
+    private long jdbc2JavaNanos;
+    private long java2JdbcNanos;
+    private long generateNanos;
     private boolean finished = false;
 
+    /**
+     * The time spent in each service of the processor.
+     */
+    public record Timing(long configNanos, long jdbc2JavaNanos, long java2JdbcNanos, long generateNanos) {
+        public long totalNanos() {
+            return this.configNanos + this.jdbc2JavaNanos + this.java2JdbcNanos + this.generateNanos;
+        }
+    }
+
     @Override
     public synchronized void init(ProcessingEnvironment env) {
         super.init(env);
@@ -139,21 +157,47 @@ public final class Processor extends AbstractProcessor {
                 annotations, roundEnv);
         String dumpState = "ok";
         try {
+            var phaseStart = System.nanoTime();
             this.jdbcConfigService.process(jdbcRoundEnv);
+            this.configNanos += System.nanoTime() - phaseStart;
+
+            phaseStart = System.nanoTime();
             this.jdbc2JavaService.process(jdbcRoundEnv);
+            this.jdbc2JavaNanos += System.nanoTime() - phaseStart;
+
+            phaseStart = System.nanoTime();
             this.java2JdbcService.process(jdbcRoundEnv);
+            this.java2JdbcNanos += System.nanoTime() - phaseStart;
+
+            phaseStart = System.nanoTime();
             this.jdbcGeneratorService.process(jdbcRoundEnv);
+            this.generateNanos += System.nanoTime() - phaseStart;
         } catch (RuntimeException e) {
             dumpState = e.getMessage();
             throw e;
         } finally {
             timeInMillis += (System.currentTimeMillis() - startTime);
-            this.logger.allways("Kaumei JDBC annotation processor finished in " + timeInMillis + "ms");
+            this.logger.allways("Kaumei JDBC annotation processor finished in " + timeInMillis + "ms",
+                    "config", millis(this.configNanos),
+                    "jdbc2java", millis(this.jdbc2JavaNanos),
+                    "java2jdbc", millis(this.java2JdbcNanos),
+                    "generate", millis(this.generateNanos));
             dumpState(jdbcRoundEnv, dumpState);
         }
         return true;
     }
 
+    /**
+     * @return the time spent in each service, summed over all rounds
+     */
+    public Timing timing() {
+        return new Timing(this.configNanos, this.jdbc2JavaNanos, this.java2JdbcNanos, this.generateNanos);
+    }
+
+    private static String millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + "ms";
+    }
+
     private void dumpState(ProcessorEnvironment jdbcRoundEnv, String state) {
         if (!jdbcConfigService.dump()) {
             return;
@@ -85,12 +85,19 @@ public interface Anno<A extends Annotation> {
     Anno.WithValue<JdbcName,String>          JDBC_NAME           = new WithValueByElem<>(JdbcName.class,JdbcName::value,"");
     Anno.WithValue<JdbcNative,NativeProps>   JDBC_NATIVE         = new WithValueByMirror<>(JdbcNative.class, NativeProps::of, NativeProps.of());
     Anno.WithValue<JdbcSelect,String>        JDBC_SELECT         = new WithValueByElem<>(JdbcSelect.class,JdbcSelect::value,"");
+    Anno<JdbcShardKey>                       JDBC_SHARD_KEY      = new NoValue<>(JdbcShardKey.class);
     Anno.WithValue<JdbcToJava,String>        JDBC_TO_JAVA        = new WithValueByElem<>(JdbcToJava.class,JdbcToJava::value,"");
     Anno.WithValue<JdbcUpdate,String>        JDBC_UPDATE         = new WithValueByElem<>(JdbcUpdate.class,JdbcUpdate::value,"");
     Anno<JdbcUpdateBatch>                    JDBC_UPDATE_BATCH   = new NoValue<>(JdbcUpdateBatch.class);
 
+    Anno.WithConfigValue<JdbcBatchBytes,Integer>                                   JDBC_BATCH_BYTES             = new ConfigInteger<>(JdbcBatchBytes.class,JdbcBatchBytes::value,-1);
+    Anno.WithConfigValue<JdbcBatchLinger,Integer>                                  JDBC_BATCH_LINGER            = new ConfigInteger<>(JdbcBatchLinger.class,JdbcBatchLinger::value,-1);
+    Anno.WithConfigValue<JdbcBatchMode,JdbcBatchMode.Kind>                         JDBC_BATCH_MODE              = new ConfigEnum<>(JdbcBatchMode.class,JdbcBatchMode::value,JdbcBatchMode.Kind.UNSPECIFIED);
+    Anno.WithConfigValue<JdbcBatchShards,Integer>                                  JDBC_BATCH_SHARDS            = new ConfigInteger<>(JdbcBatchShards.class,JdbcBatchShards::value,-1);
     Anno.WithConfigValue<JdbcBatchSize,Integer>                                    JDBC_BATCH_SIZE              = new ConfigInteger<>(JdbcBatchSize.class,JdbcBatchSize::value,-1);
+    Anno.WithConfigValue<JdbcColumnMapping,JdbcColumnMapping.Kind>                 JDBC_COLUMN_MAPPING          = new ConfigEnum<>(JdbcColumnMapping.class,JdbcColumnMapping::value,JdbcColumnMapping.Kind.UNSPECIFIED);
     Anno.WithValue<JdbcConfig,ConfigProps>                                         JDBC_CONFIG_PROPS            = new WithValueByMirror<>(JdbcConfig.class,ConfigProps::of,ConfigProps.of());
+    Anno.WithConfigValue<JdbcExpectedRows,Integer>                                 JDBC_EXPECTED_ROWS           = new ConfigInteger<>(JdbcExpectedRows.class,JdbcExpectedRows::value,-1);
     Anno.WithConfigValue<JdbcFetchDirection,JdbcFetchDirection.Kind>               JDBC_FETCH_DIRECTION         = new ConfigEnum<>(JdbcFetchDirection.class,JdbcFetchDirection::value,JdbcFetchDirection.Kind.UNSPECIFIED);
     Anno.WithConfigValue<JdbcFetchSize,Integer>                                    JDBC_FETCH_SIZE              = new ConfigInteger<>(JdbcFetchSize.class,JdbcFetchSize::value,-1);
     Anno.WithConfigValue<JdbcMaxRows,Integer>                                      JDBC_MAX_ROWS                = new ConfigInteger<>(JdbcMaxRows.class,JdbcMaxRows::value,-1);
@@ -100,6 +107,8 @@ public interface Anno<A extends Annotation> {
     Anno.WithConfigValue<JdbcResultSetConcurrency,JdbcResultSetConcurrency.Kind>   JDBC_RESULT_SET_CONCURRENCY  = new ConfigEnum<>(JdbcResultSetConcurrency.class,JdbcResultSetConcurrency::value,JdbcResultSetConcurrency.Kind.UNSPECIFIED);
     Anno.WithConfigValue<JdbcResultSetType,JdbcResultSetType.Kind>                 JDBC_RESULT_SET_TYPE         = new ConfigEnum<>(JdbcResultSetType.class,JdbcResultSetType::value,JdbcResultSetType.Kind.UNSPECIFIED);
     Anno.WithConfigValue<JdbcReturnGeneratedValues,JdbcReturnGeneratedValues.Kind> JDBC_RETURN_GENERATED_VALUES = new ConfigEnum<>(JdbcReturnGeneratedValues.class,JdbcReturnGeneratedValues::value,JdbcReturnGeneratedValues.Kind.UNSPECIFIED);
+    Anno.WithConfigValue<JdbcSlowQuery,Integer>                                    JDBC_SLOW_QUERY              = new ConfigInteger<>(JdbcSlowQuery.class,JdbcSlowQuery::value,-1);
+    Anno.WithConfigValue<JdbcSlowQueryExplain,Integer>                             JDBC_SLOW_QUERY_EXPLAIN      = new ConfigInteger<>(JdbcSlowQueryExplain.class,JdbcSlowQueryExplain::value,-1);
     // @formatter:on
 
     // ---------------------------------------------------------------------------------------------------
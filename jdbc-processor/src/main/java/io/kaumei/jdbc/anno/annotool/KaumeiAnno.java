@@ -186,12 +186,19 @@ public class KaumeiAnno {
         add(JDBC_NAME);
         add(JDBC_NATIVE);
         add(JDBC_SELECT);
+        add(JDBC_SHARD_KEY);
         add(JDBC_TO_JAVA);
         add(JDBC_UPDATE);
         add(JDBC_UPDATE_BATCH);
         //
+        add(JDBC_BATCH_BYTES);
+        add(JDBC_BATCH_LINGER);
+        add(JDBC_BATCH_MODE);
+        add(JDBC_BATCH_SHARDS);
         add(JDBC_BATCH_SIZE);
+        add(JDBC_COLUMN_MAPPING);
         add(JDBC_CONFIG_PROPS);
+        add(JDBC_EXPECTED_ROWS);
         add(JDBC_FETCH_DIRECTION);
         add(JDBC_FETCH_SIZE);
         add(JDBC_MAX_ROWS);
@@ -201,6 +208,8 @@ public class KaumeiAnno {
         add(JDBC_RESULT_SET_CONCURRENCY);
         add(JDBC_RESULT_SET_TYPE);
         add(JDBC_RETURN_GENERATED_VALUES);
+        add(JDBC_SLOW_QUERY);
+        add(JDBC_SLOW_QUERY_EXPLAIN);
     }
 
 }
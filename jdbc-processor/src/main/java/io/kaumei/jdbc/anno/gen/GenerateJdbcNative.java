@@ -67,8 +67,10 @@ public class GenerateJdbcNative implements GenerateJdbc {
             body.addError(s.errors);
         } else {
             var otherMethod = s.found;
+            body.addProbeStart(this.parent.type(), this.method);
             body.beginControlFlow("try");
             body.addStatement("var con = supplier.getConnection()");
+            body.addProbe("connected(probe_jdbc)");
 
             List<CodeBlock> args = new ArrayList<>();
             args.add(CodeBlock.of("$L", "con"));
@@ -93,12 +95,16 @@ public class GenerateJdbcNative implements GenerateJdbc {
             var checkResult = genService.elements.checkExceptions(method, otherMethod);
 
             body.nextControlFlow("catch ($T e)", SQLException.class);
+            body.addProbe("failed(probe_jdbc, e)");
             body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
             if (!checkResult.notCovered().isEmpty()) {
                 // FIXME: we catch currently to much
                 body.nextControlFlow("catch ($T e)", Exception.class);
+                body.addProbe("failed(probe_jdbc, e)");
                 body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
             }
+            body.nextControlFlow("finally");
+            body.addProbe("closed(probe_jdbc)");
             body.endControlFlow();
         }
 
@@ -9,13 +9,16 @@ import com.palantir.javapoet.CodeBlock;
 import com.palantir.javapoet.MethodSpec;
 import io.kaumei.jdbc.JdbcException;
 import io.kaumei.jdbc.anno.JavaAnnoMessenger;
+import io.kaumei.jdbc.anno.JdbcTypeKind;
 import io.kaumei.jdbc.anno.ProcessorException;
 import io.kaumei.jdbc.anno.annotool.Anno;
 import io.kaumei.jdbc.anno.annotool.KaumeiAnno;
 import io.kaumei.jdbc.anno.msg.Msg;
 import io.kaumei.jdbc.anno.utils.SqlParser;
+import io.kaumei.jdbc.annotation.config.JdbcColumnMapping;
 import io.kaumei.jdbc.annotation.config.JdbcNoMoreRows;
 import io.kaumei.jdbc.annotation.config.JdbcNoRows;
+import io.kaumei.jdbc.impl.JdbcProbe;
 import io.kaumei.jdbc.impl.JdbcUtils;
 import io.kaumei.jdbc.impl.ResultSetUtils;
 import org.jspecify.annotations.Nullable;
@@ -50,6 +53,9 @@ class GenerateJdbcSelect implements GenerateJdbc {
     }
 
     private MethodSpec build(String comment) {
+        if (this.genService.isAsync(this.method)) {
+            return this.methodBuilder.buildAsync(this.genService, this.method, comment);
+        }
         return this.methodBuilder.build(this.genService, this.method, comment);
     }
 
@@ -79,16 +85,32 @@ class GenerateJdbcSelect implements GenerateJdbc {
             this.methodBuilder.body().addError(Msg.returnTypeNotSupported(method.getReturnType()));
             return this.build(sqlSelect);
         }
+        if (genService.isAsync(method) && (returnType.kind() == JdbcTypeKind.STREAM
+                || returnType.kind() == JdbcTypeKind.FLOW_PUBLISHER
+                || returnType.kind() == JdbcTypeKind.KAUMEI_JDBC_ITERABLE
+                || returnType.kind() == JdbcTypeKind.KAUMEI_JDBC_RESULT_SET)) {
+            this.methodBuilder.body().addError(Msg.returnTypeNotSupported(method.getReturnType(), "the result set must not outlive the future"));
+            return this.build(sqlSelect);
+        }
 
         var sql = SqlParser.parse(sqlSelect);
+        var columnMapping = genService.jdbcConfigService.searchAnno(Anno.JDBC_COLUMN_MAPPING, this.methodAnnotations, method.getEnclosingElement());
+        if (columnMapping == JdbcColumnMapping.Kind.BY_ORDINAL) {
+            var selectList = SqlParser.selectList(sqlSelect);
+            if (selectList == null) {
+                this.logger.debug("Select list could not be analyzed, resolve columns by name.");
+            } else {
+                methodBuilder.body().columnsByOrdinal(selectList);
+            }
+        }
         switch (returnType.kind()) { // will never cover all branches in black box test: JaCoCo:no
-            case PRIMITIVE, OBJECT, ARRAY, OPTIONAL_TYPE:
+            case PRIMITIVE, OBJECT, OPTIONAL_TYPE:
                 selectValue(sql, returnType);
                 break;
-            case LIST:
+            case ARRAY, LIST:
                 selectJavaList(sql, returnType);
                 break;
-            case STREAM, KAUMEI_JDBC_ITERABLE, KAUMEI_JDBC_RESULT_SET:
+            case STREAM, KAUMEI_JDBC_ITERABLE, KAUMEI_JDBC_RESULT_SET, FLOW_PUBLISHER:
                 selectStreamIterableResultSet(sql, returnType);
                 break;
             default:
@@ -97,6 +119,9 @@ class GenerateJdbcSelect implements GenerateJdbc {
         }
 
         methodBuilder.body().processUnused(methodAnnotations, methodParameters);
+        if (!methodBuilder.body().hasErrors()) {
+            genService.addToSqlManifest("SELECT", this.parent.type(), this.method, sql.nativeSql());
+        }
         return this.build(sqlSelect);
     }
 
@@ -110,11 +135,17 @@ class GenerateJdbcSelect implements GenerateJdbc {
 
         var queryTimeout = this.processAnno(Anno.JDBC_QUERY_TIMEOUT);
 
+        var slowQuery = this.processAnno(Anno.JDBC_SLOW_QUERY);
+        var explain = this.processAnno(Anno.JDBC_SLOW_QUERY_EXPLAIN);
+        body.addProbeStart(this.parent.type(), this.method, slowQuery);
         body.beginControlFlow("try");
         body.addStatement("var con = supplier.getConnection()");
+        body.addProbe("connected(probe_jdbc)");
         body.addStatement("var sql = $L", sqlToCodeBlock(sql));
-        body.beginControlFlow("try (var stmt = con.prepareStatement(sql))");
+        body.beginControlFlow("try (var stmt = $L)", body.explainStatement(CodeBlock.of("supplier.prepareStatement(con, sql)"), explain));
+        body.addProbe("prepared(probe_jdbc, sql)");
         body.processParameter(sql, this.methodParameters);
+        body.addProbe("bound(probe_jdbc)");
         body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
 
         var noMoreRows = genService.jdbcConfigService.searchAnno(Anno.JDBC_NO_MORE_ROWS, this.methodAnnotations, method.getEnclosingElement());
@@ -126,6 +157,7 @@ class GenerateJdbcSelect implements GenerateJdbc {
             body.addStatement("stmt.setMaxRows(1)");
         }
         body.beginControlFlow("try (var rs = stmt.executeQuery())");
+        body.addProbe("executed(probe_jdbc, -1)");
 
         var noRows = genService.jdbcConfigService.searchAnno(Anno.JDBC_NO_ROWS, this.methodAnnotations, this.method.getEnclosingElement());
         if (noRows == JdbcNoRows.Kind.RETURN_NULL && methodReturn.optional().isNonNull()) {
@@ -145,12 +177,16 @@ class GenerateJdbcSelect implements GenerateJdbc {
         }
 
         body.addCheckNoMoreRows(noMoreRows);
+        body.addProbe("fetched(probe_jdbc, 1)");
         body.addStatement("return result");
 
         body.endControlFlow();
         body.endControlFlow();
         body.nextControlFlow("catch ($T e)", SQLException.class);
+        body.addProbe("failed(probe_jdbc, e)");
         body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
+        body.nextControlFlow("finally");
+        body.addProbe("closed(probe_jdbc)");
         body.endControlFlow();
     }
 
@@ -161,6 +197,7 @@ class GenerateJdbcSelect implements GenerateJdbc {
         var body = methodBuilder.body();
         this.logger.debug("selectJavaCollection", "converter", converter, "resultType", resultType);
 
+        var expectedRows = processAnno(Anno.JDBC_EXPECTED_ROWS);
         var fetchDirection = processAnno(Anno.JDBC_FETCH_DIRECTION);
         var fetchSize = processAnno(Anno.JDBC_FETCH_SIZE);
         var maxRows = processAnno(Anno.JDBC_MAX_ROWS);
@@ -168,25 +205,46 @@ class GenerateJdbcSelect implements GenerateJdbc {
         var resultSetConcurrency = processAnno(Anno.JDBC_RESULT_SET_CONCURRENCY);
         var resultSetType = processAnno(Anno.JDBC_RESULT_SET_TYPE);
 
+        var slowQuery = this.processAnno(Anno.JDBC_SLOW_QUERY);
+        var explain = this.processAnno(Anno.JDBC_SLOW_QUERY_EXPLAIN);
+        body.addProbeStart(this.parent.type(), this.method, slowQuery);
         body.beginControlFlow("try");
         body.addStatement("var con = supplier.getConnection()");
+        body.addProbe("connected(probe_jdbc)");
         body.addStatement("var sql = $L", sqlToCodeBlock(sql));
-        body.beginControlFlow("try (var stmt = $L)", prepareStatement(resultSetType, resultSetConcurrency));
+        body.beginControlFlow("try (var stmt = $L)", body.explainStatement(prepareStatement(resultSetType, resultSetConcurrency), explain));
+        body.addProbe("prepared(probe_jdbc, sql)");
         body.processParameter(sql, this.methodParameters);
+        body.addProbe("bound(probe_jdbc)");
         body.addIfAnnotationIsPresent("stmt.setFetchDirection($L.sqlMagicNumber())", fetchDirection);
         body.addIfAnnotationIsPresent("stmt.setFetchSize($L)", fetchSize);
         body.addIfAnnotationIsPresent("stmt.setMaxRows($L)", maxRows);
         body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
+        var capacityHint = capacityHint(expectedRows, maxRows, fetchSize);
         body.beginControlFlow("try (var resultSet = stmt.executeQuery())");
+        body.addProbe("executed(probe_jdbc, -1)");
 
         var jdbcName = converter.isColumn() ? methodAnnotations.jdbcName() : "";
         var lambda = body.lambda(jdbcName, methodReturn.optional(), converter);
-        body.addStatement("return $T.toList(resultSet, $L)", ResultSetUtils.class, lambda.toString());
+        if (methodReturn.kind().isArray()) {
+            // primitive arrays, the values are never boxed
+            body.addStatement("var result_jdbc = $T.to$LArray(resultSet, $L, $L)", ResultSetUtils.class,
+                    primitiveName(methodReturn), capacityHint, lambda.toString());
+            body.addProbe("fetched(probe_jdbc, result_jdbc.length)");
+        } else {
+            body.addStatement("var result_jdbc = $T.toList(resultSet, $L, $T.rows(probe_jdbc, $L))", ResultSetUtils.class,
+                    capacityHint, JdbcProbe.class, lambda.toString());
+            body.addProbe("fetched(probe_jdbc, result_jdbc.size())");
+        }
+        body.addStatement("return result_jdbc");
 
         body.endControlFlow();
         body.endControlFlow();
         body.nextControlFlow("catch ($T e)", SQLException.class);
+        body.addProbe("failed(probe_jdbc, e)");
         body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
+        body.nextControlFlow("finally");
+        body.addProbe("closed(probe_jdbc)");
         body.endControlFlow();
     }
 
@@ -202,44 +260,70 @@ class GenerateJdbcSelect implements GenerateJdbc {
         var resultSetConcurrency = processAnno(Anno.JDBC_RESULT_SET_CONCURRENCY);
         var resultSetType = processAnno(Anno.JDBC_RESULT_SET_TYPE);
 
+        var publisher = methodReturn.kind() == JdbcTypeKind.FLOW_PUBLISHER;
+        if (publisher) {
+            // the query is executed on the first request of a subscriber
+            body.add("return $T.toPublisher(fetchSize_jdbc -> {\n$>", ResultSetUtils.class);
+        }
         body.addStatement("$T stmt = null", PreparedStatement.class);
         body.addStatement("$T resultSet = null", ResultSet.class);
+        var slowQuery = this.processAnno(Anno.JDBC_SLOW_QUERY);
+        var explain = this.processAnno(Anno.JDBC_SLOW_QUERY_EXPLAIN);
+        body.addProbeStart(this.parent.type(), this.method, slowQuery);
         body.beginControlFlow("try");
         body.addStatement("var con = supplier.getConnection()");
+        body.addProbe("connected(probe_jdbc)");
         body.addStatement("var sql = $L", sqlToCodeBlock(sql));
-        body.addStatement("stmt = $L", prepareStatement(resultSetType, resultSetConcurrency));
+        body.addStatement("stmt = $L", body.explainStatement(prepareStatement(resultSetType, resultSetConcurrency), explain));
+        body.addProbe("prepared(probe_jdbc, sql)");
         body.processParameter(sql, this.methodParameters);
+        body.addProbe("bound(probe_jdbc)");
         body.addIfAnnotationIsPresent("stmt.setFetchDirection($L.sqlMagicNumber())", fetchDirection);
-        body.addIfAnnotationIsPresent("stmt.setFetchSize($L)", fetchSize);
+        if (publisher && fetchSize == null) {
+            body.addStatement("stmt.setFetchSize(fetchSize_jdbc)");
+        } else {
+            body.addIfAnnotationIsPresent("stmt.setFetchSize($L)", fetchSize);
+        }
         body.addIfAnnotationIsPresent("stmt.setMaxRows($L)", maxRows);
         body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
         body.addStatement("resultSet = stmt.executeQuery()");
+        body.addProbe("executed(probe_jdbc, -1)");
 
         var jdbcName = converter.isColumn() ? methodAnnotations.jdbcName() : "";
         var lambda = body.lambda(jdbcName, methodReturn.optional(), converter);
 
         switch (methodReturn.kind()) { // will never cover all branches in black box test: JaCoCo:no
-            case STREAM ->
-                    body.addStatement("return $T.toStream(stmt, resultSet, $L)", ResultSetUtils.class, lambda.toString());
+            case STREAM -> {
+                if (methodReturn.type().getKind().isPrimitive()) {
+                    body.addStatement("return $T.to$LStream(stmt, resultSet, probe_jdbc, $L)", ResultSetUtils.class, primitiveName(methodReturn), lambda.toString());
+                } else {
+                    body.addStatement("return $T.toStream(stmt, resultSet, $T.rows(probe_jdbc, $L))", ResultSetUtils.class, JdbcProbe.class, lambda.toString());
+                }
+            }
             case KAUMEI_JDBC_RESULT_SET ->
-                    body.addStatement("return $T.toJdbcResultSet(stmt, resultSet, $L)", ResultSetUtils.class, lambda.toString());
-            case KAUMEI_JDBC_ITERABLE ->
-                    body.addStatement("return $T.toJdbcIterable(stmt, resultSet, $L)", ResultSetUtils.class, lambda.toString());
+                    body.addStatement("return $T.toJdbcResultSet(stmt, resultSet, $T.rows(probe_jdbc, $L))", ResultSetUtils.class, JdbcProbe.class, lambda.toString());
+            case KAUMEI_JDBC_ITERABLE, FLOW_PUBLISHER ->
+                    body.addStatement("return $T.toJdbcIterable(stmt, resultSet, $T.rows(probe_jdbc, $L))", ResultSetUtils.class, JdbcProbe.class, lambda.toString());
             default ->
                     throw new ProcessorException("Invalid kind: " + methodReturn.kind()); // sanity-check
         }
 
         body.nextControlFlow("catch ($T e)", Exception.class);
         body.addStatement("$T.close(e, stmt, resultSet)", JdbcUtils.class);
+        body.addProbe("failed(probe_jdbc, e)");
+        body.addProbe("closed(probe_jdbc)");
         body.addStatement("throw e instanceof $T re ? re :new $T(e.getMessage(), e)", RuntimeException.class, JdbcException.class);
         body.endControlFlow();
+        if (publisher) {
+            body.add("$<});\n");
+        }
     }
 
     // -----------------------------------------------------------------
 
     private CodeBlock prepareStatement(GenerateService.@Nullable AnnoCode resultSetType, GenerateService.@Nullable AnnoCode resultSetConcurrency) {
         if (resultSetType == null && resultSetConcurrency == null) {
-            return CodeBlock.of("con.prepareStatement(sql)");
+            return CodeBlock.of("supplier.prepareStatement(con, sql)");
         } else if (resultSetType != null && resultSetConcurrency != null) {
             if (resultSetType.check() != null) {
                 methodBuilder.body().addCodeBlock(resultSetType.check());
@@ -247,13 +331,39 @@ class GenerateJdbcSelect implements GenerateJdbc {
             if (resultSetConcurrency.check() != null) {
                 methodBuilder.body().addCodeBlock(resultSetConcurrency.check());
             }
-            return CodeBlock.of("con.prepareStatement(sql, $L.sqlMagicNumber(), $L.sqlMagicNumber())",
+            return CodeBlock.of("supplier.prepareStatement(con, sql, $L.sqlMagicNumber(), $L.sqlMagicNumber())",
                     resultSetType.nameOrValue(), resultSetConcurrency.nameOrValue());
         }
         this.methodBuilder.body().addError(Msg.of("You must define @JdbcResultSetType and @JdbcResultSetConcurrency."));
         return CodeBlock.of("null");
     }
 
+    private CodeBlock capacityHint(GenerateService.@Nullable AnnoCode expectedRows,
+                                   GenerateService.@Nullable AnnoCode maxRows,
+                                   GenerateService.@Nullable AnnoCode fetchSize) {
+        if (expectedRows != null) {
+            if (expectedRows.check() != null) {
+                methodBuilder.body().addCodeBlock(expectedRows.check());
+            }
+            return expectedRows.nameOrValue();
+        } else if (maxRows != null) {
+            return CodeBlock.of("$T.limitCapacityHint($L)", ResultSetUtils.class, maxRows.nameOrValue());
+        } else if (fetchSize != null) {
+            return CodeBlock.of("$T.limitCapacityHint($L)", ResultSetUtils.class, fetchSize.nameOrValue());
+        }
+        return CodeBlock.of("0");
+    }
+
+    private static String primitiveName(GenerateService.MethodReturn methodReturn) {
+        return switch (methodReturn.type().getKind()) { // will never cover all branches in black box test: JaCoCo:no
+            case INT -> "Int";
+            case LONG -> "Long";
+            case DOUBLE -> "Double";
+            default ->
+                    throw new ProcessorException("Invalid primitive row: " + methodReturn.type()); // sanity-check
+        };
+    }
+
     private CodeBlock sqlToCodeBlock(SqlParser.Result sql) {
         var code = CodeBlock.builder();
         if (!this.methodParameters.hasCollections()) {
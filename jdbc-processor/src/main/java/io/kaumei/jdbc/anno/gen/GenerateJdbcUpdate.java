@@ -48,6 +48,9 @@ public class GenerateJdbcUpdate implements GenerateJdbc {
     }
 
     private MethodSpec build(String comment) {
+        if (this.genService.isAsync(this.method)) {
+            return this.methodBuilder.buildAsync(this.genService, this.method, comment);
+        }
         return this.methodBuilder.build(this.genService, this.method, comment);
     }
 
@@ -63,41 +66,58 @@ public class GenerateJdbcUpdate implements GenerateJdbc {
         var sql = SqlParser.parse(sqlUpdate);
 
         var returnType = genService.returnType(method, methodAnnotations);
-        var returnTypeKind = returnType.type().getKind();
+        // CompletableFuture<Integer> and CompletableFuture<Boolean> are handled like int and boolean
+        var returnTypeKind = genService.isAsync(method)
+                ? genService.types.unboxedKind(returnType.type())
+                : returnType.type().getKind();
         if (methodAnnotations.hasAnnotation(Anno.JDBC_RETURN_GENERATED_VALUES)) {
             updateReturning(returnType, sql);
         } else if (returnTypeKind == TypeKind.VOID
                 || returnTypeKind == TypeKind.INT
                 || returnTypeKind == TypeKind.BOOLEAN) {
-            updateSimple(sql);
+            updateSimple(sql, returnTypeKind);
         } else {
             this.methodBuilder.body().addError(Msg.returnTypeNotSupported(method.getReturnType()));
         }
         methodBuilder.body().processUnused(methodAnnotations, methodParameters);
+        if (!methodBuilder.body().hasErrors()) {
+            genService.addToSqlManifest("UPDATE", this.parent.type(), this.method, sql.nativeSql());
+        }
         return this.build(sqlUpdate);
     }
 
-    private void updateSimple(SqlParser.Result sql) {
+    private void updateSimple(SqlParser.Result sql, TypeKind returnTypeKind) {
         this.logger.debug("updateSimple", sql);
         var body = methodBuilder.body();
+        var slowQuery = this.processAnno(Anno.JDBC_SLOW_QUERY);
+        body.addProbeStart(this.parent.type(), this.method, slowQuery);
         body.beginControlFlow("try");
         body.addStatement("var con = supplier.getConnection()");
-        body.beginControlFlow("try (var stmt = con.prepareStatement($S))", sql.nativeSql());
+        body.addProbe("connected(probe_jdbc)");
+        body.beginControlFlow("try (var stmt = supplier.prepareStatement(con, $S))", sql.nativeSql());
+        body.addProbe("prepared(probe_jdbc, $S)", sql.nativeSql());
         var queryTimeout = this.processAnno(Anno.JDBC_QUERY_TIMEOUT);
         body.processParameter(sql, this.methodParameters);
+        body.addProbe("bound(probe_jdbc)");
         body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
         // ----
-        switch (method.getReturnType().getKind()) { // will never cover all branches in black box test: JaCoCo:no
-            case VOID -> body.addStatement("stmt.executeUpdate()");
-            case INT -> body.addStatement("return stmt.executeUpdate()");
-            case BOOLEAN -> body.addStatement("return stmt.executeUpdate() != 0");
+        body.addStatement("var count_jdbc = stmt.executeUpdate()");
+        body.addProbe("executed(probe_jdbc, count_jdbc)");
+        switch (returnTypeKind) { // will never cover all branches in black box test: JaCoCo:no
+            case VOID -> {
+            }
+            case INT -> body.addStatement("return count_jdbc");
+            case BOOLEAN -> body.addStatement("return count_jdbc != 0");
             default ->
-                    throw new ProcessorException("Unexpected return type: " + method.getReturnType().getKind()); // sanity-check
+                    throw new ProcessorException("Unexpected return type: " + returnTypeKind); // sanity-check
         }
         // ----
         body.endControlFlow();
         body.nextControlFlow("catch ($T e)", SQLException.class);
+        body.addProbe("failed(probe_jdbc, e)");
         body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
+        body.nextControlFlow("finally");
+        body.addProbe("closed(probe_jdbc)");
         body.endControlFlow();
     }
 
@@ -123,24 +143,33 @@ public class GenerateJdbcUpdate implements GenerateJdbc {
             return;
         }
 
+        var slowQuery = this.processAnno(Anno.JDBC_SLOW_QUERY);
+        body.addProbeStart(this.parent.type(), this.method, slowQuery);
         body.beginControlFlow("try");
         body.addStatement("var con = supplier.getConnection()");
+        body.addProbe("connected(probe_jdbc)");
         var jdbcReturnGeneratedValues = genService.jdbcConfigService.jdbcReturnGeneratedValues(methodAnnotations, method.getEnclosingElement());
         switch (jdbcReturnGeneratedValues) { // will never cover all branches in black box test: JaCoCo:no
             case GENERATED_KEYS -> {
-                body.beginControlFlow("try (var stmt = con.prepareStatement($S, $T.RETURN_GENERATED_KEYS))", sql.nativeSql(), Statement.class);
+                body.beginControlFlow("try (var stmt = supplier.prepareStatement(con, $S, $T.RETURN_GENERATED_KEYS))", sql.nativeSql(), Statement.class);
+                body.addProbe("prepared(probe_jdbc, $S)", sql.nativeSql());
                 var queryTimeout = this.processAnno(Anno.JDBC_QUERY_TIMEOUT);
                 body.processParameter(sql, this.methodParameters);
+                body.addProbe("bound(probe_jdbc)");
                 body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
-                body.addStatement("stmt.executeUpdate()");
+                body.addStatement("var count_jdbc = stmt.executeUpdate()");
+                body.addProbe("executed(probe_jdbc, count_jdbc)");
                 body.beginControlFlow("try(var rs = stmt.getGeneratedKeys())");
             }
             case EXECUTE_QUERY -> {
-                body.beginControlFlow("try (var stmt = con.prepareStatement($S))", sql.nativeSql());
+                body.beginControlFlow("try (var stmt = supplier.prepareStatement(con, $S))", sql.nativeSql());
+                body.addProbe("prepared(probe_jdbc, $S)", sql.nativeSql());
                 var queryTimeout = this.processAnno(Anno.JDBC_QUERY_TIMEOUT);
                 body.processParameter(sql, this.methodParameters);
+                body.addProbe("bound(probe_jdbc)");
                 body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
                 body.beginControlFlow("try(var rs = stmt.executeQuery())");
+                body.addProbe("executed(probe_jdbc, -1)");
             }
             default ->
                     throw new ProcessorException("Unexpected return type: " + jdbcReturnGeneratedValues); // sanity-check
@@ -152,7 +181,10 @@ public class GenerateJdbcUpdate implements GenerateJdbc {
 
         body.endControlFlow();
         body.nextControlFlow("catch ($T e)", SQLException.class);
+        body.addProbe("failed(probe_jdbc, e)");
         body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
+        body.nextControlFlow("finally");
+        body.addProbe("closed(probe_jdbc)");
         body.endControlFlow();
     }
 
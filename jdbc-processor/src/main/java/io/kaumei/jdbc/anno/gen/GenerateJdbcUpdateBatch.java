@@ -7,22 +7,40 @@ package io.kaumei.jdbc.anno.gen;
 
 import com.palantir.javapoet.ClassName;
 import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.ParameterizedTypeName;
+import com.palantir.javapoet.TypeName;
 import com.palantir.javapoet.TypeSpec;
+import io.kaumei.jdbc.JdbcConnectionProvider;
 import io.kaumei.jdbc.JdbcException;
 import io.kaumei.jdbc.anno.JavaAnnoMessenger;
+import io.kaumei.jdbc.anno.OptionalFlag;
 import io.kaumei.jdbc.anno.ProcessorException;
 import io.kaumei.jdbc.anno.annotool.Anno;
 import io.kaumei.jdbc.anno.annotool.KaumeiAnno;
+import io.kaumei.jdbc.anno.jdbc2java.Jdbc2JavaConverter;
 import io.kaumei.jdbc.anno.msg.Msg;
+import io.kaumei.jdbc.anno.store.SearchKey;
 import io.kaumei.jdbc.anno.utils.SqlParser;
+import io.kaumei.jdbc.annotation.JdbcToJava;
+import io.kaumei.jdbc.annotation.config.JdbcBatchMode;
+import io.kaumei.jdbc.annotation.config.JdbcReturnGeneratedValues;
+import io.kaumei.jdbc.impl.CopyInsert;
 import io.kaumei.jdbc.impl.JdbcBatchImpl;
+import io.kaumei.jdbc.impl.JdbcKeyBatchImpl;
+import io.kaumei.jdbc.impl.JdbcShardedBatch;
+import io.kaumei.jdbc.impl.MultiRowInsert;
+import io.kaumei.jdbc.impl.PipelinedStatement;
+import io.kaumei.jdbc.impl.ResultSetUtils;
 import org.jspecify.annotations.Nullable;
 
 import javax.lang.model.element.*;
 import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import java.lang.annotation.Annotation;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Collectors;
 
 public class GenerateJdbcUpdateBatch implements GenerateJdbc {
     // ----- services
@@ -72,16 +90,26 @@ public class GenerateJdbcUpdateBatch implements GenerateJdbc {
         var optReason = returnType.optional().checkNonNullOrUnspecific();
         if(optReason != null) {
             body.addError(Msg.returnTypeOptional(optReason));
-        } else if(!returnType.kind().isKaumeiJdbcBatch()) {
+        } else if(!returnType.kind().isKaumeiJdbcBatch() || genService.isAsync(method)) {
             body.addError(Msg.returnTypeNotSupported(method.getReturnType()));
         }
 
         var batchSize = processAnno(Anno.JDBC_BATCH_SIZE);
+        var batchBytes = processAnno(Anno.JDBC_BATCH_BYTES);
+        var batchLinger = processAnno(Anno.JDBC_BATCH_LINGER);
+        var batchShards = processAnno(Anno.JDBC_BATCH_SHARDS);
+        this.checkBatchShards(batchShards);
+        var batchMode = this.genService.jdbcConfigService.searchAnno(Anno.JDBC_BATCH_MODE, this.methodAnnotations, method.getEnclosingElement());
         var batchType = this.genService.types.asElementOpt(returnType.type());
         UpdateMethod updateMethod = batchType == null ? null : getUpdateMethod(batchType);
         if(updateMethod == null || body.hasErrors()) {
             return this.build("");
         }
+        var shardKey = this.shardKey(updateMethod);
+        var keyConverter = this.keyConverter(returnType.type(), batchMode, batchShards);
+        if(body.hasErrors()) {
+            return this.build("");
+        }
 
         // ------------
 
@@ -89,15 +117,29 @@ public class GenerateJdbcUpdateBatch implements GenerateJdbc {
         var sqlUpdate = updateMethod.anno.useAnnotationOrUnset(Anno.JDBC_UPDATE);
         var sql = SqlParser.parse(sqlUpdate);
         if(!this.parent.containsClass(batchClassName)) {
+            var constructor = MethodSpec.constructorBuilder()
+                    .addParameter(PreparedStatement.class, "stmt")
+                    .addParameter(int.class, "batchSize")
+                    .addParameter(int.class, "batchBytes")
+                    .addParameter(int.class, "batchLinger");
             var batchClass = TypeSpec.classBuilder(batchClassName)
                     .addModifiers(Modifier.STATIC)
-                    .superclass(ClassName.get(JdbcBatchImpl.class))
-                    .addSuperinterface(ClassName.get(updateMethod.parent))
-                    .addMethod(MethodSpec.constructorBuilder()
-                            .addParameter(PreparedStatement.class, "stmt")
-                            .addParameter(int.class, "batchSize")
-                            .addStatement("super(stmt, batchSize)")
-                            .build());
+                    .addSuperinterface(ClassName.get(updateMethod.parent));
+            if(keyConverter == null) {
+                batchClass.superclass(ClassName.get(JdbcBatchImpl.class));
+                constructor.addStatement("super(stmt, batchSize, batchBytes, batchLinger)");
+            } else {
+                var keyType = TypeName.get(keyConverter.type()).box();
+                batchClass.superclass(ParameterizedTypeName.get(ClassName.get(JdbcKeyBatchImpl.class), keyType));
+                constructor.addParameter(ParameterizedTypeName.get(ClassName.get(JdbcToJava.Row.class), keyType), "keyConverter");
+                if(keyConverter.longConverter() == null) {
+                    constructor.addStatement("super(stmt, batchSize, batchBytes, batchLinger, keyConverter)");
+                } else {
+                    constructor.addParameter(ResultSetUtils.LongRow.class, "longKeyConverter");
+                    constructor.addStatement("super(stmt, batchSize, batchBytes, batchLinger, keyConverter, longKeyConverter)");
+                }
+            }
+            batchClass.addMethod(constructor.build());
             var batchMethod = genService.createMethodBuilder(updateMethod.method);
 
             var batchBody = new KaumeiMethodBodyBuilder(this.logger, this.genService, this.method);
@@ -131,21 +173,63 @@ public class GenerateJdbcUpdateBatch implements GenerateJdbc {
             batchClass.addMethod(batchMethod.build());
             this.parent.addClass(batchClassName, batchClass.build());
         }
+        var shardedClassName = batchClassName + "Sharded";
+        if(batchShards != null && !this.parent.containsClass(shardedClassName)) {
+            this.parent.addClass(shardedClassName, this.shardedClass(shardedClassName, updateMethod, shardKey));
+        }
         // ------------
 
         // check return type
 
         body.beginControlFlow("try");
-        body.addStatement("var con = supplier.getConnection()");
+        if(batchShards != null) {
+            body.add("return new $N(supplier, $L, con -> {\n$>", shardedClassName, batchShards.nameOrValue());
+        } else if(batchMode != JdbcBatchMode.Kind.PIPELINED) {
+            // a pipelined batch executes on a connection of its own
+            body.addStatement("var con = supplier.getConnection()");
+        }
         // ----
         var queryTimeout = this.processAnno(Anno.JDBC_QUERY_TIMEOUT);
-        body.addStatement("var stmt = con.prepareStatement($S)", sql.nativeSql());
+        if(batchMode == JdbcBatchMode.Kind.MULTI_ROW_INSERT) {
+            var insert = SqlParser.insertValues(sql.nativeSql());
+            if(insert == null || sql.index2name().length == 0) {
+                body.addError(Msg.of("@JdbcBatchMode(MULTI_ROW_INSERT): SQL must be an INSERT with one VALUES row, which contains all parameters"));
+            } else if(batchSize != null) {
+                body.addStatement("var stmt = new $T(supplier, con, $S, $S, $S, $L, $L)", MultiRowInsert.class,
+                        insert.prefix(), insert.row(), insert.suffix(), sql.index2name().length, batchSize.nameOrValue());
+            }
+        } else if(batchMode == JdbcBatchMode.Kind.COPY) {
+            var copySql = SqlParser.copyFromStdin(sql.nativeSql());
+            if(copySql == null) {
+                body.addError(Msg.of("@JdbcBatchMode(COPY): SQL must be an INSERT INTO table (columns) VALUES with one parameter per column"));
+            } else {
+                body.addStatement("var stmt = $T.prepare(supplier, con, $S, $S, $L)", CopyInsert.class,
+                        copySql, sql.nativeSql(), sql.index2name().length);
+            }
+        } else if(batchMode == JdbcBatchMode.Kind.PIPELINED) {
+            body.addStatement("var stmt = new $T(supplier, $S)", PipelinedStatement.class, sql.nativeSql());
+        } else if(keyConverter != null) {
+            body.addStatement("var stmt = supplier.prepareStatement(con, $S, $T.RETURN_GENERATED_KEYS)", sql.nativeSql(), Statement.class);
+        } else {
+            body.addStatement("var stmt = supplier.prepareStatement(con, $S)", sql.nativeSql());
+        }
         body.addIfAnnotationIsPresent("stmt.setQueryTimeout($L)", queryTimeout);
         if(batchSize != null) {
-            body.addStatement("return new $N(stmt, $L)", batchClassName, batchSize.nameOrValue());
+            var keys = keyConverter == null ? ""
+                    : ", " + body.lambda("", OptionalFlag.NON_NULL, keyConverter.converter());
+            if(keyConverter != null && keyConverter.longConverter() != null) {
+                // the collected keys are stored unboxed
+                keys += ", " + body.lambda("", OptionalFlag.NON_NULL, keyConverter.longConverter());
+            }
+            body.addStatement("return new $N(stmt, $L, $L, $L$L)", batchClassName, batchSize.nameOrValue(),
+                    batchBytes != null ? batchBytes.nameOrValue() : "-1",
+                    batchLinger != null ? batchLinger.nameOrValue() : "-1", keys);
         } else {
             throw new ProcessorException();
         }
+        if(batchShards != null) {
+            body.add("$<});\n");
+        }
         // ----
         body.nextControlFlow("catch ($T e)", SQLException.class);
         body.addStatement("throw new $T(e.getMessage(), e)", JdbcException.class);
@@ -191,6 +275,102 @@ public class GenerateJdbcUpdateBatch implements GenerateJdbc {
         return null;
     }
 
+    /**
+     * @param longConverter the converter of the unboxed key, only for {@code Long} keys
+     */
+    record KeyConverter(TypeMirror type, Jdbc2JavaConverter converter, @Nullable Jdbc2JavaConverter longConverter) {
+    }
+
+    /**
+     * @return the converter of the generated keys for a {@code JdbcKeyBatch<K>}, or null for other batches
+     */
+    private @Nullable KeyConverter keyConverter(TypeMirror batchType, JdbcBatchMode.Kind batchMode,
+                                                GenerateService.@Nullable AnnoCode batchShards) {
+        var keyType = this.genService.types.jdbcKeyBatchKeyType(batchType);
+        if(keyType == null) {
+            return null;
+        }
+        var body = methodBuilder.body();
+        if(batchMode != JdbcBatchMode.Kind.JDBC_BATCH) {
+            body.addError(Msg.of("JdbcKeyBatch: generated keys are only supported with @JdbcBatchMode(JDBC_BATCH)"));
+        }
+        if(batchShards != null) {
+            body.addError(Msg.of("JdbcKeyBatch: generated keys are not supported with @JdbcBatchShards"));
+        }
+        var returnGeneratedValues = genService.jdbcConfigService.jdbcReturnGeneratedValues(this.methodAnnotations, method.getEnclosingElement());
+        if(returnGeneratedValues != JdbcReturnGeneratedValues.Kind.GENERATED_KEYS) {
+            body.addError(Msg.of("JdbcKeyBatch: only @JdbcReturnGeneratedValues(GENERATED_KEYS) is supported"));
+        }
+        var store = genService.jdbc2JavaService.getStoreForElement(method);
+        var resolved = store.resolve(new SearchKey("", keyType));
+        if(!resolved.hasValidConverter()) {
+            body.addError(Msg.returnTypeNotSupported(keyType, "no converter for the generated keys"));
+            return null;
+        }
+        Jdbc2JavaConverter longConverter = null;
+        if(keyType.getKind() == TypeKind.DECLARED && this.genService.types.unboxedKind(keyType) == TypeKind.LONG) {
+            var resolvedLong = store.resolve(new SearchKey("", this.genService.types.typeMirror(TypeKind.LONG)));
+            longConverter = resolvedLong.hasValidConverter() ? resolvedLong.converter() : null;
+        }
+        return new KeyConverter(keyType, resolved.converter(), longConverter);
+    }
+
+    /**
+     * The number of shards must be set and positive, a parameter is checked at runtime.
+     */
+    private void checkBatchShards(GenerateService.@Nullable AnnoCode batchShards) {
+        var body = methodBuilder.body();
+        if(batchShards == null) {
+            if(this.methodAnnotations.useAnnotationWithoutValue(Anno.JDBC_BATCH_SHARDS)) {
+                body.addError(Msg.of("@JdbcBatchShards: the number of shards must be set"));
+            }
+        } else if(batchShards.check() == null && Integer.parseInt(batchShards.nameOrValue().toString()) < 1) {
+            body.addError(Msg.of("@JdbcBatchShards: the number of shards must be positive"));
+        }
+    }
+
+    /**
+     * @return the name of the parameter annotated with {@code @JdbcShardKey}, or null
+     */
+    private @Nullable String shardKey(UpdateMethod updateMethod) {
+        String shardKey = null;
+        for (var item : updateMethod.parameters.parameterMap().values()) {
+            if(item.anno().useAnnotation(Anno.JDBC_SHARD_KEY)) {
+                if(shardKey != null) {
+                    methodBuilder.body().addError(Msg.of("@JdbcShardKey: only one parameter can be the shard key"));
+                }
+                shardKey = item.elem().getSimpleName().toString();
+            }
+        }
+        return shardKey;
+    }
+
+    private TypeSpec shardedClass(String shardedClassName, UpdateMethod updateMethod, @Nullable String shardKey) {
+        var batchType = ClassName.get(updateMethod.parent);
+        var shardedMethod = genService.createMethodBuilder(updateMethod.method);
+        var args = updateMethod.method.getParameters().stream()
+                .map(p -> p.getSimpleName().toString())
+                .collect(Collectors.joining(", "));
+        if(shardKey == null) {
+            shardedMethod.addStatement("this.submit(batch -> batch.$N($L))", updateMethod.method.getSimpleName(), args);
+        } else {
+            shardedMethod.addStatement("this.submit($N, batch -> batch.$N($L))", shardKey, updateMethod.method.getSimpleName(), args);
+        }
+        return TypeSpec.classBuilder(shardedClassName)
+                .addModifiers(Modifier.STATIC)
+                .superclass(ParameterizedTypeName.get(ClassName.get(JdbcShardedBatch.class), batchType))
+                .addSuperinterface(batchType)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(JdbcConnectionProvider.class, "provider")
+                        .addParameter(int.class, "shards")
+                        .addParameter(ParameterizedTypeName.get(ClassName.get(JdbcShardedBatch.Shard.class), batchType), "shard")
+                        .addException(SQLException.class)
+                        .addStatement("super(provider, shards, shard)")
+                        .build())
+                .addMethod(shardedMethod.build())
+                .build();
+    }
+
     // ------------------------------------------------------------------------
 
     <A extends Annotation, T> GenerateService.@Nullable AnnoCode processAnno(Anno.WithConfigValue<A, T> anno) {
@@ -39,6 +39,9 @@ public class GenerateService implements ProcessorSteps {
     final Jdbc2JavaService jdbc2JavaService;
     final Java2JdbcService java2JdbcService;
 
+    // ------ state: the lines of the SQL manifest
+    private final List<String> sqlManifest = new ArrayList<>();
+
     public GenerateService(JavaAnnoMessenger logger, JavaAnnoTypes types, JavaAnnoElements elements, JavaAnnoFiler filer,
                            ConfigService jdbcConfigService, Jdbc2JavaService jdbc2JavaService, Java2JdbcService java2JdbcService) {
         this.logger = logger;
@@ -57,6 +60,21 @@ public class GenerateService implements ProcessorSteps {
         for (var entry : roundEnv.jdbcInterfaces()) {
             this.logger.acceptWithDebugFlag(entry, this::generateImplementation);
         }
+        if (this.jdbcConfigService.sqlManifest()) {
+            this.filer.writeResource(Processor.SQL_MANIFEST, String.join("", this.sqlManifest));
+        }
+    }
+
+    /**
+     * Adds the SQL of a generated method to the manifest, one line per method:
+     * {@code kind TAB interface TAB method TAB native SQL}. Collection parameters have one marker.
+     */
+    void addToSqlManifest(String kind, TypeElement type, ExecutableElement method, String nativeSql) {
+        if (!this.jdbcConfigService.sqlManifest()) {
+            return;
+        }
+        var sql = nativeSql.replace("\\", "\\\\").replace("\t", "\\t").replace("\r", "\\r").replace("\n", "\\n");
+        this.sqlManifest.add(kind + "\t" + type.getQualifiedName() + "\t" + method.getSimpleName() + "\t" + sql + "\n");
     }
 
     // ------------------------------------------------------------------------
@@ -316,14 +334,27 @@ public class GenerateService implements ProcessorSteps {
         }
     }
 
+    /**
+     * @return T for a method returning {@code CompletableFuture<T>}, otherwise the return type
+     */
+    TypeMirror resultType(ExecutableElement method) {
+        var resultType = this.types.futureResultType(method.getReturnType());
+        return resultType == null ? method.getReturnType() : resultType;
+    }
+
+    boolean isAsync(ExecutableElement method) {
+        return this.types.futureResultType(method.getReturnType()) != null;
+    }
+
     MethodReturn returnType(ExecutableElement method, KaumeiAnno methodAnnotations) {
 
         var converterName = methodAnnotations.jdbcConverterName();
-        var searchKey = new SearchKey(converterName, method.getReturnType());
+        var resultType = this.resultType(method);
+        var searchKey = new SearchKey(converterName, resultType);
 
         // check for void early in the process
-        if(method.getReturnType().getKind() == TypeKind.VOID) {
-            return MethodReturn.of(searchKey, JdbcTypeKind.VOID, OptionalFlag.UNSPECIFIED, method.getReturnType(), MsgSet.EMPTY);
+        if(resultType.getKind() == TypeKind.VOID) {
+            return MethodReturn.of(searchKey, JdbcTypeKind.VOID, OptionalFlag.UNSPECIFIED, resultType, MsgSet.EMPTY);
         }
         // get the correct store to search
         var store = this.jdbc2JavaService.getStoreForElement(method);
@@ -344,14 +375,18 @@ public class GenerateService implements ProcessorSteps {
                 searchKey = new SearchKey(converterName, resolved.component());
                 compResolved = store.resolve(searchKey);
                 if(!this.types.optionalFlag(method, compResolved.type()).isNonNullOrUnspecific()) {
-                    return MethodReturn.of(searchKey, kind, optional, method.getReturnType(),
+                    return MethodReturn.of(searchKey, kind, optional, resultType,
                             Msg.of("Return type: Component of Optional must be 'non-null' or 'unspecific'"));
                 }
-                return MethodReturn.of(searchKey, kind, optional, method.getReturnType(),
+                return MethodReturn.of(searchKey, kind, optional, resultType,
                         compResolved.converterOpt());
 
-            case LIST, KAUMEI_JDBC_ITERABLE, KAUMEI_JDBC_RESULT_SET, STREAM:
+            case ARRAY, LIST, KAUMEI_JDBC_ITERABLE, KAUMEI_JDBC_RESULT_SET, STREAM, FLOW_PUBLISHER:
                 optional = this.types.optionalFlag(method, resolved.type());
+                if(kind.isArray() && !isPrimitiveRow(Objects.requireNonNull(resolved.component()))) {
+                    return MethodReturn.of(searchKey, kind, optional, resultType,
+                            Msg.returnTypeNotSupported(resultType, "only int[], long[] and double[] are supported"));
+                }
                 var optReason = optional.checkNonNullOrUnspecific();
                 if(optReason != null) {
                     return MethodReturn.of(searchKey, kind, optional, resolved.type(), Msg.returnTypeOptional(optReason));
@@ -364,6 +399,11 @@ public class GenerateService implements ProcessorSteps {
                     compResolved = store.resolve(searchKey);
                 }
 
+                if(kind == JdbcTypeKind.FLOW_PUBLISHER && optional.isNullable()) {
+                    // reactive streams do not allow null elements
+                    return MethodReturn.of(searchKey, kind, optional, resolved.component(),
+                            Msg.of("Return type: Component of Flow.Publisher must be 'non-null' or 'unspecific'"));
+                }
                 if(!compResolved.hasMessages() && isRowConverter(compResolved)
                         && !this.types.optionalFlag(method, resolved.component()).isNonNullOrUnspecific()) {
                     return MethodReturn.of(searchKey, kind, optional, resolved.component(),
@@ -384,6 +424,13 @@ public class GenerateService implements ProcessorSteps {
         }
     }
 
+    /**
+     * int, long and double rows are read without boxing, e.g. into long[] or a LongStream.
+     */
+    static boolean isPrimitiveRow(TypeMirror type) {
+        return type.getKind() == TypeKind.INT || type.getKind() == TypeKind.LONG || type.getKind() == TypeKind.DOUBLE;
+    }
+
     private boolean isRowConverter(StoreResolve<Jdbc2JavaConverter> resolved) {
         return resolved.hasConverter() && !resolved.converter().isColumn();
     }
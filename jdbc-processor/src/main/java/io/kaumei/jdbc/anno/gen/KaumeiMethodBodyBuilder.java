@@ -5,6 +5,7 @@
 
 package io.kaumei.jdbc.anno.gen;
 
+import com.palantir.javapoet.ClassName;
 import com.palantir.javapoet.CodeBlock;
 import io.kaumei.jdbc.CodeGenerationException;
 import io.kaumei.jdbc.JdbcEmptyResultSetException;
@@ -24,12 +25,21 @@ import io.kaumei.jdbc.anno.store.SearchKey;
 import io.kaumei.jdbc.anno.utils.SqlParser;
 import io.kaumei.jdbc.annotation.config.JdbcNoMoreRows;
 import io.kaumei.jdbc.annotation.config.JdbcNoRows;
+import io.kaumei.jdbc.impl.JdbcProbe;
 import org.jspecify.annotations.Nullable;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TreeSet;
 
+import static java.util.Objects.requireNonNullElse;
+
 public class KaumeiMethodBodyBuilder {
 
     // ----- services
@@ -40,6 +50,13 @@ public class KaumeiMethodBodyBuilder {
     // ------ state
     private final MsgSetBuilder errors = new MsgSetBuilder();
     private final CodeBlock.Builder code = CodeBlock.builder();
+    // the builder around a row lambda, it resolves the column indexes once per result set
+    private @Nullable KaumeiMethodBodyBuilder columnResolver;
+    private final Map<String, ColumnIndex> columnIndexes = new HashMap<>();
+    // the analyzed select list, if columns are read by ordinal
+    private @Nullable List<SqlParser.SelectColumn> selectList;
+    // the bound parameters are passed to the probe for the slow-query log
+    private boolean captureParameters;
 
     KaumeiMethodBodyBuilder(JavaAnnoMessenger logger, GenerateService service, Element element) {
         this.logger = logger;
@@ -155,6 +172,86 @@ public class KaumeiMethodBodyBuilder {
         this.code.addStatement(codeBlock);
     }
 
+    // ------------------------------------------------------------------------
+    // JdbcListener events, see JdbcProbe. Without a listener the probe is null.
+
+    void addProbeStart(TypeElement type, ExecutableElement method) {
+        this.addProbeStart(type, method, null);
+    }
+
+    /**
+     * @param slowQuery the threshold of {@code @JdbcSlowQuery}, with it {@link #processParameter}
+     *                  captures the parameters
+     */
+    void addProbeStart(TypeElement type, ExecutableElement method, GenerateService.@Nullable AnnoCode slowQuery) {
+        if (slowQuery == null) {
+            this.code.addStatement("var probe_jdbc = $T.start(supplier, $T.class, $S)",
+                    JdbcProbe.class, ClassName.get(type), method.getSimpleName().toString());
+        } else {
+            if (slowQuery.check() != null) {
+                this.code.add(slowQuery.check());
+            }
+            this.code.addStatement("var probe_jdbc = $T.start(supplier, $T.class, $S, $L)",
+                    JdbcProbe.class, ClassName.get(type), method.getSimpleName().toString(), slowQuery.nameOrValue());
+            this.captureParameters = true;
+        }
+    }
+
+    /**
+     * @param explain the interval of {@code @JdbcSlowQueryExplain}, only used with a slow-query threshold
+     * @return the code of the statement, which records the parameters to explain a slow query
+     */
+    CodeBlock explainStatement(CodeBlock prepareStatement, GenerateService.@Nullable AnnoCode explain) {
+        if (explain == null || !this.captureParameters) {
+            return prepareStatement;
+        }
+        if (explain.check() != null) {
+            this.code.add(explain.check());
+        }
+        return CodeBlock.of("$T.explain(probe_jdbc, $L, $L)", JdbcProbe.class, prepareStatement, explain.nameOrValue());
+    }
+
+    void addProbe(String format, Object... args) {
+        this.code.addStatement("$T.$L", JdbcProbe.class, CodeBlock.of(format, args));
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Columns are read by the constant index of the given select list.
+     */
+    void columnsByOrdinal(List<SqlParser.SelectColumn> selectList) {
+        this.selectList = selectList;
+    }
+
+    /**
+     * With an analyzed select list, returns the constant index of the column. Inside a row lambda,
+     * adds {@code resultSet.findColumn(columnName)} in front of the lambda, so each row reads the
+     * column by index.
+     *
+     * @return the column index or null, if the column must be read by name
+     */
+    public @Nullable ColumnIndex resolveColumn(String columnName) {
+        if (this.selectList != null) {
+            for (int i = 0; i < this.selectList.size(); i++) {
+                if (this.selectList.get(i).matches(columnName)) {
+                    return ColumnIndex.ofValue(i + 1, columnName);
+                }
+            }
+            this.addError(Msg.of("Column '" + columnName + "' not found in select list: " + this.selectList));
+            return null;
+        }
+        if (this.columnResolver == null) {
+            return null;
+        }
+        var outer = this.columnResolver;
+        return outer.columnIndexes.computeIfAbsent(columnName, name -> {
+            var index = ColumnIndex.ofVariable("index_jdbc" + outer.columnIndexes.size(), name);
+            outer.addStatement("var $N = resultSet.findColumn($S)", index.columnIndexVar(), index.columnName());
+            return index;
+        });
+    }
+
     // ------------------------------------------------------------------------
 
     void processParameter(SqlParser.Result sql, GenerateService.MethodParameters methodParameters) {
@@ -189,6 +286,22 @@ public class KaumeiMethodBodyBuilder {
         for (var name : notUseNames) {
             this.addError(Msg.of("No sql named parameter marker with '" + name + "' found."));
         }
+        if (this.captureParameters) {
+            var captured = new LinkedHashSet<String>();
+            for (var e : sql.index2name()) {
+                var name = e.name();
+                if (methodParameters.parameterMap().containsKey(name)) {
+                    captured.add(name);
+                }
+            }
+            if (!captured.isEmpty()) {
+                // the names are one constant, the values are only formatted for a slow call
+                this.beginControlFlow("if ($T.capture(probe_jdbc))", JdbcProbe.class);
+                this.addStatement("probe_jdbc.parameters($S, new Object[]{$L})",
+                        String.join(",", captured), String.join(", ", captured));
+                this.endControlFlow();
+            }
+        }
     }
 
     // ------------------------------------------------------------------------
@@ -221,10 +334,13 @@ public class KaumeiMethodBodyBuilder {
 
     KaumeiMethodBodyBuilder lambda(String jdbcName, OptionalFlag optional, Jdbc2JavaConverter converter) {
         var lambda = new KaumeiMethodBodyBuilder(this.logger, this.searchJava, this.searchJdbc);
+        lambda.selectList = this.selectList;
         if (converter.isColumn()) {
             ColumnIndex index;
             if (jdbcName.isEmpty()) {
                 index = ColumnIndex.ofValue(1);
+            } else if (this.selectList != null) {
+                index = requireNonNullElse(lambda.resolveColumn(jdbcName), ColumnIndex.ofValue(1));
             } else {
                 index = ColumnIndex.ofVariable("index", jdbcName);
                 this.addStatement("var $N = resultSet.findColumn($S)", index.columnIndexVar(), index.columnName());
@@ -236,6 +352,7 @@ public class KaumeiMethodBodyBuilder {
             lambda.unindent();
             lambda.add("}");
         } else {
+            lambda.columnResolver = this;
             lambda.add("(rs) -> {\n");
             lambda.indent();
             converter.addResultSetToRow(lambda, "row", optional);
@@ -255,10 +372,11 @@ public class KaumeiMethodBodyBuilder {
     void converter(Jdbc2JavaConverter converter, String localVarName, KaumeiAnno anno, OptionalFlag optional) {
         if (converter.isColumn()) {
             var jdbcName = anno.jdbcName();
-            if (jdbcName.isEmpty()) {
-                converter.addColumnByIndex(this, localVarName, ColumnIndex.ofValue(1), optional);
-            } else {
+            var index = jdbcName.isEmpty() ? ColumnIndex.ofValue(1) : this.resolveColumn(jdbcName);
+            if (index == null) {
                 converter.addColumnByName(this, localVarName, jdbcName, optional);
+            } else {
+                converter.addColumnByIndex(this, localVarName, index, optional);
             }
         } else {
             converter.addResultSetToRow(this, localVarName, optional);
@@ -277,6 +395,7 @@ public class KaumeiMethodBodyBuilder {
             jdbcToJava.addResultSetToRow(this, "result", isMandatory);
         }
         this.addCheckNoMoreRows(noMoreRows);
+        this.addProbe("fetched(probe_jdbc, 1)");
         this.addStatement("return result");
     }
 
@@ -10,8 +10,10 @@ import io.kaumei.jdbc.anno.JavaAnnoMessenger;
 import io.kaumei.jdbc.anno.java2jdbc.Java2JdbcConverter;
 import io.kaumei.jdbc.anno.jdbc2java.Jdbc2JavaConverter;
 import io.kaumei.jdbc.anno.store.ConverterSearch;
+import io.kaumei.jdbc.impl.JdbcFuture;
 
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.TypeKind;
 
 public class KaumeiMethodBuilder {
 
@@ -31,6 +33,25 @@ public class KaumeiMethodBuilder {
                 .build();
     }
 
+    /**
+     * The body is generated for the result type T and runs inside a {@link JdbcFuture} task.
+     * The lambda parameter {@code supplier} hides the field, so statements of the body are tracked.
+     */
+    MethodSpec buildAsync(GenerateService genService, ExecutableElement method, String comment) {
+        var methodBuilder = genService.createMethodBuilder(method);
+        if (body.hasErrors()) {
+            // throw the error right away, not inside the future
+            return methodBuilder.addCode(body.build(comment)).build();
+        }
+        methodBuilder.addCode("return $T.supplyAsync(this.supplier, supplier -> {\n$>", JdbcFuture.class);
+        methodBuilder.addCode(body.build(comment));
+        if (genService.resultType(method).getKind() == TypeKind.VOID) {
+            methodBuilder.addStatement("return null");
+        }
+        methodBuilder.addCode("$<});\n");
+        return methodBuilder.build();
+    }
+
     // ------------------------------------------------------------------------
 
 }
\ No newline at end of file
@@ -10,6 +10,10 @@ public class ColumnIndex {
         return new ColumnIndex(Integer.toString(index), "");
     }
 
+    public static ColumnIndex ofValue(int index, String columnName) {
+        return new ColumnIndex(Integer.toString(index), columnName);
+    }
+
     public static ColumnIndex ofVariable(String indexVar) {
         return new ColumnIndex(indexVar, "");
     }
@@ -83,7 +83,12 @@ class ConverterRowObjects extends Jdbc2JavaConverter {
                 continue;
             }
             // TODO: should we add an extra check on jdbcToJava.isColument for better debug output
-            jdbcToJava.addColumnByName(builder, tempVarName, this.jdbcNames[i], this.isNonnull[i]);
+            var index = builder.resolveColumn(this.jdbcNames[i]);
+            if (index == null) {
+                jdbcToJava.addColumnByName(builder, tempVarName, this.jdbcNames[i], this.isNonnull[i]);
+            } else {
+                jdbcToJava.addColumnByIndex(builder, tempVarName, index, this.isNonnull[i]);
+            }
             if (i == 0) {
                 args.add("$L", tempVarName);
             } else {
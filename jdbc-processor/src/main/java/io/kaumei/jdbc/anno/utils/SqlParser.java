@@ -9,6 +9,9 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
 
@@ -85,6 +88,263 @@ public class SqlParser {
 
     // ------------------------------------------------------------------------
 
+    /**
+     * A column label of the select list. Quoted labels are case-sensitive.
+     */
+    public record SelectColumn(String label, boolean quoted) {
+        public boolean matches(String name) {
+            return quoted ? label.equals(name) : label.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String toString() {
+            return quoted ? '"' + label + '"' : label;
+        }
+    }
+
+    private final static Set<String> END_OF_SELECT_LIST = Set.of("FROM", "INTO", "WHERE", "GROUP", "HAVING",
+            "WINDOW", "QUALIFY", "ORDER", "UNION", "INTERSECT", "EXCEPT", "MINUS", "LIMIT", "OFFSET", "FETCH", "FOR");
+
+    /**
+     * Analyze the select list of a query. Every column must either be a (qualified) column name
+     * or must have an {@code AS} alias.
+     *
+     * @return the labels in column order, or null if the labels are not known at compile time
+     * (e.g. {@code SELECT *}, an expression without alias or not a SELECT statement)
+     */
+    public static @Nullable List<SelectColumn> selectList(String sql) {
+        var tokens = Token.tokenize(sql);
+        if (tokens.isEmpty() || !tokens.getFirst().isKeyword("SELECT")) {
+            return null;
+        }
+        int i = 1;
+        if (i < tokens.size() && tokens.get(i).isKeyword("DISTINCT")) {
+            i++;
+            if (i < tokens.size() && tokens.get(i).isKeyword("ON")) {
+                return null;
+            }
+        } else if (i < tokens.size() && tokens.get(i).isKeyword("ALL")) {
+            i++;
+        }
+
+        var result = new ArrayList<SelectColumn>();
+        var item = new ArrayList<Token>();
+        int depth = 0;
+        for (; i < tokens.size(); i++) {
+            var token = tokens.get(i);
+            if (depth == 0 && token.kind == Token.IDENTIFIER
+                    && END_OF_SELECT_LIST.contains(token.text.toUpperCase(Locale.ROOT))) {
+                break;
+            } else if (depth == 0 && token.isSymbol(',')) {
+                if (!addSelectColumn(result, item)) {
+                    return null;
+                }
+                item.clear();
+                continue;
+            } else if (token.isSymbol('(')) {
+                depth++;
+            } else if (token.isSymbol(')')) {
+                depth--;
+            }
+            item.add(token);
+        }
+        if (depth != 0 || !addSelectColumn(result, item)) {
+            return null;
+        }
+        return result;
+    }
+
+    private static boolean addSelectColumn(List<SelectColumn> result, List<Token> item) {
+        var size = item.size();
+        if (size == 0) {
+            return false;
+        }
+        var last = item.get(size - 1);
+        if (!last.isName()) {
+            // e.g. '*', 't.*', a literal or an expression without alias
+            return false;
+        }
+        if (size >= 3 && item.get(size - 2).isKeyword("AS")) {
+            result.add(new SelectColumn(last.text, last.kind == Token.QUOTED));
+            return true;
+        }
+        // a column name 'name' or a qualified column name 'table.name'
+        for (int i = 0; i < size; i++) {
+            var token = item.get(i);
+            if (i % 2 == 0 ? !token.isName() : !token.isSymbol('.')) {
+                return false;
+            }
+        }
+        result.add(new SelectColumn(last.text, last.kind == Token.QUOTED));
+        return true;
+    }
+
+    /**
+     * An {@code INSERT} statement split around its {@code VALUES} row.
+     */
+    public record InsertValues(String prefix, String row, String suffix) {
+    }
+
+    /**
+     * Split an {@code INSERT ... VALUES (...)} statement, so the row can be repeated.
+     *
+     * @return null if the statement is not an insert with exactly one row, or if a parameter
+     * is outside of the row
+     */
+    public static @Nullable InsertValues insertValues(String nativeSql) {
+        var tokens = Token.tokenize(nativeSql);
+        if (tokens.isEmpty() || !tokens.getFirst().isKeyword("INSERT")) {
+            return null;
+        }
+        int rowStart = -1;
+        int rowEnd = -1;
+        int depth = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            var token = tokens.get(i);
+            if (token.isSymbol('?') && (rowStart == -1 || rowEnd != -1)) {
+                return null;
+            } else if (token.isSymbol('(')) {
+                if (depth == 0 && rowStart == -1 && i > 0 && tokens.get(i - 1).isKeyword("VALUES")) {
+                    rowStart = i;
+                }
+                depth++;
+            } else if (token.isSymbol(')')) {
+                depth--;
+                if (depth == 0 && rowStart != -1 && rowEnd == -1) {
+                    rowEnd = i;
+                    if (i + 1 < tokens.size() && tokens.get(i + 1).isSymbol(',')) {
+                        return null; // more than one row
+                    }
+                }
+            }
+        }
+        if (rowEnd == -1 || depth != 0) {
+            return null;
+        }
+        var start = tokens.get(rowStart).end - 1;
+        var end = tokens.get(rowEnd).end;
+        return new InsertValues(nativeSql.substring(0, start), nativeSql.substring(start, end), nativeSql.substring(end));
+    }
+
+    /**
+     * Convert {@code INSERT INTO table (columns) VALUES (?, ...)} to {@code COPY table (columns) FROM STDIN}.
+     *
+     * @return null if the statement is not an insert with exactly one parameter per column
+     */
+    public static @Nullable String copyFromStdin(String nativeSql) {
+        var tokens = Token.tokenize(nativeSql);
+        var size = tokens.size();
+        if (size < 3 || !tokens.get(0).isKeyword("INSERT") || !tokens.get(1).isKeyword("INTO") || !tokens.get(2).isName()) {
+            return null;
+        }
+        int i = 3;
+        while (i + 1 < size && tokens.get(i).isSymbol('.') && tokens.get(i + 1).isName()) {
+            i += 2;
+        }
+        if (i >= size || !tokens.get(i).isSymbol('(')) {
+            return null;
+        }
+        var table = nativeSql.substring(tokens.get(1).end, tokens.get(i).end - 1).trim();
+        var columnsStart = tokens.get(i).end;
+        int columns = 0;
+        do {
+            i++;
+            if (i >= size || !tokens.get(i).isName()) {
+                return null;
+            }
+            columns++;
+            i++;
+        } while (i < size && tokens.get(i).isSymbol(','));
+        if (i >= size || !tokens.get(i).isSymbol(')')) {
+            return null;
+        }
+        var columnList = nativeSql.substring(columnsStart, tokens.get(i).end - 1).trim();
+        i++;
+        if (i + 1 >= size || !tokens.get(i).isKeyword("VALUES") || !tokens.get(i + 1).isSymbol('(')) {
+            return null;
+        }
+        i++;
+        int parameters = 0;
+        do {
+            i++;
+            if (i >= size || !tokens.get(i).isSymbol('?')) {
+                return null;
+            }
+            parameters++;
+            i++;
+        } while (i < size && tokens.get(i).isSymbol(','));
+        if (i != size - 1 || !tokens.get(i).isSymbol(')') || parameters != columns) {
+            return null;
+        }
+        return "COPY " + table + " (" + columnList + ") FROM STDIN";
+    }
+
+    /**
+     * Minimal SQL tokenizer, it knows names, quoted names, strings, comments and single char symbols.
+     */
+    record Token(int kind, String text, int end) {
+        final static int IDENTIFIER = 1;
+        final static int QUOTED = 2;
+        final static int OTHER = 3;
+        final static int SYMBOL = 4;
+
+        boolean isKeyword(String keyword) {
+            return kind == IDENTIFIER && text.equalsIgnoreCase(keyword);
+        }
+
+        boolean isName() {
+            return kind == IDENTIFIER || kind == QUOTED;
+        }
+
+        boolean isSymbol(char c) {
+            return kind == SYMBOL && text.length() == 1 && text.charAt(0) == c;
+        }
+
+        static List<Token> tokenize(String sql) {
+            var tokens = new ArrayList<Token>();
+            int length = sql.length();
+            int i = 0;
+            while (i < length) {
+                char c = sql.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                    while (i < length && sql.charAt(i) != '\n') {
+                        i++;
+                    }
+                } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                    var end = sql.indexOf("*/", i + 2);
+                    i = end == -1 ? length : end + 2;
+                } else if (c == '\'' || c == '"') {
+                    i++;
+                    while (i < length && (sql.charAt(i) != c || sql.charAt(i - 1) == '\\')) {
+                        i++;
+                    }
+                    i++;
+                    if (c == '"') {
+                        tokens.add(new Token(QUOTED, sql.substring(start + 1, Math.min(i - 1, length)), Math.min(i, length)));
+                    } else {
+                        tokens.add(new Token(OTHER, sql.substring(start, Math.min(i, length)), Math.min(i, length)));
+                    }
+                } else if (Character.isJavaIdentifierStart(c) || c == ':' || Character.isDigit(c)) {
+                    i++;
+                    while (i < length && Character.isJavaIdentifierPart(sql.charAt(i))) {
+                        i++;
+                    }
+                    var kind = Character.isJavaIdentifierStart(c) && c != '$' ? IDENTIFIER : OTHER;
+                    tokens.add(new Token(kind, sql.substring(start, i), i));
+                } else {
+                    i++;
+                    tokens.add(new Token(SYMBOL, String.valueOf(c), i));
+                }
+            }
+            return tokens;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
     /**
      * Loop over a string and provide the current and the last char
      */
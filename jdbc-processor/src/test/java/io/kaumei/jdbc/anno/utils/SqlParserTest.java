@@ -234,4 +234,91 @@ public class SqlParserTest {
         );
     }
 
+    // ------------------------------------------------------------------------
+    // SqlParser.selectList
+
+    @Test
+    void test_selectList_names() {
+        assertThat(SqlParser.selectList("SELECT id, t.name, \"Budge\" FROM customers t"))
+                .containsExactly(
+                        new SqlParser.SelectColumn("id", false),
+                        new SqlParser.SelectColumn("name", false),
+                        new SqlParser.SelectColumn("Budge", true));
+    }
+
+    @Test
+    void test_selectList_alias() {
+        assertThat(SqlParser.selectList("select distinct :value as v1, count(*) AS v2, 'a,b' as \"v3\", (select max(id) from t) as v4"))
+                .containsExactly(
+                        new SqlParser.SelectColumn("v1", false),
+                        new SqlParser.SelectColumn("v2", false),
+                        new SqlParser.SelectColumn("v3", true),
+                        new SqlParser.SelectColumn("v4", false));
+        assertThat(SqlParser.selectList("-- comment\nSELECT /* a, b */ id AS v1 FROM t WHERE a = 'b' UNION SELECT 1 FROM t"))
+                .containsExactly(new SqlParser.SelectColumn("v1", false));
+    }
+
+    @Test
+    void test_selectList_unknown() {
+        assertThat(SqlParser.selectList("")).isNull();
+        assertThat(SqlParser.selectList("SELECT * FROM t")).isNull();
+        assertThat(SqlParser.selectList("SELECT t.* FROM t")).isNull();
+        assertThat(SqlParser.selectList("SELECT id, 1 FROM t")).isNull();
+        assertThat(SqlParser.selectList("SELECT id + 1 FROM t")).isNull();
+        assertThat(SqlParser.selectList("SELECT id v1 FROM t")).isNull();
+        assertThat(SqlParser.selectList("SELECT DISTINCT ON (id) id FROM t")).isNull();
+        assertThat(SqlParser.selectList("SELECT max(id FROM t")).isNull();
+        assertThat(SqlParser.selectList("WITH x AS (SELECT 1) SELECT id FROM x")).isNull();
+        assertThat(SqlParser.selectList("UPDATE t SET id = 1")).isNull();
+    }
+
+    @Test
+    void test_selectColumn_matches() {
+        assertThat(new SqlParser.SelectColumn("ID", false).matches("id")).isTrue();
+        assertThat(new SqlParser.SelectColumn("ID", true).matches("id")).isFalse();
+        assertThat(new SqlParser.SelectColumn("id", true).matches("id")).isTrue();
+    }
+
+    // ------------------------------------------------------------------------
+    // SqlParser.insertValues
+
+    @Test
+    void test_insertValues() {
+        assertThat(SqlParser.insertValues("INSERT INTO t (a,b) VALUES (?, lower(?))"))
+                .isEqualTo(new SqlParser.InsertValues("INSERT INTO t (a,b) VALUES ", "(?, lower(?))", ""));
+        assertThat(SqlParser.insertValues("insert into t (a,b) values(?,'x)') ON CONFLICT DO NOTHING"))
+                .isEqualTo(new SqlParser.InsertValues("insert into t (a,b) values", "(?,'x)')", " ON CONFLICT DO NOTHING"));
+    }
+
+    @Test
+    void test_insertValues_unknown() {
+        assertThat(SqlParser.insertValues("")).isNull();
+        assertThat(SqlParser.insertValues("UPDATE t SET a = ?")).isNull();
+        assertThat(SqlParser.insertValues("INSERT INTO t (a) SELECT ? FROM u")).isNull();
+        assertThat(SqlParser.insertValues("INSERT INTO t (a) VALUES (?), (?)")).isNull();
+        assertThat(SqlParser.insertValues("INSERT INTO t (a) VALUES (?) ON CONFLICT (a) DO UPDATE SET a = ?")).isNull();
+        assertThat(SqlParser.insertValues("INSERT INTO t (a) VALUES (?")).isNull();
+    }
+
+    // ------------------------------------------------------------------------
+    // SqlParser.copyFromStdin
+
+    @Test
+    void test_copyFromStdin() {
+        assertThat(SqlParser.copyFromStdin("INSERT INTO db_customers (name,budge) values (?,?)"))
+                .isEqualTo("COPY db_customers (name,budge) FROM STDIN");
+        assertThat(SqlParser.copyFromStdin("insert into s.\"T\" ( a, \"B\" ) VALUES ( ? , ? )"))
+                .isEqualTo("COPY s.\"T\" (a, \"B\") FROM STDIN");
+    }
+
+    @Test
+    void test_copyFromStdin_unknown() {
+        assertThat(SqlParser.copyFromStdin("")).isNull();
+        assertThat(SqlParser.copyFromStdin("INSERT INTO t VALUES (?)")).isNull();
+        assertThat(SqlParser.copyFromStdin("INSERT INTO t (a, b) VALUES (?)")).isNull();
+        assertThat(SqlParser.copyFromStdin("INSERT INTO t (a) VALUES (lower(?))")).isNull();
+        assertThat(SqlParser.copyFromStdin("INSERT INTO t (a) VALUES (?), (?)")).isNull();
+        assertThat(SqlParser.copyFromStdin("INSERT INTO t (a) VALUES (?) ON CONFLICT DO NOTHING")).isNull();
+    }
+
 }